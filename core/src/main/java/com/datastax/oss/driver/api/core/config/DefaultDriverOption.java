@@ -38,14 +38,30 @@ public enum DefaultDriverOption implements DriverOption {
   LOAD_BALANCING_POLICY_CLASS("basic.load-balancing-policy.class"),
   LOAD_BALANCING_LOCAL_DATACENTER("basic.load-balancing-policy.local-datacenter"),
   LOAD_BALANCING_FILTER_CLASS("basic.load-balancing-policy.filter.class"),
+  LOAD_BALANCING_LATENCY_HALF_LIFE("basic.load-balancing-policy.latency-aware.half-life"),
+  LOAD_BALANCING_EXCLUSION_IN_FLIGHT(
+      "basic.load-balancing-policy.latency-aware.exclusion-in-flight-threshold"),
+  LOAD_BALANCING_EXCLUSION_LATENCY_RATIO(
+      "basic.load-balancing-policy.latency-aware.exclusion-latency-ratio"),
 
   CONNECTION_INIT_QUERY_TIMEOUT("advanced.connection.init-query-timeout"),
   CONNECTION_SET_KEYSPACE_TIMEOUT("advanced.connection.set-keyspace-timeout"),
   CONNECTION_MAX_REQUESTS("advanced.connection.max-requests-per-connection"),
   CONNECTION_MAX_ORPHAN_REQUESTS("advanced.connection.max-orphan-requests"),
+  CONNECTION_STREAM_ID_ALLOCATION("advanced.connection.stream-id-allocation"),
   CONNECTION_WARN_INIT_ERROR("advanced.connection.warn-on-init-error"),
   CONNECTION_POOL_LOCAL_SIZE("advanced.connection.pool.local.size"),
   CONNECTION_POOL_REMOTE_SIZE("advanced.connection.pool.remote.size"),
+  CONNECTION_POOL_CHANNEL_SELECTION("advanced.connection.pool.channel-selection"),
+  CONNECTION_POOL_EVENT_LOOP_AFFINITY("advanced.connection.pool.event-loop-affinity"),
+  CONNECTION_POOL_LOCAL_MAX_SIZE("advanced.connection.pool.local.max-size"),
+  CONNECTION_POOL_REMOTE_MAX_SIZE("advanced.connection.pool.remote.max-size"),
+  CONNECTION_POOL_ADAPTIVE_INTERVAL("advanced.connection.pool.adaptive-sizing.interval"),
+  CONNECTION_POOL_ADAPTIVE_GROW_THRESHOLD(
+      "advanced.connection.pool.adaptive-sizing.grow-threshold"),
+  CONNECTION_POOL_ADAPTIVE_SHRINK_THRESHOLD(
+      "advanced.connection.pool.adaptive-sizing.shrink-threshold"),
+  CONNECTION_POOL_ADAPTIVE_SHRINK_DELAY("advanced.connection.pool.adaptive-sizing.shrink-delay"),
 
   RECONNECT_ON_INIT("advanced.reconnect-on-init"),
 
@@ -60,6 +76,15 @@ public enum DefaultDriverOption implements DriverOption {
   SPECULATIVE_EXECUTION_POLICY_CLASS("advanced.speculative-execution-policy.class"),
   SPECULATIVE_EXECUTION_MAX("advanced.speculative-execution-policy.max-executions"),
   SPECULATIVE_EXECUTION_DELAY("advanced.speculative-execution-policy.delay"),
+  SPECULATIVE_EXECUTION_PERCENTILE("advanced.speculative-execution-policy.percentile.value"),
+  SPECULATIVE_EXECUTION_PERCENTILE_PER_NODE(
+      "advanced.speculative-execution-policy.percentile.per-node"),
+  SPECULATIVE_EXECUTION_PERCENTILE_MIN_SAMPLES(
+      "advanced.speculative-execution-policy.percentile.min-samples"),
+  SPECULATIVE_EXECUTION_PERCENTILE_HIGHEST_LATENCY(
+      "advanced.speculative-execution-policy.percentile.highest-latency"),
+  SPECULATIVE_EXECUTION_PERCENTILE_REFRESH_INTERVAL(
+      "advanced.speculative-execution-policy.percentile.refresh-interval"),
 
   AUTH_PROVIDER_CLASS("advanced.auth-provider.class"),
   AUTH_PROVIDER_USER_NAME("advanced.auth-provider.username"),
@@ -90,11 +115,16 @@ public enum DefaultDriverOption implements DriverOption {
   REQUEST_LOGGER_MAX_VALUES("advanced.request-tracker.logs.max-values"),
   REQUEST_LOGGER_STACK_TRACES("advanced.request-tracker.logs.show-stack-traces"),
 
+  REQUEST_THROTTLER("advanced.throttler"),
   REQUEST_THROTTLER_CLASS("advanced.throttler.class"),
   REQUEST_THROTTLER_MAX_CONCURRENT_REQUESTS("advanced.throttler.max-concurrent-requests"),
   REQUEST_THROTTLER_MAX_REQUESTS_PER_SECOND("advanced.throttler.max-requests-per-second"),
+  REQUEST_THROTTLER_MAX_BURST("advanced.throttler.max-burst"),
   REQUEST_THROTTLER_MAX_QUEUE_SIZE("advanced.throttler.max-queue-size"),
   REQUEST_THROTTLER_DRAIN_INTERVAL("advanced.throttler.drain-interval"),
+  REQUEST_THROTTLER_MIN_CONCURRENT_REQUESTS("advanced.throttler.min-concurrent-requests"),
+  REQUEST_THROTTLER_LATENCY_THRESHOLD("advanced.throttler.latency-threshold"),
+  REQUEST_THROTTLER_BACKOFF_RATIO("advanced.throttler.backoff-ratio"),
 
   METADATA_NODE_STATE_LISTENER_CLASS("advanced.node-state-listener.class"),
 
@@ -104,7 +134,11 @@ public enum DefaultDriverOption implements DriverOption {
 
   PROTOCOL_VERSION("advanced.protocol.version"),
   PROTOCOL_COMPRESSION("advanced.protocol.compression"),
+  PROTOCOL_COMPRESSION_THRESHOLD("advanced.protocol.compression-threshold"),
+  PROTOCOL_COMPRESSION_LEVEL("advanced.protocol.compression-level"),
+  PROTOCOL_SEGMENTS("advanced.protocol.segments"),
   PROTOCOL_MAX_FRAME_LENGTH("advanced.protocol.max-frame-length"),
+  PROTOCOL_LAZY_ROWS("advanced.protocol.lazy-rows"),
 
   REQUEST_WARN_IF_SET_KEYSPACE("advanced.request.warn-if-set-keyspace"),
   REQUEST_TRACE_ATTEMPTS("advanced.request.trace.attempts"),
@@ -119,6 +153,12 @@ public enum DefaultDriverOption implements DriverOption {
   METRICS_SESSION_THROTTLING_HIGHEST("advanced.metrics.session.throttling.delay.highest-latency"),
   METRICS_SESSION_THROTTLING_DIGITS("advanced.metrics.session.throttling.delay.significant-digits"),
   METRICS_SESSION_THROTTLING_INTERVAL("advanced.metrics.session.throttling.delay.refresh-interval"),
+  METRICS_SESSION_COALESCER_FLUSH_LATENCY_HIGHEST(
+      "advanced.metrics.session.coalescer.flush-latency.highest-latency"),
+  METRICS_SESSION_COALESCER_FLUSH_LATENCY_DIGITS(
+      "advanced.metrics.session.coalescer.flush-latency.significant-digits"),
+  METRICS_SESSION_COALESCER_FLUSH_LATENCY_INTERVAL(
+      "advanced.metrics.session.coalescer.flush-latency.refresh-interval"),
   METRICS_NODE_CQL_MESSAGES_HIGHEST("advanced.metrics.node.cql-messages.highest-latency"),
   METRICS_NODE_CQL_MESSAGES_DIGITS("advanced.metrics.node.cql-messages.significant-digits"),
   METRICS_NODE_CQL_MESSAGES_INTERVAL("advanced.metrics.node.cql-messages.refresh-interval"),
@@ -129,6 +169,8 @@ public enum DefaultDriverOption implements DriverOption {
   SOCKET_LINGER_INTERVAL("advanced.socket.linger-interval"),
   SOCKET_RECEIVE_BUFFER_SIZE("advanced.socket.receive-buffer-size"),
   SOCKET_SEND_BUFFER_SIZE("advanced.socket.send-buffer-size"),
+  SOCKET_TCP_QUICKACK("advanced.socket.tcp-quickack"),
+  SOCKET_BUSY_POLL("advanced.socket.busy-poll"),
 
   HEARTBEAT_INTERVAL("advanced.heartbeat.interval"),
   HEARTBEAT_TIMEOUT("advanced.heartbeat.timeout"),
@@ -156,6 +198,7 @@ public enum DefaultDriverOption implements DriverOption {
   REPREPARE_TIMEOUT("advanced.prepared-statements.reprepare-on-up.timeout"),
 
   NETTY_IO_SIZE("advanced.netty.io-group.size"),
+  NETTY_IO_TRANSPORT("advanced.netty.io-group.transport"),
   NETTY_IO_SHUTDOWN_QUIET_PERIOD("advanced.netty.io-group.shutdown.quiet-period"),
   NETTY_IO_SHUTDOWN_TIMEOUT("advanced.netty.io-group.shutdown.timeout"),
   NETTY_IO_SHUTDOWN_UNIT("advanced.netty.io-group.shutdown.unit"),
@@ -166,6 +209,9 @@ public enum DefaultDriverOption implements DriverOption {
 
   COALESCER_MAX_RUNS("advanced.coalescer.max-runs-with-no-work"),
   COALESCER_INTERVAL("advanced.coalescer.reschedule-interval"),
+  COALESCER_ADAPTIVE("advanced.coalescer.adaptive.enabled"),
+  COALESCER_ADAPTIVE_MAX_INTERVAL("advanced.coalescer.adaptive.max-reschedule-interval"),
+  COALESCER_ADAPTIVE_TARGET_FLUSH_SIZE("advanced.coalescer.adaptive.target-flush-size"),
 
   RESOLVE_CONTACT_POINTS("advanced.resolve-contact-points"),
 
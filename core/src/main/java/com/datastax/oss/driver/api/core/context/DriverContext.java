@@ -32,6 +32,7 @@ import com.datastax.oss.driver.api.core.specex.SpeculativeExecutionPolicy;
 import com.datastax.oss.driver.api.core.ssl.SslEngineFactory;
 import com.datastax.oss.driver.api.core.time.TimestampGenerator;
 import com.datastax.oss.driver.api.core.tracker.RequestTracker;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.util.Map;
 import java.util.Optional;
@@ -137,10 +138,38 @@ public interface DriverContext extends AttachmentPoint {
   @NonNull
   RequestTracker getRequestTracker();
 
-  /** @return The driver's request throttler; never {@code null}. */
+  /**
+   * @return The driver's request throttler for the default profile; never {@code null}.
+   * @see #getRequestThrottler(String)
+   */
   @NonNull
   RequestThrottler getRequestThrottler();
 
+  /**
+   * The default implementation returns a single entry for the default profile, with the throttler
+   * returned by {@link #getRequestThrottler()}. The driver's built-in context overrides it to
+   * return the throttlers of all the profiles.
+   *
+   * @return The driver's request throttlers, keyed by profile name; the returned map is guaranteed
+   *     to never be {@code null} and to always contain an entry for the {@value
+   *     DriverExecutionProfile#DEFAULT_NAME} profile. Profiles that don't override the throttler
+   *     configuration share the same instance.
+   */
+  @NonNull
+  default Map<String, RequestThrottler> getRequestThrottlers() {
+    return ImmutableMap.of(DriverExecutionProfile.DEFAULT_NAME, getRequestThrottler());
+  }
+
+  /**
+   * @param profileName the profile name; never {@code null}.
+   * @return The driver's request throttler for the given profile; never {@code null}.
+   */
+  @NonNull
+  default RequestThrottler getRequestThrottler(@NonNull String profileName) {
+    RequestThrottler throttler = getRequestThrottlers().get(profileName);
+    return (throttler != null) ? throttler : getRequestThrottler();
+  }
+
   /** @return The driver's node state listener; never {@code null}. */
   @NonNull
   NodeStateListener getNodeStateListener();
@@ -23,13 +23,24 @@ import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.driver.api.core.type.DataType;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import com.datastax.oss.driver.internal.core.cql.DefaultBoundStatement;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Map;
 import net.jcip.annotations.NotThreadSafe;
 
+/**
+ * A builder to create a bound statement.
+ *
+ * <p>Unlike the setters of {@link BoundStatement}, which create a new instance each time, the
+ * setters of this class write directly into a single array of values, which is only copied once in
+ * {@link #build()}. The builder can therefore be reused to bind multiple sets of values: call
+ * {@link #unsetAll()} (or simply overwrite every value) after each {@link #build()}; the statements
+ * that were already built won't be affected.
+ */
 @NotThreadSafe
 public class BoundStatementBuilder extends StatementBuilder<BoundStatementBuilder, BoundStatement>
     implements Bindable<BoundStatementBuilder> {
@@ -123,6 +134,19 @@ public class BoundStatementBuilder extends StatementBuilder<BoundStatementBuilde
     return values[i];
   }
 
+  /**
+   * Unsets all the values, leaving the builder in the same state as if no value had ever been
+   * bound.
+   *
+   * <p>The other attributes (execution profile, timestamp, etc.) are not affected. This is intended
+   * for reusing a builder across executions: see the class-level javadocs.
+   */
+  @NonNull
+  public BoundStatementBuilder unsetAll() {
+    Arrays.fill(values, ProtocolConstants.UNSET_VALUE);
+    return this;
+  }
+
   @Override
   public int size() {
     return values.length;
@@ -152,7 +176,8 @@ public class BoundStatementBuilder extends StatementBuilder<BoundStatementBuilde
     return new DefaultBoundStatement(
         preparedStatement,
         variableDefinitions,
-        values,
+        // Copy, so that the builder can be safely reused after this call
+        values.clone(),
         executionProfileName,
         executionProfile,
         routingKeyspace,
@@ -530,6 +530,90 @@ public interface GettableById extends GettableByIndex, AccessibleById {
     return getToken(firstIndexOf(id));
   }
 
+  /**
+   * Returns the value for the first occurrence of {@code id} as a Java primitive int array.
+   *
+   * <p>This works with CQL type {@code list<int>}. It is equivalent to {@code getList(id,
+   * Integer.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * <p>If an identifier appears multiple times, this can only be used to access the first value.
+   * For the other ones, use positional getters.
+   *
+   * <p>If you want to avoid the overhead of building a {@code CqlIdentifier}, use the variant of
+   * this method that takes a string argument.
+   *
+   * @throws IllegalArgumentException if the id is invalid.
+   */
+  @NonNull
+  default int[] getIntArray(@NonNull CqlIdentifier id) {
+    return getIntArray(firstIndexOf(id));
+  }
+
+  /**
+   * Returns the value for the first occurrence of {@code id} as a Java primitive long array.
+   *
+   * <p>This works with CQL type {@code list<bigint>}. It is equivalent to {@code getList(id,
+   * Long.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * <p>If an identifier appears multiple times, this can only be used to access the first value.
+   * For the other ones, use positional getters.
+   *
+   * <p>If you want to avoid the overhead of building a {@code CqlIdentifier}, use the variant of
+   * this method that takes a string argument.
+   *
+   * @throws IllegalArgumentException if the id is invalid.
+   */
+  @NonNull
+  default long[] getLongArray(@NonNull CqlIdentifier id) {
+    return getLongArray(firstIndexOf(id));
+  }
+
+  /**
+   * Returns the value for the first occurrence of {@code id} as a Java primitive float array.
+   *
+   * <p>This works with CQL type {@code list<float>}. It is equivalent to {@code getList(id,
+   * Float.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * <p>If an identifier appears multiple times, this can only be used to access the first value.
+   * For the other ones, use positional getters.
+   *
+   * <p>If you want to avoid the overhead of building a {@code CqlIdentifier}, use the variant of
+   * this method that takes a string argument.
+   *
+   * @throws IllegalArgumentException if the id is invalid.
+   */
+  @NonNull
+  default float[] getFloatArray(@NonNull CqlIdentifier id) {
+    return getFloatArray(firstIndexOf(id));
+  }
+
+  /**
+   * Returns the value for the first occurrence of {@code id} as a Java primitive double array.
+   *
+   * <p>This works with CQL type {@code list<double>}. It is equivalent to {@code getList(id,
+   * Double.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * <p>If an identifier appears multiple times, this can only be used to access the first value.
+   * For the other ones, use positional getters.
+   *
+   * <p>If you want to avoid the overhead of building a {@code CqlIdentifier}, use the variant of
+   * this method that takes a string argument.
+   *
+   * @throws IllegalArgumentException if the id is invalid.
+   */
+  @NonNull
+  default double[] getDoubleArray(@NonNull CqlIdentifier id) {
+    return getDoubleArray(firstIndexOf(id));
+  }
+
   /**
    * Returns the value for the first occurrence of {@code id} as a Java list.
    *
@@ -27,6 +27,7 @@ import com.datastax.oss.driver.api.core.type.codec.PrimitiveIntCodec;
 import com.datastax.oss.driver.api.core.type.codec.PrimitiveLongCodec;
 import com.datastax.oss.driver.api.core.type.codec.PrimitiveShortCodec;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.driver.internal.core.metadata.token.ByteOrderedToken;
 import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
@@ -458,6 +459,66 @@ public interface GettableByIndex extends AccessibleByIndex {
     }
   }
 
+  /**
+   * Returns the {@code i}th value as a Java primitive int array.
+   *
+   * <p>This works with CQL type {@code list<int>}. It is equivalent to {@code getList(i,
+   * Integer.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * @throws IndexOutOfBoundsException if the index is invalid.
+   */
+  @NonNull
+  default int[] getIntArray(int i) {
+    return get(i, TypeCodecs.INT_LIST_TO_ARRAY);
+  }
+
+  /**
+   * Returns the {@code i}th value as a Java primitive long array.
+   *
+   * <p>This works with CQL type {@code list<bigint>}. It is equivalent to {@code getList(i,
+   * Long.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * @throws IndexOutOfBoundsException if the index is invalid.
+   */
+  @NonNull
+  default long[] getLongArray(int i) {
+    return get(i, TypeCodecs.BIGINT_LIST_TO_ARRAY);
+  }
+
+  /**
+   * Returns the {@code i}th value as a Java primitive float array.
+   *
+   * <p>This works with CQL type {@code list<float>}. It is equivalent to {@code getList(i,
+   * Float.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * @throws IndexOutOfBoundsException if the index is invalid.
+   */
+  @NonNull
+  default float[] getFloatArray(int i) {
+    return get(i, TypeCodecs.FLOAT_LIST_TO_ARRAY);
+  }
+
+  /**
+   * Returns the {@code i}th value as a Java primitive double array.
+   *
+   * <p>This works with CQL type {@code list<double>}. It is equivalent to {@code getList(i,
+   * Double.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * @throws IndexOutOfBoundsException if the index is invalid.
+   */
+  @NonNull
+  default double[] getDoubleArray(int i) {
+    return get(i, TypeCodecs.DOUBLE_LIST_TO_ARRAY);
+  }
+
   /**
    * Returns the {@code i}th value as a Java list.
    *
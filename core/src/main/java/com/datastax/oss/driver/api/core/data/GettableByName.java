@@ -526,6 +526,90 @@ public interface GettableByName extends GettableByIndex, AccessibleByName {
     return getToken(firstIndexOf(name));
   }
 
+  /**
+   * Returns the value for the first occurrence of {@code name} as a Java primitive int array.
+   *
+   * <p>This works with CQL type {@code list<int>}. It is equivalent to {@code getList(name,
+   * Integer.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * <p>If an identifier appears multiple times, this can only be used to access the first value.
+   * For the other ones, use positional getters.
+   *
+   * <p>This method deals with case sensitivity in the way explained in the documentation of {@link
+   * AccessibleByName}.
+   *
+   * @throws IllegalArgumentException if the name is invalid.
+   */
+  @NonNull
+  default int[] getIntArray(@NonNull String name) {
+    return getIntArray(firstIndexOf(name));
+  }
+
+  /**
+   * Returns the value for the first occurrence of {@code name} as a Java primitive long array.
+   *
+   * <p>This works with CQL type {@code list<bigint>}. It is equivalent to {@code getList(name,
+   * Long.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * <p>If an identifier appears multiple times, this can only be used to access the first value.
+   * For the other ones, use positional getters.
+   *
+   * <p>This method deals with case sensitivity in the way explained in the documentation of {@link
+   * AccessibleByName}.
+   *
+   * @throws IllegalArgumentException if the name is invalid.
+   */
+  @NonNull
+  default long[] getLongArray(@NonNull String name) {
+    return getLongArray(firstIndexOf(name));
+  }
+
+  /**
+   * Returns the value for the first occurrence of {@code name} as a Java primitive float array.
+   *
+   * <p>This works with CQL type {@code list<float>}. It is equivalent to {@code getList(name,
+   * Float.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * <p>If an identifier appears multiple times, this can only be used to access the first value.
+   * For the other ones, use positional getters.
+   *
+   * <p>This method deals with case sensitivity in the way explained in the documentation of {@link
+   * AccessibleByName}.
+   *
+   * @throws IllegalArgumentException if the name is invalid.
+   */
+  @NonNull
+  default float[] getFloatArray(@NonNull String name) {
+    return getFloatArray(firstIndexOf(name));
+  }
+
+  /**
+   * Returns the value for the first occurrence of {@code name} as a Java primitive double array.
+   *
+   * <p>This works with CQL type {@code list<double>}. It is equivalent to {@code getList(name,
+   * Double.class)}, but avoids boxing the elements.
+   *
+   * <p>A CQL {@code NULL} or an empty list is returned as an empty array.
+   *
+   * <p>If an identifier appears multiple times, this can only be used to access the first value.
+   * For the other ones, use positional getters.
+   *
+   * <p>This method deals with case sensitivity in the way explained in the documentation of {@link
+   * AccessibleByName}.
+   *
+   * @throws IllegalArgumentException if the name is invalid.
+   */
+  @NonNull
+  default double[] getDoubleArray(@NonNull String name) {
+    return getDoubleArray(firstIndexOf(name));
+  }
+
   /**
    * Returns the value for the first occurrence of {@code name} as a Java list.
    *
@@ -457,6 +457,77 @@ public interface SettableById<SelfT extends SettableById<SelfT>>
     return setToken(firstIndexOf(id), v);
   }
 
+  /**
+   * Sets the value for the first occurrence of {@code id} to the provided Java primitive int array.
+   *
+   * <p>This works with CQL type {@code list<int>}. It is equivalent to {@code setList(id, v,
+   * Integer.class)}, but avoids boxing the elements.
+   *
+   * <p>If you want to avoid the overhead of building a {@code CqlIdentifier}, use the variant of
+   * this method that takes a string argument.
+   *
+   * @throws IllegalArgumentException if the id is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setIntArray(@NonNull CqlIdentifier id, @Nullable int[] v) {
+    return setIntArray(firstIndexOf(id), v);
+  }
+
+  /**
+   * Sets the value for the first occurrence of {@code id} to the provided Java primitive long
+   * array.
+   *
+   * <p>This works with CQL type {@code list<bigint>}. It is equivalent to {@code setList(id, v,
+   * Long.class)}, but avoids boxing the elements.
+   *
+   * <p>If you want to avoid the overhead of building a {@code CqlIdentifier}, use the variant of
+   * this method that takes a string argument.
+   *
+   * @throws IllegalArgumentException if the id is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setLongArray(@NonNull CqlIdentifier id, @Nullable long[] v) {
+    return setLongArray(firstIndexOf(id), v);
+  }
+
+  /**
+   * Sets the value for the first occurrence of {@code id} to the provided Java primitive float
+   * array.
+   *
+   * <p>This works with CQL type {@code list<float>}. It is equivalent to {@code setList(id, v,
+   * Float.class)}, but avoids boxing the elements.
+   *
+   * <p>If you want to avoid the overhead of building a {@code CqlIdentifier}, use the variant of
+   * this method that takes a string argument.
+   *
+   * @throws IllegalArgumentException if the id is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setFloatArray(@NonNull CqlIdentifier id, @Nullable float[] v) {
+    return setFloatArray(firstIndexOf(id), v);
+  }
+
+  /**
+   * Sets the value for the first occurrence of {@code id} to the provided Java primitive double
+   * array.
+   *
+   * <p>This works with CQL type {@code list<double>}. It is equivalent to {@code setList(id, v,
+   * Double.class)}, but avoids boxing the elements.
+   *
+   * <p>If you want to avoid the overhead of building a {@code CqlIdentifier}, use the variant of
+   * this method that takes a string argument.
+   *
+   * @throws IllegalArgumentException if the id is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setDoubleArray(@NonNull CqlIdentifier id, @Nullable double[] v) {
+    return setDoubleArray(firstIndexOf(id), v);
+  }
+
   /**
    * Sets the value for the first occurrence of {@code id} to the provided Java list.
    *
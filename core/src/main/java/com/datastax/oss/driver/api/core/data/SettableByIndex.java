@@ -26,6 +26,7 @@ import com.datastax.oss.driver.api.core.type.codec.PrimitiveIntCodec;
 import com.datastax.oss.driver.api.core.type.codec.PrimitiveLongCodec;
 import com.datastax.oss.driver.api.core.type.codec.PrimitiveShortCodec;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.driver.internal.core.metadata.token.ByteOrderedToken;
 import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
@@ -430,6 +431,62 @@ public interface SettableByIndex<SelfT extends SettableByIndex<SelfT>> extends A
     }
   }
 
+  /**
+   * Sets the {@code i}th value to the provided Java primitive int array.
+   *
+   * <p>This works with CQL type {@code list<int>}. It is equivalent to {@code setList(i, v,
+   * Integer.class)}, but avoids boxing the elements.
+   *
+   * @throws IndexOutOfBoundsException if the index is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setIntArray(int i, @Nullable int[] v) {
+    return set(i, v, TypeCodecs.INT_LIST_TO_ARRAY);
+  }
+
+  /**
+   * Sets the {@code i}th value to the provided Java primitive long array.
+   *
+   * <p>This works with CQL type {@code list<bigint>}. It is equivalent to {@code setList(i, v,
+   * Long.class)}, but avoids boxing the elements.
+   *
+   * @throws IndexOutOfBoundsException if the index is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setLongArray(int i, @Nullable long[] v) {
+    return set(i, v, TypeCodecs.BIGINT_LIST_TO_ARRAY);
+  }
+
+  /**
+   * Sets the {@code i}th value to the provided Java primitive float array.
+   *
+   * <p>This works with CQL type {@code list<float>}. It is equivalent to {@code setList(i, v,
+   * Float.class)}, but avoids boxing the elements.
+   *
+   * @throws IndexOutOfBoundsException if the index is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setFloatArray(int i, @Nullable float[] v) {
+    return set(i, v, TypeCodecs.FLOAT_LIST_TO_ARRAY);
+  }
+
+  /**
+   * Sets the {@code i}th value to the provided Java primitive double array.
+   *
+   * <p>This works with CQL type {@code list<double>}. It is equivalent to {@code setList(i, v,
+   * Double.class)}, but avoids boxing the elements.
+   *
+   * @throws IndexOutOfBoundsException if the index is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setDoubleArray(int i, @Nullable double[] v) {
+    return set(i, v, TypeCodecs.DOUBLE_LIST_TO_ARRAY);
+  }
+
   /**
    * Sets the {@code i}th value to the provided Java list.
    *
@@ -457,6 +457,78 @@ public interface SettableByName<SelfT extends SettableByName<SelfT>>
     return setToken(firstIndexOf(name), v);
   }
 
+  /**
+   * Sets the value for the first occurrence of {@code name} to the provided Java primitive int
+   * array.
+   *
+   * <p>This works with CQL type {@code list<int>}. It is equivalent to {@code setList(name, v,
+   * Integer.class)}, but avoids boxing the elements.
+   *
+   * <p>This method deals with case sensitivity in the way explained in the documentation of {@link
+   * AccessibleByName}.
+   *
+   * @throws IllegalArgumentException if the name is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setIntArray(@NonNull String name, @Nullable int[] v) {
+    return setIntArray(firstIndexOf(name), v);
+  }
+
+  /**
+   * Sets the value for the first occurrence of {@code name} to the provided Java primitive long
+   * array.
+   *
+   * <p>This works with CQL type {@code list<bigint>}. It is equivalent to {@code setList(name, v,
+   * Long.class)}, but avoids boxing the elements.
+   *
+   * <p>This method deals with case sensitivity in the way explained in the documentation of {@link
+   * AccessibleByName}.
+   *
+   * @throws IllegalArgumentException if the name is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setLongArray(@NonNull String name, @Nullable long[] v) {
+    return setLongArray(firstIndexOf(name), v);
+  }
+
+  /**
+   * Sets the value for the first occurrence of {@code name} to the provided Java primitive float
+   * array.
+   *
+   * <p>This works with CQL type {@code list<float>}. It is equivalent to {@code setList(name, v,
+   * Float.class)}, but avoids boxing the elements.
+   *
+   * <p>This method deals with case sensitivity in the way explained in the documentation of {@link
+   * AccessibleByName}.
+   *
+   * @throws IllegalArgumentException if the name is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setFloatArray(@NonNull String name, @Nullable float[] v) {
+    return setFloatArray(firstIndexOf(name), v);
+  }
+
+  /**
+   * Sets the value for the first occurrence of {@code name} to the provided Java primitive double
+   * array.
+   *
+   * <p>This works with CQL type {@code list<double>}. It is equivalent to {@code setList(name, v,
+   * Double.class)}, but avoids boxing the elements.
+   *
+   * <p>This method deals with case sensitivity in the way explained in the documentation of {@link
+   * AccessibleByName}.
+   *
+   * @throws IllegalArgumentException if the name is invalid.
+   */
+  @NonNull
+  @CheckReturnValue
+  default SelfT setDoubleArray(@NonNull String name, @Nullable double[] v) {
+    return setDoubleArray(firstIndexOf(name), v);
+  }
+
   /**
    * Sets the value for the first occurrence of {@code name} to the provided Java list.
    *
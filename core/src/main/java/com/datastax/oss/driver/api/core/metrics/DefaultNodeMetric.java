@@ -28,6 +28,8 @@ public enum DefaultNodeMetric implements NodeMetric {
   BYTES_SENT("bytes-sent"),
   BYTES_RECEIVED("bytes-received"),
   CQL_MESSAGES("cql-messages"),
+  COMPRESSION_RATIO("compression.ratio"),
+  COMPRESSION_TIME("compression.time"),
   UNSENT_REQUESTS("errors.request.unsent"),
   ABORTED_REQUESTS("errors.request.aborted"),
   WRITE_TIMEOUTS("errors.request.write-timeouts"),
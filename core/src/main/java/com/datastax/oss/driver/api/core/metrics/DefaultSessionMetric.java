@@ -30,6 +30,8 @@ public enum DefaultSessionMetric implements SessionMetric {
   THROTTLING_QUEUE_SIZE("throttling.queue-size"),
   THROTTLING_ERRORS("throttling.errors"),
   CQL_PREPARED_CACHE_SIZE("cql-prepared-cache-size"),
+  COALESCER_FLUSH_SIZE("coalescer.flush-size"),
+  COALESCER_FLUSH_LATENCY("coalescer.flush-latency"),
   ;
 
   private static final Map<String, DefaultSessionMetric> BY_PATH = sortByPath();
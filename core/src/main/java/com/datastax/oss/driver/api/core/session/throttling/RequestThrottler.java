@@ -18,7 +18,12 @@ package com.datastax.oss.driver.api.core.session.throttling;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.Closeable;
 
-/** Limits the number of concurrent requests executed by the driver. */
+/**
+ * Limits the number of concurrent requests executed by the driver.
+ *
+ * <p>By default, a single throttler is shared by all requests. If an execution profile overrides
+ * the throttler configuration, the requests executed with that profile use a separate instance.
+ */
 public interface RequestThrottler extends Closeable {
 
   /**
@@ -16,6 +16,7 @@
 package com.datastax.oss.driver.api.core.type.codec;
 
 import com.datastax.oss.driver.api.core.data.CqlDuration;
+import com.datastax.oss.driver.api.core.data.GettableByIndex;
 import com.datastax.oss.driver.api.core.data.TupleValue;
 import com.datastax.oss.driver.api.core.data.UdtValue;
 import com.datastax.oss.driver.api.core.type.CustomType;
@@ -32,10 +33,14 @@ import com.datastax.oss.driver.internal.core.type.codec.CustomCodec;
 import com.datastax.oss.driver.internal.core.type.codec.DateCodec;
 import com.datastax.oss.driver.internal.core.type.codec.DecimalCodec;
 import com.datastax.oss.driver.internal.core.type.codec.DoubleCodec;
+import com.datastax.oss.driver.internal.core.type.codec.DoubleListToArrayCodec;
 import com.datastax.oss.driver.internal.core.type.codec.FloatCodec;
+import com.datastax.oss.driver.internal.core.type.codec.FloatListToArrayCodec;
 import com.datastax.oss.driver.internal.core.type.codec.InetCodec;
 import com.datastax.oss.driver.internal.core.type.codec.IntCodec;
+import com.datastax.oss.driver.internal.core.type.codec.IntListToArrayCodec;
 import com.datastax.oss.driver.internal.core.type.codec.ListCodec;
+import com.datastax.oss.driver.internal.core.type.codec.LongListToArrayCodec;
 import com.datastax.oss.driver.internal.core.type.codec.MapCodec;
 import com.datastax.oss.driver.internal.core.type.codec.SetCodec;
 import com.datastax.oss.driver.internal.core.type.codec.SmallIntCodec;
@@ -120,6 +125,40 @@ public class TypeCodecs {
   public static final TypeCodec<InetAddress> INET = new InetCodec();
   public static final TypeCodec<CqlDuration> DURATION = new CqlDurationCodec();
 
+  /**
+   * A codec that maps CQL type {@code list<int>} to a primitive {@code int[]}, without boxing the
+   * elements.
+   *
+   * <p>This codec is not registered by default: it's used by {@link
+   * GettableByIndex#getIntArray(int)} and the related methods, you can also pass it explicitly to
+   * {@link GettableByIndex#get(int, TypeCodec)}, or register it in the codec registry.
+   */
+  public static final TypeCodec<int[]> INT_LIST_TO_ARRAY = new IntListToArrayCodec();
+
+  /**
+   * A codec that maps CQL type {@code list<bigint>} to a primitive {@code long[]}, without boxing
+   * the elements.
+   *
+   * @see #INT_LIST_TO_ARRAY
+   */
+  public static final TypeCodec<long[]> BIGINT_LIST_TO_ARRAY = new LongListToArrayCodec();
+
+  /**
+   * A codec that maps CQL type {@code list<float>} to a primitive {@code float[]}, without boxing
+   * the elements.
+   *
+   * @see #INT_LIST_TO_ARRAY
+   */
+  public static final TypeCodec<float[]> FLOAT_LIST_TO_ARRAY = new FloatListToArrayCodec();
+
+  /**
+   * A codec that maps CQL type {@code list<double>} to a primitive {@code double[]}, without boxing
+   * the elements.
+   *
+   * @see #INT_LIST_TO_ARRAY
+   */
+  public static final TypeCodec<double[]> DOUBLE_LIST_TO_ARRAY = new DoubleListToArrayCodec();
+
   @NonNull
   public static TypeCodec<ByteBuffer> custom(@NonNull DataType cqlType) {
     Preconditions.checkArgument(cqlType instanceof CustomType, "cqlType must be a custom type");
@@ -31,9 +31,14 @@ import com.datastax.oss.driver.internal.core.metrics.NoopNodeMetricUpdater;
 import com.datastax.oss.driver.internal.core.metrics.SessionMetricUpdater;
 import com.datastax.oss.driver.internal.core.protocol.FrameDecoder;
 import com.datastax.oss.driver.internal.core.protocol.FrameEncoder;
+import com.datastax.oss.driver.internal.core.protocol.Lz4Compressor;
+import com.datastax.oss.driver.internal.core.protocol.SegmentCodec;
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
+import com.datastax.oss.protocol.internal.Compressor;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
@@ -228,16 +233,23 @@ public class ChannelFactory {
           InFlightHandler inFlightHandler =
               new InFlightHandler(
                   protocolVersion,
-                  new StreamIdGenerator(maxRequestsPerConnection),
+                  buildStreamIdGenerator(defaultConfig, maxRequestsPerConnection),
                   maxOrphanRequests,
                   setKeyspaceTimeoutMillis,
                   channel.newPromise(),
                   options.eventCallback,
                   options.ownerLogPrefix);
           HeartbeatHandler heartbeatHandler = new HeartbeatHandler(defaultConfig);
+          SegmentCodec segmentCodec = buildSegmentCodec(defaultConfig, protocolVersion);
           ProtocolInitHandler initHandler =
               new ProtocolInitHandler(
-                  context, protocolVersion, clusterName, endPoint, options, heartbeatHandler);
+                  context,
+                  protocolVersion,
+                  clusterName,
+                  endPoint,
+                  options,
+                  heartbeatHandler,
+                  segmentCodec);
 
           ChannelPipeline pipeline = channel.pipeline();
           context
@@ -263,7 +275,10 @@ public class ChannelFactory {
           }
 
           pipeline
-              .addLast("encoder", new FrameEncoder(context.getFrameCodec(), maxFrameLength))
+              .addLast(
+                  "encoder",
+                  buildFrameEncoder(
+                      defaultConfig, maxFrameLength, nodeMetricUpdater, segmentCodec != null))
               .addLast("decoder", new FrameDecoder(context.getFrameCodec(), maxFrameLength))
               // Note: HeartbeatHandler is inserted here once init completes
               .addLast("inflight", inFlightHandler)
@@ -279,4 +294,68 @@ public class ChannelFactory {
       }
     };
   }
+
+  private FrameEncoder buildFrameEncoder(
+      DriverExecutionProfile defaultConfig,
+      int maxFrameLength,
+      NodeMetricUpdater nodeMetricUpdater,
+      boolean useSegments) {
+    Compressor<ByteBuf> compressor = context.getCompressor();
+    if (compressor == null || compressor.algorithm() == null) {
+      return new FrameEncoder(context.getFrameCodec(), maxFrameLength);
+    } else if (useSegments) {
+      // Compression is done at the segment level
+      return new FrameEncoder(context.getUncompressedFrameCodec(), maxFrameLength);
+    }
+    // Compress in the encoder instead of the codec, in order to skip small frames
+    int compressionThreshold =
+        defaultConfig.isDefined(DefaultDriverOption.PROTOCOL_COMPRESSION_THRESHOLD)
+            ? (int) defaultConfig.getBytes(DefaultDriverOption.PROTOCOL_COMPRESSION_THRESHOLD)
+            : 0;
+    return new FrameEncoder(
+        context.getUncompressedFrameCodec(),
+        maxFrameLength,
+        compressor,
+        compressionThreshold,
+        nodeMetricUpdater);
+  }
+
+  /** @return the codec to use once the connection switches to v5 segments, or null. */
+  private SegmentCodec buildSegmentCodec(
+      DriverExecutionProfile defaultConfig, ProtocolVersion protocolVersion) {
+    if (protocolVersion.getCode() < ProtocolConstants.Version.V5
+        || !defaultConfig.getBoolean(DefaultDriverOption.PROTOCOL_SEGMENTS)) {
+      return null;
+    }
+    Compressor<ByteBuf> compressor = context.getCompressor();
+    if (compressor == null || compressor.algorithm() == null) {
+      return new SegmentCodec(null);
+    } else if (compressor instanceof Lz4Compressor) {
+      return new SegmentCodec((Lz4Compressor) compressor);
+    } else {
+      LOG.warn(
+          "[{}] Protocol v5 segments only support LZ4 compression, ignoring {} = true "
+              + "because compression is set to {}",
+          logPrefix,
+          DefaultDriverOption.PROTOCOL_SEGMENTS.getPath(),
+          compressor.algorithm());
+      return null;
+    }
+  }
+
+  private StreamIdGenerator buildStreamIdGenerator(
+      DriverExecutionProfile defaultConfig, int maxRequestsPerConnection) {
+    if (defaultConfig.isDefined(DefaultDriverOption.CONNECTION_STREAM_ID_ALLOCATION)) {
+      String name = defaultConfig.getString(DefaultDriverOption.CONNECTION_STREAM_ID_ALLOCATION);
+      if (name.equalsIgnoreCase("rotating")) {
+        return new RotatingStreamIdGenerator(maxRequestsPerConnection);
+      } else if (!name.equalsIgnoreCase("lowest")) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Unsupported stream id allocation '%s' (from configuration option %s)",
+                name, DefaultDriverOption.CONNECTION_STREAM_ID_ALLOCATION.getPath()));
+      }
+    }
+    return new StreamIdGenerator(maxRequestsPerConnection);
+  }
 }
@@ -18,10 +18,14 @@ package com.datastax.oss.driver.internal.core.channel;
 import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
 import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.metrics.DefaultSessionMetric;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.metrics.SessionMetricUpdater;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoop;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Queue;
 import java.util.Set;
@@ -41,6 +45,11 @@ import net.jcip.annotations.ThreadSafe;
  * as long as new writes have been enqueued, or {@code maxRunsWithNoWork} times if there are no more
  * tasks.
  *
+ * <p>If adaptive mode is enabled in the configuration, the reschedule interval is adjusted to the
+ * observed load: the flusher stops as soon as it runs out of work when writes arrive one at a time
+ * (so that the next write gets flushed right away), and waits longer between runs when writes
+ * arrive in quick succession (so that more of them get batched into each flush).
+ *
  * <p>Note that Netty provides a similar mechanism out of the box ({@link
  * io.netty.handler.flush.FlushConsolidationHandler}), but in our experience our approach allows
  * more performance gains, because it allows consolidating not only the flushes, but also the write
@@ -49,20 +58,47 @@ import net.jcip.annotations.ThreadSafe;
  */
 @ThreadSafe
 public class DefaultWriteCoalescer implements WriteCoalescer {
+
+  // Under that average number of writes per run, we consider that writes arrive one at a time
+  private static final double LOW_LOAD_FLUSH_SIZE = 2;
+  // The weight of the latest run in the moving averages
+  private static final double SMOOTHING_FACTOR = 0.25;
+
   private final int maxRunsWithNoWork;
   private final long rescheduleIntervalNanos;
+  private final boolean adaptive;
+  private final long maxRescheduleIntervalNanos;
+  private final int targetFlushSize;
+  private final SessionMetricUpdater metricUpdater;
+  private final boolean recordFlushLatency;
   private final ConcurrentMap<EventLoop, Flusher> flushers = new ConcurrentHashMap<>();
 
   public DefaultWriteCoalescer(DriverContext context) {
     DriverExecutionProfile config = context.getConfig().getDefaultProfile();
     maxRunsWithNoWork = config.getInt(DefaultDriverOption.COALESCER_MAX_RUNS);
     rescheduleIntervalNanos = config.getDuration(DefaultDriverOption.COALESCER_INTERVAL).toNanos();
+    adaptive = config.getBoolean(DefaultDriverOption.COALESCER_ADAPTIVE);
+    if (adaptive) {
+      maxRescheduleIntervalNanos =
+          Math.max(
+              rescheduleIntervalNanos,
+              config.getDuration(DefaultDriverOption.COALESCER_ADAPTIVE_MAX_INTERVAL).toNanos());
+      targetFlushSize =
+          Math.max(1, config.getInt(DefaultDriverOption.COALESCER_ADAPTIVE_TARGET_FLUSH_SIZE));
+    } else {
+      maxRescheduleIntervalNanos = rescheduleIntervalNanos;
+      targetFlushSize = 1;
+    }
+    metricUpdater = ((InternalDriverContext) context).getMetricsFactory().getSessionUpdater();
+    recordFlushLatency =
+        metricUpdater.isEnabled(DefaultSessionMetric.COALESCER_FLUSH_LATENCY, null);
   }
 
   @Override
   public ChannelFuture writeAndFlush(Channel channel, Object message) {
     ChannelPromise writePromise = channel.newPromise();
-    Write write = new Write(channel, message, writePromise);
+    Write write =
+        new Write(channel, message, writePromise, recordFlushLatency ? System.nanoTime() : 0);
     enqueue(write, channel.eventLoop());
     return writePromise;
   }
@@ -82,6 +118,14 @@ public class DefaultWriteCoalescer implements WriteCoalescer {
     // These variables are accessed only from runOnEventLoop, they don't need to be thread-safe
     private final Set<Channel> channels = new HashSet<>();
     private int runsWithNoWork = 0;
+    // Only if the flush latency metric is enabled: the enqueue time of each write of the current
+    // run
+    private long[] enqueuedNanos = new long[16];
+    // Adaptive mode only: moving averages of the number of writes per run, and of the time between
+    // two writes. lastRunNanos is 0 when the previous run did not reschedule itself.
+    private double averageFlushSize = 0;
+    private double averageInterArrivalNanos = 0;
+    private long lastRunNanos = 0;
 
     private Flusher(EventLoop eventLoop) {
       this.eventLoop = eventLoop;
@@ -98,13 +142,19 @@ public class DefaultWriteCoalescer implements WriteCoalescer {
     private void runOnEventLoop() {
       assert eventLoop.inEventLoop();
 
-      boolean didSomeWork = false;
+      int writeCount = 0;
       Write write;
       while ((write = writes.poll()) != null) {
         Channel channel = write.channel;
         channels.add(channel);
         channel.write(write.message, write.writePromise);
-        didSomeWork = true;
+        if (recordFlushLatency) {
+          if (writeCount == enqueuedNanos.length) {
+            enqueuedNanos = Arrays.copyOf(enqueuedNanos, writeCount * 2);
+          }
+          enqueuedNanos[writeCount] = write.enqueuedNanos;
+        }
+        writeCount += 1;
       }
 
       for (Channel channel : channels) {
@@ -112,9 +162,28 @@ public class DefaultWriteCoalescer implements WriteCoalescer {
       }
       channels.clear();
 
-      if (didSomeWork) {
+      if (writeCount > 0) {
+        metricUpdater.updateHistogram(DefaultSessionMetric.COALESCER_FLUSH_SIZE, null, writeCount);
+        if (recordFlushLatency) {
+          // One sample per write, so that the metric reflects what each request experiences
+          long now = System.nanoTime();
+          for (int i = 0; i < writeCount; i++) {
+            metricUpdater.updateTimer(
+                DefaultSessionMetric.COALESCER_FLUSH_LATENCY,
+                null,
+                now - enqueuedNanos[i],
+                TimeUnit.NANOSECONDS);
+          }
+        }
+      }
+      if (adaptive) {
+        updateAverages(writeCount);
+      }
+
+      if (writeCount > 0) {
         runsWithNoWork = 0;
-      } else if (++runsWithNoWork > maxRunsWithNoWork) {
+      } else if (++runsWithNoWork > maxRunsWithNoWork || (adaptive && isLowLoad())) {
+        lastRunNanos = 0;
         // Prepare to stop
         running.set(false);
         // If no new writes have been enqueued since the previous line, we can return safely
@@ -128,8 +197,41 @@ public class DefaultWriteCoalescer implements WriteCoalescer {
         }
       }
       if (!eventLoop.isShuttingDown()) {
-        eventLoop.schedule(this::runOnEventLoop, rescheduleIntervalNanos, TimeUnit.NANOSECONDS);
+        eventLoop.schedule(
+            this::runOnEventLoop,
+            adaptive ? computeRescheduleIntervalNanos() : rescheduleIntervalNanos,
+            TimeUnit.NANOSECONDS);
+      }
+    }
+
+    private void updateAverages(int writeCount) {
+      long now = System.nanoTime();
+      if (writeCount > 0) {
+        averageFlushSize += SMOOTHING_FACTOR * (writeCount - averageFlushSize);
+        // Only sample the arrival rate if we've been running continuously, otherwise the elapsed
+        // time includes an idle period
+        if (lastRunNanos != 0) {
+          double interArrivalNanos = (double) (now - lastRunNanos) / writeCount;
+          averageInterArrivalNanos +=
+              SMOOTHING_FACTOR * (interArrivalNanos - averageInterArrivalNanos);
+        }
+      } else {
+        averageFlushSize -= SMOOTHING_FACTOR * averageFlushSize;
+      }
+      lastRunNanos = now;
+    }
+
+    private boolean isLowLoad() {
+      return averageFlushSize < LOW_LOAD_FLUSH_SIZE;
+    }
+
+    private long computeRescheduleIntervalNanos() {
+      if (isLowLoad()) {
+        return rescheduleIntervalNanos;
       }
+      // Wait for approximately the time it takes for a full batch to arrive
+      long intervalNanos = (long) (averageInterArrivalNanos * targetFlushSize);
+      return Math.min(Math.max(intervalNanos, rescheduleIntervalNanos), maxRescheduleIntervalNanos);
     }
   }
 
@@ -137,11 +239,14 @@ public class DefaultWriteCoalescer implements WriteCoalescer {
     private final Channel channel;
     private final Object message;
     private final ChannelPromise writePromise;
+    private final long enqueuedNanos;
 
-    private Write(Channel channel, Object message, ChannelPromise writePromise) {
+    private Write(
+        Channel channel, Object message, ChannelPromise writePromise, long enqueuedNanos) {
       this.channel = channel;
       this.message = message;
       this.writePromise = writePromise;
+      this.enqueuedNanos = enqueuedNanos;
     }
   }
 }
@@ -27,6 +27,9 @@ import com.datastax.oss.driver.api.core.connection.ConnectionInitException;
 import com.datastax.oss.driver.api.core.metadata.EndPoint;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.protocol.SegmentCodec;
+import com.datastax.oss.driver.internal.core.protocol.SegmentDecoder;
+import com.datastax.oss.driver.internal.core.protocol.SegmentEncoder;
 import com.datastax.oss.driver.internal.core.util.ProtocolUtils;
 import com.datastax.oss.driver.internal.core.util.concurrent.UncaughtExceptions;
 import com.datastax.oss.protocol.internal.Message;
@@ -67,6 +70,8 @@ class ProtocolInitHandler extends ConnectInitHandler {
   private final String expectedClusterName;
   private final EndPoint endPoint;
   private final HeartbeatHandler heartbeatHandler;
+  // null if this connection doesn't use protocol v5 segments
+  private final SegmentCodec segmentCodec;
   private String logPrefix;
   private ChannelHandlerContext ctx;
 
@@ -77,6 +82,17 @@ class ProtocolInitHandler extends ConnectInitHandler {
       EndPoint endPoint,
       DriverChannelOptions options,
       HeartbeatHandler heartbeatHandler) {
+    this(context, protocolVersion, expectedClusterName, endPoint, options, heartbeatHandler, null);
+  }
+
+  ProtocolInitHandler(
+      InternalDriverContext context,
+      ProtocolVersion protocolVersion,
+      String expectedClusterName,
+      EndPoint endPoint,
+      DriverChannelOptions options,
+      HeartbeatHandler heartbeatHandler,
+      SegmentCodec segmentCodec) {
 
     this.context = context;
     this.endPoint = endPoint;
@@ -89,6 +105,7 @@ class ProtocolInitHandler extends ConnectInitHandler {
     this.expectedClusterName = expectedClusterName;
     this.options = options;
     this.heartbeatHandler = heartbeatHandler;
+    this.segmentCodec = segmentCodec;
     this.logPrefix = options.ownerLogPrefix + "|connecting...";
   }
 
@@ -116,6 +133,19 @@ class ProtocolInitHandler extends ConnectInitHandler {
     return result;
   }
 
+  /**
+   * In protocol v5, the server switches to segments right after sending READY or AUTH_SUCCESS, so
+   * we must do the same before sending anything else.
+   */
+  private void maybeSwitchToSegments() {
+    if (segmentCodec != null) {
+      LOG.debug("[{}] Switching to protocol v5 segments", logPrefix);
+      ctx.pipeline()
+          .addBefore("encoder", "segmentEncoder", new SegmentEncoder(segmentCodec))
+          .addBefore("decoder", "segmentDecoder", new SegmentDecoder(segmentCodec));
+    }
+  }
+
   private enum Step {
     STARTUP,
     GET_CLUSTER_NAME,
@@ -168,6 +198,7 @@ class ProtocolInitHandler extends ConnectInitHandler {
           ProtocolUtils.opcodeString(response.opcode));
       try {
         if (step == Step.STARTUP && response instanceof Ready) {
+          maybeSwitchToSegments();
           context.getAuthProvider().ifPresent(provider -> provider.onMissingChallenge(endPoint));
           step = Step.GET_CLUSTER_NAME;
           send();
@@ -209,6 +240,7 @@ class ProtocolInitHandler extends ConnectInitHandler {
                   channel.eventLoop())
               .exceptionally(UncaughtExceptions::log);
         } else if (step == Step.AUTH_RESPONSE && response instanceof AuthSuccess) {
+          maybeSwitchToSegments();
           ByteBuffer token = ((AuthSuccess) response).token;
           authenticator
               .onAuthenticationSuccess(token)
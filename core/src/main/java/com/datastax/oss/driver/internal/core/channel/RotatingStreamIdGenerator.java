@@ -0,0 +1,52 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.channel;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * A stream id generator that resumes its search where the previous one stopped, instead of always
+ * starting from 0.
+ *
+ * <p>With the default implementation, the cost of finding an available id grows with the number of
+ * in-flight requests, because the lowest ids are always the busiest. Here, the search usually
+ * succeeds in the first word examined, unless the connection is almost saturated. A side effect is
+ * that ids are not reused as eagerly, which is harmless.
+ *
+ * <p>Same thread safety caveats as the parent class.
+ */
+@NotThreadSafe
+class RotatingStreamIdGenerator extends StreamIdGenerator {
+
+  private int cursor;
+
+  RotatingStreamIdGenerator(int maxAvailableIds) {
+    super(maxAvailableIds);
+  }
+
+  @Override
+  int nextClearId() {
+    int id = ids.nextClearBit(cursor);
+    if (id >= maxAvailableIds && cursor > 0) {
+      // Wrap around. The bits after the cursor are all set, so this can't find anything beyond it.
+      id = ids.nextClearBit(0);
+    }
+    if (id < maxAvailableIds) {
+      cursor = (id + 1 == maxAvailableIds) ? 0 : id + 1;
+    }
+    return id;
+  }
+}
@@ -28,9 +28,9 @@ import net.jcip.annotations.NotThreadSafe;
 @NotThreadSafe
 class StreamIdGenerator {
 
-  private final int maxAvailableIds;
+  final int maxAvailableIds;
   // unset = available, set = borrowed (note that this is the opposite of the 3.x implementation)
-  private final BitSet ids;
+  final BitSet ids;
   private volatile int availableIds;
 
   StreamIdGenerator(int maxAvailableIds) {
@@ -41,7 +41,7 @@ class StreamIdGenerator {
 
   @SuppressWarnings("NonAtomicVolatileUpdate") // see explanation in class Javadoc
   int acquire() {
-    int id = ids.nextClearBit(0);
+    int id = nextClearId();
     if (id >= maxAvailableIds) {
       return -1;
     }
@@ -60,6 +60,14 @@ class StreamIdGenerator {
     ids.clear(id);
   }
 
+  /**
+   * Finds the next id to borrow. If all ids are borrowed, the returned value will be greater than
+   * or equal to {@link #maxAvailableIds}.
+   */
+  int nextClearId() {
+    return ids.nextClearBit(0);
+  }
+
   int getAvailableIds() {
     return availableIds;
   }
@@ -60,27 +60,39 @@ import com.datastax.oss.driver.internal.core.metrics.DropwizardMetricsFactory;
 import com.datastax.oss.driver.internal.core.metrics.MetricsFactory;
 import com.datastax.oss.driver.internal.core.pool.ChannelPoolFactory;
 import com.datastax.oss.driver.internal.core.protocol.ByteBufPrimitiveCodec;
+import com.datastax.oss.driver.internal.core.protocol.LazyRowsCodecGroup;
 import com.datastax.oss.driver.internal.core.protocol.Lz4Compressor;
 import com.datastax.oss.driver.internal.core.protocol.SnappyCompressor;
+import com.datastax.oss.driver.internal.core.protocol.ZstdCompressor;
 import com.datastax.oss.driver.internal.core.servererrors.DefaultWriteTypeRegistry;
 import com.datastax.oss.driver.internal.core.servererrors.WriteTypeRegistry;
 import com.datastax.oss.driver.internal.core.session.PoolManager;
 import com.datastax.oss.driver.internal.core.session.RequestProcessorRegistry;
 import com.datastax.oss.driver.internal.core.ssl.JdkSslHandlerFactory;
 import com.datastax.oss.driver.internal.core.ssl.SslHandlerFactory;
+import com.datastax.oss.driver.internal.core.tracker.MultiplexingRequestTracker;
 import com.datastax.oss.driver.internal.core.tracker.RequestLogFormatter;
 import com.datastax.oss.driver.internal.core.type.codec.registry.DefaultCodecRegistry;
 import com.datastax.oss.driver.internal.core.util.Reflection;
 import com.datastax.oss.driver.internal.core.util.concurrent.CycleDetector;
 import com.datastax.oss.driver.internal.core.util.concurrent.LazyReference;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import com.datastax.oss.protocol.internal.Compressor;
 import com.datastax.oss.protocol.internal.FrameCodec;
+import com.datastax.oss.protocol.internal.ProtocolV3ClientCodecs;
+import com.datastax.oss.protocol.internal.ProtocolV4ClientCodecs;
+import com.datastax.oss.protocol.internal.ProtocolV5ClientCodecs;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.netty.buffer.ByteBuf;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import net.jcip.annotations.ThreadSafe;
@@ -137,6 +149,9 @@ public class DefaultDriverContext implements InternalDriverContext {
       new LazyReference<>("compressor", this::buildCompressor, cycleDetector);
   private final LazyReference<FrameCodec<ByteBuf>> frameCodecRef =
       new LazyReference<>("frameCodec", this::buildFrameCodec, cycleDetector);
+  private final LazyReference<FrameCodec<ByteBuf>> uncompressedFrameCodecRef =
+      new LazyReference<>(
+          "uncompressedFrameCodec", this::buildUncompressedFrameCodec, cycleDetector);
   private final LazyReference<ProtocolVersionRegistry> protocolVersionRegistryRef =
       new LazyReference<>(
           "protocolVersionRegistry", this::buildProtocolVersionRegistry, cycleDetector);
@@ -180,6 +195,8 @@ public class DefaultDriverContext implements InternalDriverContext {
       new LazyReference<>("metricsFactory", this::buildMetricsFactory, cycleDetector);
   private final LazyReference<RequestThrottler> requestThrottlerRef =
       new LazyReference<>("requestThrottler", this::buildRequestThrottler, cycleDetector);
+  private final LazyReference<Map<String, RequestThrottler>> requestThrottlersRef =
+      new LazyReference<>("requestThrottlers", this::buildRequestThrottlers, cycleDetector);
   private final LazyReference<Map<String, String>> startupOptionsRef =
       new LazyReference<>("startupOptions", this::buildStartupOptions, cycleDetector);
   private final LazyReference<NodeStateListener> nodeStateListenerRef;
@@ -228,7 +245,9 @@ public class DefaultDriverContext implements InternalDriverContext {
     this.requestTrackerFromBuilder = programmaticArguments.getRequestTracker();
     this.requestTrackerRef =
         new LazyReference<>(
-            "requestTracker", () -> buildRequestTracker(requestTrackerFromBuilder), cycleDetector);
+            "requestTracker",
+            () -> withPolicyTrackers(buildRequestTracker(requestTrackerFromBuilder)),
+            cycleDetector);
     this.nodeFiltersFromBuilder = programmaticArguments.getNodeFilters();
     this.classLoader = programmaticArguments.getClassLoader();
   }
@@ -364,6 +383,8 @@ public class DefaultDriverContext implements InternalDriverContext {
         return new Lz4Compressor(this);
       } else if (name.equalsIgnoreCase("snappy")) {
         return new SnappyCompressor(this);
+      } else if (name.equalsIgnoreCase("zstd")) {
+        return new ZstdCompressor(this);
       } else {
         throw new IllegalArgumentException(
             String.format(
@@ -376,8 +397,54 @@ public class DefaultDriverContext implements InternalDriverContext {
   }
 
   protected FrameCodec<ByteBuf> buildFrameCodec() {
-    return FrameCodec.defaultClient(
-        new ByteBufPrimitiveCodec(getNettyOptions().allocator()), getCompressor());
+    return buildFrameCodec(getCompressor());
+  }
+
+  protected FrameCodec<ByteBuf> buildUncompressedFrameCodec() {
+    // The codec returned by the no-arg method has the compressor baked in, it can't be reused for
+    // uncompressed frames. Fail instead of silently ignoring the custom codecs for outgoing frames.
+    if (overridesMethod("buildFrameCodec")
+        && !overridesMethod("buildFrameCodec", Compressor.class)) {
+      throw new IllegalStateException(
+          String.format(
+              "%s overrides buildFrameCodec(), which does not apply to uncompressed frames. "
+                  + "When compression is enabled, override buildFrameCodec(Compressor) instead.",
+              getClass().getName()));
+    }
+    return buildFrameCodec(Compressor.none());
+  }
+
+  private boolean overridesMethod(String name, Class<?>... parameterTypes) {
+    for (Class<?> c = getClass(); c != DefaultDriverContext.class; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(name, parameterTypes);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // keep looking in the parent class
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Builds both the {@link #getFrameCodec() main codec} and the {@link #getUncompressedFrameCodec()
+   * uncompressed one}. If you need to register custom codecs, override this method, so that they
+   * are used for all frames regardless of compression. Overriding only {@link #buildFrameCodec()}
+   * is not supported when compression is enabled.
+   */
+  protected FrameCodec<ByteBuf> buildFrameCodec(Compressor<ByteBuf> compressor) {
+    ByteBufPrimitiveCodec primitiveCodec = new ByteBufPrimitiveCodec(getNettyOptions().allocator());
+    if (getConfig().getDefaultProfile().getBoolean(DefaultDriverOption.PROTOCOL_LAZY_ROWS)) {
+      // Same codecs as FrameCodec.defaultClient, except that rows are decoded lazily
+      return new FrameCodec<>(
+          primitiveCodec,
+          compressor,
+          new LazyRowsCodecGroup(new ProtocolV3ClientCodecs()),
+          new LazyRowsCodecGroup(new ProtocolV4ClientCodecs()),
+          new LazyRowsCodecGroup(new ProtocolV5ClientCodecs()));
+    } else {
+      return FrameCodec.defaultClient(primitiveCodec, compressor);
+    }
   }
 
   protected ProtocolVersionRegistry buildProtocolVersionRegistry() {
@@ -475,6 +542,44 @@ public class DefaultDriverContext implements InternalDriverContext {
                         DefaultDriverOption.REQUEST_THROTTLER_CLASS)));
   }
 
+  /**
+   * Builds the throttlers for each profile. Profiles that don't override the {@code
+   * advanced.throttler} section share the default throttler (built with {@link
+   * #buildRequestThrottler()}); each distinct configuration gets its own instance, and therefore
+   * its own limits and queue.
+   */
+  protected Map<String, RequestThrottler> buildRequestThrottlers() {
+    DriverExecutionProfile defaultProfile = getConfig().getDefaultProfile();
+    Map<Object, RequestThrottler> throttlersByConfig = new HashMap<>();
+    throttlersByConfig.put(
+        defaultProfile.getComparisonKey(DefaultDriverOption.REQUEST_THROTTLER),
+        getRequestThrottler());
+    ImmutableMap.Builder<String, RequestThrottler> result = ImmutableMap.builder();
+    for (DriverExecutionProfile profile : getConfig().getProfiles().values()) {
+      RequestThrottler throttler =
+          throttlersByConfig.computeIfAbsent(
+              profile.getComparisonKey(DefaultDriverOption.REQUEST_THROTTLER),
+              key -> buildRequestThrottler(profile.getName()));
+      result.put(profile.getName(), throttler);
+    }
+    return result.build();
+  }
+
+  protected RequestThrottler buildRequestThrottler(String profileName) {
+    return Reflection.buildFromConfig(
+            this,
+            profileName,
+            DefaultDriverOption.REQUEST_THROTTLER_CLASS,
+            RequestThrottler.class,
+            "com.datastax.oss.driver.internal.core.session.throttling")
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    String.format(
+                        "Missing request throttler in profile %s, check your configuration (%s)",
+                        profileName, DefaultDriverOption.REQUEST_THROTTLER_CLASS)));
+  }
+
   protected NodeStateListener buildNodeStateListener(
       NodeStateListener nodeStateListenerFromBuilder) {
     return (nodeStateListenerFromBuilder != null)
@@ -525,6 +630,28 @@ public class DefaultDriverContext implements InternalDriverContext {
                             DefaultDriverOption.REQUEST_TRACKER_CLASS)));
   }
 
+  /**
+   * Load balancing policies that implement {@link RequestTracker} (for example to monitor node
+   * latencies) get notified of request events in addition to the main tracker.
+   */
+  private RequestTracker withPolicyTrackers(RequestTracker mainTracker) {
+    // The same policy instance can be shared by multiple profiles
+    Set<RequestTracker> policyTrackers = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (LoadBalancingPolicy policy : getLoadBalancingPolicies().values()) {
+      if (policy instanceof RequestTracker) {
+        policyTrackers.add((RequestTracker) policy);
+      }
+    }
+    for (SpeculativeExecutionPolicy policy : getSpeculativeExecutionPolicies().values()) {
+      if (policy instanceof RequestTracker) {
+        policyTrackers.add((RequestTracker) policy);
+      }
+    }
+    return policyTrackers.isEmpty()
+        ? mainTracker
+        : new MultiplexingRequestTracker(mainTracker, new ArrayList<>(policyTrackers));
+  }
+
   @NonNull
   @Override
   public String getSessionName() {
@@ -609,6 +736,12 @@ public class DefaultDriverContext implements InternalDriverContext {
     return frameCodecRef.get();
   }
 
+  @NonNull
+  @Override
+  public FrameCodec<ByteBuf> getUncompressedFrameCodec() {
+    return uncompressedFrameCodecRef.get();
+  }
+
   @NonNull
   @Override
   public ProtocolVersionRegistry getProtocolVersionRegistry() {
@@ -729,6 +862,12 @@ public class DefaultDriverContext implements InternalDriverContext {
     return requestThrottlerRef.get();
   }
 
+  @NonNull
+  @Override
+  public Map<String, RequestThrottler> getRequestThrottlers() {
+    return requestThrottlersRef.get();
+  }
+
   @NonNull
   @Override
   public NodeStateListener getNodeStateListener() {
@@ -26,8 +26,6 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultEventLoopGroup;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.FixedRecvByteBufAllocator;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timer;
 import io.netty.util.concurrent.DefaultPromise;
@@ -49,6 +47,8 @@ public class DefaultNettyOptions implements NettyOptions {
   private static final Logger LOG = LoggerFactory.getLogger(DefaultNettyOptions.class);
 
   private final DriverExecutionProfile config;
+  private final String logPrefix;
+  private final NettyTransport transport;
   private final EventLoopGroup ioEventLoopGroup;
   private final EventLoopGroup adminEventLoopGroup;
   private final int ioShutdownQuietPeriod;
@@ -58,9 +58,15 @@ public class DefaultNettyOptions implements NettyOptions {
   private final int adminShutdownTimeout;
   private final TimeUnit adminShutdownUnit;
   private final Timer timer;
+  // Transport-specific socket options: resolved once, null if not configured or not supported
+  private final ChannelOption<Boolean> tcpQuickAckOption;
+  private final boolean tcpQuickAck;
+  private final ChannelOption<Integer> busyPollOption;
+  private final int busyPollMicros;
 
   public DefaultNettyOptions(InternalDriverContext context) {
     this.config = context.getConfig().getDefaultProfile();
+    this.logPrefix = context.getSessionName();
     int ioGroupSize = config.getInt(DefaultDriverOption.NETTY_IO_SIZE);
     this.ioShutdownQuietPeriod = config.getInt(DefaultDriverOption.NETTY_IO_SHUTDOWN_QUIET_PERIOD);
     this.ioShutdownTimeout = config.getInt(DefaultDriverOption.NETTY_IO_SHUTDOWN_TIMEOUT);
@@ -79,7 +85,45 @@ public class DefaultNettyOptions implements NettyOptions {
             .setThreadFactory(safeFactory)
             .setNameFormat(context.getSessionName() + "-io-%d")
             .build();
-    this.ioEventLoopGroup = new NioEventLoopGroup(ioGroupSize, ioThreadFactory);
+    NettyTransport selectedTransport =
+        NettyTransport.fromConfig(
+            config.getString(DefaultDriverOption.NETTY_IO_TRANSPORT), logPrefix);
+    EventLoopGroup ioGroup;
+    try {
+      ioGroup = selectedTransport.newEventLoopGroup(ioGroupSize, ioThreadFactory);
+    } catch (LinkageError e) {
+      // The module is present, but its native library is broken (e.g. mismatched Netty version)
+      LOG.warn(
+          "[{}] Could not initialize Netty transport {}, falling back to NIO",
+          logPrefix,
+          selectedTransport,
+          e);
+      selectedTransport = NettyTransport.NIO;
+      ioGroup = selectedTransport.newEventLoopGroup(ioGroupSize, ioThreadFactory);
+    }
+    LOG.debug("[{}] Using Netty transport {}", logPrefix, selectedTransport);
+    this.transport = selectedTransport;
+    this.ioEventLoopGroup = ioGroup;
+
+    if (config.isDefined(DefaultDriverOption.SOCKET_TCP_QUICKACK)) {
+      this.tcpQuickAckOption =
+          resolveNativeOption("TCP_QUICKACK", DefaultDriverOption.SOCKET_TCP_QUICKACK);
+      this.tcpQuickAck = config.getBoolean(DefaultDriverOption.SOCKET_TCP_QUICKACK);
+    } else {
+      this.tcpQuickAckOption = null;
+      this.tcpQuickAck = false;
+    }
+    if (config.isDefined(DefaultDriverOption.SOCKET_BUSY_POLL)) {
+      this.busyPollOption =
+          resolveNativeOption("SO_BUSY_POLL", DefaultDriverOption.SOCKET_BUSY_POLL);
+      this.busyPollMicros =
+          (int)
+              TimeUnit.NANOSECONDS.toMicros(
+                  config.getDuration(DefaultDriverOption.SOCKET_BUSY_POLL).toNanos());
+    } else {
+      this.busyPollOption = null;
+      this.busyPollMicros = 0;
+    }
 
     ThreadFactory adminThreadFactory =
         new ThreadFactoryBuilder()
@@ -124,7 +168,7 @@ public class DefaultNettyOptions implements NettyOptions {
 
   @Override
   public Class<? extends Channel> channelClass() {
-    return NioSocketChannel.class;
+    return transport.channelClass();
   }
 
   @Override
@@ -158,6 +202,29 @@ public class DefaultNettyOptions implements NettyOptions {
       int sendBufferSize = config.getInt(DefaultDriverOption.SOCKET_SEND_BUFFER_SIZE);
       bootstrap.option(ChannelOption.SO_SNDBUF, sendBufferSize);
     }
+    if (tcpQuickAckOption != null) {
+      bootstrap.option(tcpQuickAckOption, tcpQuickAck);
+    }
+    if (busyPollOption != null) {
+      bootstrap.option(busyPollOption, busyPollMicros);
+    }
+  }
+
+  /**
+   * Looks up a transport-specific option. This is done once at initialization (instead of for each
+   * bootstrap), so that the warning for unsupported options is not repeated for every connection.
+   */
+  @SuppressWarnings("TypeParameterUnusedInFormals")
+  private <T> ChannelOption<T> resolveNativeOption(String name, DefaultDriverOption configOption) {
+    ChannelOption<T> option = transport.nativeOption(name);
+    if (option == null) {
+      LOG.warn(
+          "[{}] Ignoring configuration option {}, it is not supported by the {} transport",
+          logPrefix,
+          configOption.getPath(),
+          transport);
+    }
+    return option;
   }
 
   @Override
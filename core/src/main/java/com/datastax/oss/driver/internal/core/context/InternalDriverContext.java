@@ -60,6 +60,16 @@ public interface InternalDriverContext extends DriverContext {
   @NonNull
   FrameCodec<ByteBuf> getFrameCodec();
 
+  /**
+   * A frame codec that has the same codecs as {@link #getFrameCodec()}, but never compresses
+   * frames.
+   *
+   * <p>It is used when compression is applied outside of the codec: for frames below the
+   * compression threshold, or with protocol v5 segments.
+   */
+  @NonNull
+  FrameCodec<ByteBuf> getUncompressedFrameCodec();
+
   @NonNull
   ProtocolVersionRegistry getProtocolVersionRegistry();
 
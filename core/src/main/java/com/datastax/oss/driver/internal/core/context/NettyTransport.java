@@ -0,0 +1,182 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.context;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.internal.core.util.Reflection;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Netty transports that can be used by {@link DefaultNettyOptions}.
+ *
+ * <p>Native transports are not a dependency of the driver: they are accessed reflectively, and are
+ * only available if the corresponding Netty module is in the classpath, and the native library can
+ * be loaded on the current platform.
+ */
+public enum NettyTransport {
+  NIO(null, null, null, null) {
+    @Override
+    public boolean isAvailable() {
+      return true;
+    }
+
+    @Override
+    public EventLoopGroup newEventLoopGroup(int size, ThreadFactory threadFactory) {
+      return new NioEventLoopGroup(size, threadFactory);
+    }
+
+    @Override
+    public Class<? extends Channel> channelClass() {
+      return NioSocketChannel.class;
+    }
+  },
+  EPOLL(
+      "io.netty.channel.epoll.Epoll",
+      "io.netty.channel.epoll.EpollEventLoopGroup",
+      "io.netty.channel.epoll.EpollSocketChannel",
+      "io.netty.channel.epoll.EpollChannelOption"),
+  IO_URING(
+      "io.netty.incubator.channel.uring.IOUring",
+      "io.netty.incubator.channel.uring.IOUringEventLoopGroup",
+      "io.netty.incubator.channel.uring.IOUringSocketChannel",
+      "io.netty.incubator.channel.uring.IOUringChannelOption"),
+  ;
+
+  private static final Logger LOG = LoggerFactory.getLogger(NettyTransport.class);
+
+  private final String availabilityClassName;
+  private final String eventLoopGroupClassName;
+  private final String channelClassName;
+  private final String channelOptionClassName;
+
+  NettyTransport(
+      String availabilityClassName,
+      String eventLoopGroupClassName,
+      String channelClassName,
+      String channelOptionClassName) {
+    this.availabilityClassName = availabilityClassName;
+    this.eventLoopGroupClassName = eventLoopGroupClassName;
+    this.channelClassName = channelClassName;
+    this.channelOptionClassName = channelOptionClassName;
+  }
+
+  /**
+   * Parses a transport name from the configuration ({@code auto}, {@code nio}, {@code epoll} or
+   * {@code io_uring}, case insensitive).
+   *
+   * <p>{@code auto} returns the best available transport. Otherwise, if the requested transport is
+   * not available, this falls back to NIO and logs a warning.
+   */
+  public static NettyTransport fromConfig(String name, String logPrefix) {
+    if ("auto".equalsIgnoreCase(name)) {
+      for (NettyTransport transport : new NettyTransport[] {EPOLL, IO_URING}) {
+        if (transport.isAvailable()) {
+          return transport;
+        }
+      }
+      return NIO;
+    }
+    NettyTransport transport;
+    try {
+      transport = valueOf(name.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Unsupported Netty transport '%s' (from configuration option %s)",
+              name, DefaultDriverOption.NETTY_IO_TRANSPORT.getPath()));
+    }
+    if (!transport.isAvailable()) {
+      LOG.warn(
+          "[{}] Netty transport {} was requested, but it is not available on this platform "
+              + "(check that the corresponding Netty module is in the classpath). "
+              + "Falling back to NIO.",
+          logPrefix,
+          transport);
+      return NIO;
+    }
+    return transport;
+  }
+
+  public boolean isAvailable() {
+    try {
+      Class<?> clazz = Reflection.loadClass(null, availabilityClassName);
+      return clazz != null && (Boolean) clazz.getMethod("isAvailable").invoke(null);
+    } catch (Throwable t) {
+      // Typically a LinkageError if the native library can't be loaded
+      LOG.debug("Error while checking availability of Netty transport {}", this, t);
+      return false;
+    }
+  }
+
+  /**
+   * Creates the event loop group of this transport.
+   *
+   * @throws LinkageError if the native library of the transport can't be loaded (for example
+   *     because the version of the native module doesn't match the version of Netty).
+   */
+  public EventLoopGroup newEventLoopGroup(int size, ThreadFactory threadFactory) {
+    try {
+      return (EventLoopGroup)
+          loadClass(eventLoopGroupClassName)
+              .getConstructor(int.class, ThreadFactory.class)
+              .newInstance(size, threadFactory);
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof LinkageError) {
+        throw (LinkageError) e.getCause();
+      }
+      throw new IllegalStateException("Could not create event loop group for " + this, e);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not create event loop group for " + this, e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public Class<? extends Channel> channelClass() {
+    return (Class<? extends Channel>) loadClass(channelClassName);
+  }
+
+  /**
+   * Returns a transport-specific channel option, or {@code null} if this transport doesn't support
+   * it.
+   */
+  @SuppressWarnings({"unchecked", "TypeParameterUnusedInFormals"})
+  public <T> ChannelOption<T> nativeOption(String name) {
+    if (channelOptionClassName == null) {
+      return null;
+    }
+    try {
+      return (ChannelOption<T>) loadClass(channelOptionClassName).getField(name).get(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private static Class<?> loadClass(String className) {
+    Class<?> clazz = Reflection.loadClass(null, className);
+    if (clazz == null) {
+      throw new IllegalStateException("Could not find class " + className);
+    }
+    return clazz;
+  }
+}
@@ -185,12 +185,21 @@ public class Conversions {
               timestamp,
               null);
       PreparedStatement preparedStatement = boundStatement.getPreparedStatement();
-      ByteBuffer id = preparedStatement.getId();
-      ByteBuffer resultMetadataId = preparedStatement.getResultMetadataId();
-      return new Execute(
-          Bytes.getArray(id),
-          (resultMetadataId == null) ? null : Bytes.getArray(resultMetadataId),
-          queryOptions);
+      byte[] id;
+      byte[] resultMetadataId;
+      if (preparedStatement instanceof DefaultPreparedStatement) {
+        // Reuse the cached arrays instead of copying the ids for every execution
+        DefaultPreparedStatement defaultPreparedStatement =
+            (DefaultPreparedStatement) preparedStatement;
+        id = defaultPreparedStatement.getIdBytes();
+        resultMetadataId = defaultPreparedStatement.getResultMetadataIdBytes();
+      } else {
+        id = Bytes.getArray(preparedStatement.getId());
+        ByteBuffer resultMetadataIdBuffer = preparedStatement.getResultMetadataId();
+        resultMetadataId =
+            (resultMetadataIdBuffer == null) ? null : Bytes.getArray(resultMetadataIdBuffer);
+      }
+      return new Execute(id, resultMetadataId, queryOptions);
     } else if (statement instanceof BatchStatement) {
       BatchStatement batchStatement = (BatchStatement) statement;
       if (!protocolVersionRegistry.supports(
@@ -219,7 +228,11 @@ public class Conversions {
           values.add(encode(simpleStatement.getPositionalValues(), codecRegistry, protocolVersion));
         } else if (child instanceof BoundStatement) {
           BoundStatement boundStatement = (BoundStatement) child;
-          queriesOrIds.add(Bytes.getArray(boundStatement.getPreparedStatement().getId()));
+          PreparedStatement preparedStatement = boundStatement.getPreparedStatement();
+          queriesOrIds.add(
+              (preparedStatement instanceof DefaultPreparedStatement)
+                  ? ((DefaultPreparedStatement) preparedStatement).getIdBytes()
+                  : Bytes.getArray(preparedStatement.getId()));
           values.add(boundStatement.getValues());
         } else {
           throw new IllegalArgumentException(
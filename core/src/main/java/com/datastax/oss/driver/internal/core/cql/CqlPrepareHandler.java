@@ -148,7 +148,7 @@ public class CqlPrepareHandler implements Throttled {
     this.scheduledTimeout = scheduleTimeout(timeout);
     this.prepareOnAllNodes = executionProfile.getBoolean(DefaultDriverOption.PREPARE_ON_ALL_NODES);
 
-    this.throttler = context.getRequestThrottler();
+    this.throttler = context.getRequestThrottler(executionProfile.getName());
     this.throttler.register(this);
   }
 
@@ -187,7 +187,7 @@ public class CqlRequestHandler implements Throttled {
     this.requestTracker = context.getRequestTracker();
     this.sessionMetricUpdater = session.getMetricUpdater();
 
-    this.throttler = context.getRequestThrottler();
+    this.throttler = context.getRequestThrottler(executionProfile.getName());
     this.throttler.register(this);
   }
 
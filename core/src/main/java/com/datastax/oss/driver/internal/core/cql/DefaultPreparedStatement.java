@@ -27,7 +27,9 @@ import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import com.datastax.oss.driver.internal.core.data.ValuesHelper;
 import com.datastax.oss.driver.internal.core.session.RepreparePayload;
+import com.datastax.oss.protocol.internal.util.Bytes;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.List;
@@ -38,6 +40,7 @@ import net.jcip.annotations.ThreadSafe;
 public class DefaultPreparedStatement implements PreparedStatement {
 
   private final ByteBuffer id;
+  private final byte[] idBytes;
   private final RepreparePayload repreparePayload;
   private final ColumnDefinitions variableDefinitions;
   private final List<Integer> partitionKeyIndices;
@@ -83,6 +86,7 @@ public class DefaultPreparedStatement implements PreparedStatement {
       CodecRegistry codecRegistry,
       ProtocolVersion protocolVersion) {
     this.id = id;
+    this.idBytes = Bytes.getArray(id);
     this.partitionKeyIndices = partitionKeyIndices;
     // It's important that we keep a reference to this object, so that it only gets evicted from
     // the map in DefaultSession if no client reference the PreparedStatement anymore.
@@ -114,6 +118,18 @@ public class DefaultPreparedStatement implements PreparedStatement {
     return id;
   }
 
+  /**
+   * The contents of {@link #getId()}, as a byte array.
+   *
+   * <p>This is what the protocol layer needs to encode an EXECUTE or BATCH message. It is computed
+   * once, to avoid copying the id again on every execution. The returned array must not be
+   * modified.
+   */
+  @NonNull
+  public byte[] getIdBytes() {
+    return idBytes;
+  }
+
   @NonNull
   @Override
   public String getQuery() {
@@ -137,6 +153,15 @@ public class DefaultPreparedStatement implements PreparedStatement {
     return resultMetadata.resultMetadataId;
   }
 
+  /**
+   * The contents of {@link #getResultMetadataId()}, as a byte array (or null if there is no result
+   * metadata id). Like {@link #getIdBytes()}, this is cached and must not be modified.
+   */
+  @Nullable
+  public byte[] getResultMetadataIdBytes() {
+    return resultMetadata.resultMetadataIdBytes;
+  }
+
   @NonNull
   @Override
   public ColumnDefinitions getResultSetDefinitions() {
@@ -208,10 +233,13 @@ public class DefaultPreparedStatement implements PreparedStatement {
 
   private static class ResultMetadata {
     private ByteBuffer resultMetadataId;
+    private byte[] resultMetadataIdBytes;
     private ColumnDefinitions resultSetDefinitions;
 
     private ResultMetadata(ByteBuffer resultMetadataId, ColumnDefinitions resultSetDefinitions) {
       this.resultMetadataId = resultMetadataId;
+      this.resultMetadataIdBytes =
+          (resultMetadataId == null) ? null : Bytes.getArray(resultMetadataId);
       this.resultSetDefinitions = resultSetDefinitions;
     }
   }
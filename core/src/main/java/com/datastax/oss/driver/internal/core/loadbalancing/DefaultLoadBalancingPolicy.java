@@ -83,6 +83,8 @@ public class DefaultLoadBalancingPolicy implements LoadBalancingPolicy {
   private final AtomicInteger roundRobinAmount = new AtomicInteger();
   private final boolean isDefaultPolicy;
   @VisibleForTesting final CopyOnWriteArraySet<Node> localDcLiveNodes = new CopyOnWriteArraySet<>();
+  // Immutable snapshot of localDcLiveNodes, refreshed each time the set changes
+  private volatile LiveNodes liveNodes = new LiveNodes(new Object[0]);
 
   private volatile DistanceReporter distanceReporter;
   @VisibleForTesting volatile String localDc;
@@ -169,29 +171,24 @@ public class DefaultLoadBalancingPolicy implements LoadBalancingPolicy {
         distanceReporter.setDistance(node, NodeDistance.IGNORED);
       }
     }
+    updateLiveNodes();
   }
 
   @NonNull
   @Override
   public Queue<Node> newQueryPlan(@Nullable Request request, @Nullable Session session) {
-    // Take a snapshot since the set is concurrent:
-    Object[] currentNodes = localDcLiveNodes.toArray();
+    LiveNodes liveNodes = this.liveNodes;
+    // The snapshot is shared, copy it since we're going to reorder it:
+    Object[] currentNodes = liveNodes.nodes.clone();
 
     Set<Node> allReplicas = getReplicas(request, session);
     int replicaCount = 0; // in currentNodes
 
     if (!allReplicas.isEmpty()) {
-      // Move replicas to the beginning
-      for (int i = 0; i < currentNodes.length; i++) {
-        Node node = (Node) currentNodes[i];
-        if (allReplicas.contains(node)) {
-          ArrayUtils.bubbleUp(currentNodes, i, replicaCount);
-          replicaCount += 1;
-        }
-      }
+      replicaCount = moveReplicasToFront(currentNodes, liveNodes, allReplicas);
 
       if (replicaCount > 1) {
-        shuffleHead(currentNodes, replicaCount);
+        orderReplicas(currentNodes, replicaCount, session);
       }
     }
 
@@ -207,6 +204,43 @@ public class DefaultLoadBalancingPolicy implements LoadBalancingPolicy {
     return new QueryPlan(currentNodes);
   }
 
+  /**
+   * Moves the replicas to the beginning of the array, preserving the relative order of the other
+   * nodes.
+   *
+   * <p>Instead of checking each live node against the replica set, this looks up the position of
+   * each replica in the snapshot. The number of replicas is typically much lower than the number of
+   * nodes in the DC, so this is cheaper on large clusters.
+   *
+   * @return the number of replicas that were found among the live nodes.
+   */
+  private static int moveReplicasToFront(
+      Object[] currentNodes, LiveNodes liveNodes, Set<Node> allReplicas) {
+    int[] positions = new int[allReplicas.size()];
+    int replicaCount = 0;
+    for (Node replica : allReplicas) {
+      Integer position = liveNodes.positions.get(replica);
+      if (position != null) {
+        // Insertion sort, there are only a handful of elements
+        int i = replicaCount++;
+        while (i > 0 && positions[i - 1] > position) {
+          positions[i] = positions[i - 1];
+          i -= 1;
+        }
+        positions[i] = position;
+      }
+    }
+    for (int i = 0; i < replicaCount; i++) {
+      // Equivalent to ArrayUtils.bubbleUp(currentNodes, positions[i], i), with a single block copy.
+      // Positions are sorted, so this never moves a replica that was already processed.
+      int position = positions[i];
+      Object replica = currentNodes[position];
+      System.arraycopy(currentNodes, i, currentNodes, i + 1, position - i);
+      currentNodes[i] = replica;
+    }
+    return replicaCount;
+  }
+
   private Set<Node> getReplicas(Request request, Session session) {
     if (request == null || session == null) {
       return Collections.emptySet();
@@ -243,6 +277,17 @@ public class DefaultLoadBalancingPolicy implements LoadBalancingPolicy {
     }
   }
 
+  /**
+   * Orders the replicas, which have been moved to the beginning of the query plan. This is only
+   * invoked if there are at least two of them.
+   *
+   * <p>The default implementation shuffles them, in order to spread the load evenly. Subclasses can
+   * override this to rank them according to other criteria.
+   */
+  protected void orderReplicas(Object[] currentNodes, int replicaCount, @Nullable Session session) {
+    shuffleHead(currentNodes, replicaCount);
+  }
+
   @VisibleForTesting
   protected void shuffleHead(Object[] currentNodes, int replicaCount) {
     ArrayUtils.shuffleHead(currentNodes, replicaCount);
@@ -268,6 +313,7 @@ public class DefaultLoadBalancingPolicy implements LoadBalancingPolicy {
       distanceReporter.setDistance(node, NodeDistance.LOCAL);
       if (localDcLiveNodes.add(node)) {
         LOG.debug("[{}] {} came back UP, added to live set", logPrefix, node);
+        updateLiveNodes();
       }
     } else {
       distanceReporter.setDistance(node, NodeDistance.IGNORED);
@@ -278,6 +324,7 @@ public class DefaultLoadBalancingPolicy implements LoadBalancingPolicy {
   public void onDown(@NonNull Node node) {
     if (localDcLiveNodes.remove(node)) {
       LOG.debug("[{}] {} went DOWN, removed from live set", logPrefix, node);
+      updateLiveNodes();
     }
   }
 
@@ -285,6 +332,7 @@ public class DefaultLoadBalancingPolicy implements LoadBalancingPolicy {
   public void onRemove(@NonNull Node node) {
     if (localDcLiveNodes.remove(node)) {
       LOG.debug("[{}] {} was removed, removed from live set", logPrefix, node);
+      updateLiveNodes();
     }
   }
 
@@ -293,6 +341,11 @@ public class DefaultLoadBalancingPolicy implements LoadBalancingPolicy {
     // nothing to do
   }
 
+  // Synchronized so that concurrent updates can't publish an outdated snapshot last
+  private synchronized void updateLiveNodes() {
+    liveNodes = new LiveNodes(localDcLiveNodes.toArray());
+  }
+
   private String getLocalDcFromConfig(
       InternalDriverContext internalContext,
       @NonNull String profileName,
@@ -322,4 +375,18 @@ public class DefaultLoadBalancingPolicy implements LoadBalancingPolicy {
                     Predicate.class)
                 .orElse(INCLUDE_ALL_NODES);
   }
+
+  private static class LiveNodes {
+    private final Object[] nodes;
+    private final Map<Node, Integer> positions;
+
+    private LiveNodes(Object[] nodes) {
+      this.nodes = nodes;
+      ImmutableMap.Builder<Node, Integer> builder = ImmutableMap.builder();
+      for (int i = 0; i < nodes.length; i++) {
+        builder.put((Node) nodes[i], i);
+      }
+      this.positions = builder.build();
+    }
+  }
 }
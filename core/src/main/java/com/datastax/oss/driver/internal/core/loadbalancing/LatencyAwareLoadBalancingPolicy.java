@@ -0,0 +1,235 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.loadbalancing;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.connection.HeartbeatException;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.session.Session;
+import com.datastax.oss.driver.api.core.tracker.RequestTracker;
+import com.datastax.oss.driver.internal.core.pool.ChannelPool;
+import com.datastax.oss.driver.internal.core.session.DefaultSession;
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A variant of the default load balancing policy that ranks replicas according to their current
+ * load, instead of shuffling them.
+ *
+ * <p>The cost of a replica is its average latency (an exponentially decaying moving average of the
+ * response times observed by the driver), multiplied by the number of requests currently in flight
+ * on its connection pool. Replicas are tried in increasing order of cost, except the ones that
+ * reach one of the configured exclusion thresholds: they are tried after all the others. This
+ * avoids sending requests to a replica that is temporarily slow (for example because of a garbage
+ * collection pause), without waiting for it to be marked down.
+ *
+ * <p>To activate this policy, modify the {@code basic.load-balancing-policy} section in the driver
+ * configuration, for example:
+ *
+ * <pre>
+ * datastax-java-driver {
+ *   basic.load-balancing-policy {
+ *     class = LatencyAwareLoadBalancingPolicy
+ *     local-datacenter = datacenter1
+ *     latency-aware.exclusion-latency-ratio = 2.0
+ *   }
+ * }
+ * </pre>
+ *
+ * See {@code reference.conf} (in the manual or core driver JAR) for more details.
+ *
+ * <p>The policy collects latencies by acting as a {@link RequestTracker}; the driver registers it
+ * automatically, in addition to the tracker defined in the configuration.
+ */
+@ThreadSafe
+public class LatencyAwareLoadBalancingPolicy extends DefaultLoadBalancingPolicy
+    implements RequestTracker {
+
+  // After that many half-lives, a sample's weight is about 3%
+  private static final int HALF_LIVES_BEFORE_STALE = 5;
+
+  private final double decayNanos;
+  private final long staleNanos;
+  private final int exclusionInFlight;
+  private final double exclusionLatencyRatio;
+  private final ConcurrentMap<Node, NodeLatency> latencies = new ConcurrentHashMap<>();
+
+  public LatencyAwareLoadBalancingPolicy(
+      @NonNull DriverContext context, @NonNull String profileName) {
+    super(context, profileName);
+    DriverExecutionProfile config = context.getConfig().getProfile(profileName);
+    long halfLifeNanos =
+        config.getDuration(DefaultDriverOption.LOAD_BALANCING_LATENCY_HALF_LIFE).toNanos();
+    if (halfLifeNanos <= 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid latency half-life %d ns (from configuration option %s), must be positive",
+              halfLifeNanos, DefaultDriverOption.LOAD_BALANCING_LATENCY_HALF_LIFE.getPath()));
+    }
+    // Mean lifetime of the exponential decay
+    this.decayNanos = halfLifeNanos / Math.log(2);
+    this.staleNanos = halfLifeNanos * HALF_LIVES_BEFORE_STALE;
+    this.exclusionInFlight = config.getInt(DefaultDriverOption.LOAD_BALANCING_EXCLUSION_IN_FLIGHT);
+    this.exclusionLatencyRatio =
+        config.getDouble(DefaultDriverOption.LOAD_BALANCING_EXCLUSION_LATENCY_RATIO);
+  }
+
+  @Override
+  protected void orderReplicas(Object[] currentNodes, int replicaCount, @Nullable Session session) {
+    // Start from a random order, so that replicas with the same cost are picked evenly
+    shuffleHead(currentNodes, replicaCount);
+    if (!(session instanceof DefaultSession)) {
+      return;
+    }
+    Map<Node, ChannelPool> pools = ((DefaultSession) session).getPools();
+    long now = nanoTime();
+
+    double[] averages = new double[replicaCount];
+    int[] inFlights = new int[replicaCount];
+    double minAverage = Double.MAX_VALUE;
+    for (int i = 0; i < replicaCount; i++) {
+      Node node = (Node) currentNodes[i];
+      ChannelPool pool = pools.get(node);
+      inFlights[i] = (pool == null) ? 0 : pool.getInFlight();
+      NodeLatency latency = latencies.get(node);
+      averages[i] =
+          (latency == null || now - latency.timestamp > staleNanos) ? Double.NaN : latency.average;
+      if (averages[i] < minAverage) {
+        minAverage = averages[i];
+      }
+    }
+    if (minAverage == Double.MAX_VALUE) {
+      // No latency information at all, rank by in-flight count only
+      minAverage = 1;
+    }
+
+    double[] costs = new double[replicaCount];
+    boolean[] excluded = new boolean[replicaCount];
+    for (int i = 0; i < replicaCount; i++) {
+      // Nodes without latency information are assumed to be as fast as the best one, so that they
+      // get a chance to be sampled
+      double average = Double.isNaN(averages[i]) ? minAverage : averages[i];
+      costs[i] = average * (inFlights[i] + 1);
+      excluded[i] =
+          (exclusionInFlight > 0 && inFlights[i] >= exclusionInFlight)
+              || (exclusionLatencyRatio > 0 && average > exclusionLatencyRatio * minAverage);
+    }
+
+    // Insertion sort, there are only a handful of replicas. It's stable, so ties keep the random
+    // order from the shuffle.
+    for (int i = 1; i < replicaCount; i++) {
+      Object node = currentNodes[i];
+      double cost = costs[i];
+      boolean isExcluded = excluded[i];
+      int j = i - 1;
+      while (j >= 0
+          && ((excluded[j] && !isExcluded) || (excluded[j] == isExcluded && costs[j] > cost))) {
+        currentNodes[j + 1] = currentNodes[j];
+        costs[j + 1] = costs[j];
+        excluded[j + 1] = excluded[j];
+        j -= 1;
+      }
+      currentNodes[j + 1] = node;
+      costs[j + 1] = cost;
+      excluded[j + 1] = isExcluded;
+    }
+  }
+
+  @Override
+  public void onNodeSuccess(
+      @NonNull Request request,
+      long latencyNanos,
+      @NonNull DriverExecutionProfile executionProfile,
+      @NonNull Node node,
+      @NonNull String requestLogPrefix) {
+    updateLatency(node, latencyNanos);
+  }
+
+  @Override
+  public void onNodeError(
+      @NonNull Request request,
+      @NonNull Throwable error,
+      long latencyNanos,
+      @NonNull DriverExecutionProfile executionProfile,
+      @NonNull Node node,
+      @NonNull String requestLogPrefix) {
+    // Timeouts are a strong sign that the node is struggling. Other errors are ignored: a node that
+    // quickly rejects requests (unavailable, overloaded, bootstrapping...) must not look fast.
+    if (isSlowResponse(error)) {
+      updateLatency(node, latencyNanos);
+    }
+  }
+
+  @Override
+  public void onRemove(@NonNull Node node) {
+    super.onRemove(node);
+    latencies.remove(node);
+  }
+
+  @VisibleForTesting
+  void updateLatency(Node node, long latencyNanos) {
+    long now = nanoTime();
+    NodeLatency latency = latencies.get(node);
+    if (latency == null) {
+      latency = latencies.computeIfAbsent(node, n -> new NodeLatency());
+    }
+    latency.update(latencyNanos, now, decayNanos, staleNanos);
+  }
+
+  private static boolean isSlowResponse(Throwable error) {
+    return error instanceof ReadTimeoutException
+        || error instanceof WriteTimeoutException
+        || error instanceof HeartbeatException;
+  }
+
+  @VisibleForTesting
+  long nanoTime() {
+    return System.nanoTime();
+  }
+
+  /**
+   * The moving average of a node's latencies.
+   *
+   * <p>Updates are not atomic: if two threads record a sample at the same time, one of them might
+   * be lost. This is acceptable for an estimate, and avoids contention on the request path.
+   */
+  private static class NodeLatency {
+    private volatile double average = Double.NaN;
+    private volatile long timestamp;
+
+    private void update(long latencyNanos, long now, double decayNanos, long staleNanos) {
+      double previous = average;
+      long elapsed = now - timestamp;
+      if (Double.isNaN(previous) || elapsed > staleNanos) {
+        average = latencyNanos;
+      } else {
+        double weight = Math.exp(-Math.max(elapsed, 0) / decayNanos);
+        average = previous * weight + latencyNanos * (1 - weight);
+      }
+      timestamp = now;
+    }
+  }
+}
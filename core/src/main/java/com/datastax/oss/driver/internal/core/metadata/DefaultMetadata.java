@@ -83,7 +83,7 @@ public class DefaultMetadata implements Metadata {
    * @param tokenMapEnabled whether to rebuild the token map or not; if this is {@code false} the
    *     current token map will be copied into the new metadata without being recomputed.
    * @param tokensChanged whether we observed a change of tokens for at least one node. This will
-   *     require a full rebuild of the token map.
+   *     require a rebuild of the token map.
    * @param tokenFactory only needed for the initial refresh, afterwards the existing one in the
    *     token map is used.
    * @return the new metadata.
@@ -152,13 +152,9 @@ public class DefaultMetadata implements Metadata {
         }
       } else if (forceFullRebuild) {
         LOG.debug(
-            "[{}] Updating token map but some nodes/tokens have changed, full rebuild", logPrefix);
-        return DefaultTokenMap.build(
-            newNodes.values(),
-            newKeyspaces.values(),
-            oldTokenMap.getTokenFactory(),
-            replicationStrategyFactory,
-            logPrefix);
+            "[{}] Updating token map but some nodes/tokens have changed, rebuilding", logPrefix);
+        return oldTokenMap.rebuild(
+            newNodes.values(), newKeyspaces.values(), replicationStrategyFactory);
       } else {
         LOG.debug("[{}] Refreshing token map (only schema has changed)", logPrefix);
         return oldTokenMap.refresh(
@@ -33,6 +33,8 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -46,6 +48,8 @@ import org.slf4j.LoggerFactory;
 public class DefaultTokenMap implements TokenMap {
 
   private static final Logger LOG = LoggerFactory.getLogger(DefaultTokenMap.class);
+  private static final String NETWORK_TOPOLOGY_STRATEGY =
+      "org.apache.cassandra.locator.NetworkTopologyStrategy";
 
   public static DefaultTokenMap build(
       @NonNull Collection<Node> nodes,
@@ -61,18 +65,6 @@ public class DefaultTokenMap implements TokenMap {
 
     Set<TokenRange> tokenRanges = buildTokenRanges(ring, tokenFactory);
 
-    ImmutableSetMultimap.Builder<Node, TokenRange> tokenRangesByPrimary =
-        ImmutableSetMultimap.builder();
-    for (TokenRange range : tokenRanges) {
-      if (range.isFullRing()) {
-        // The full ring is always ]min, min], so getEnd() doesn't match the node's token
-        assert tokenToPrimary.size() == 1;
-        tokenRangesByPrimary.put(tokenToPrimary.values().iterator().next(), range);
-      } else {
-        tokenRangesByPrimary.put(tokenToPrimary.get(range.getEnd()), range);
-      }
-    }
-
     Map<CqlIdentifier, Map<String, String>> replicationConfigs =
         buildReplicationConfigs(keyspaces, logPrefix);
 
@@ -93,14 +85,18 @@ public class DefaultTokenMap implements TokenMap {
     }
     return new DefaultTokenMap(
         tokenFactory,
+        tokenToPrimary,
+        ring,
         tokenRanges,
-        tokenRangesByPrimary.build(),
+        buildTokenRangesByPrimary(tokenRanges, tokenToPrimary),
         replicationConfigs,
         keyspaceMapsBuilder.build(),
         logPrefix);
   }
 
   private final TokenFactory tokenFactory;
+  private final Map<Token, Node> tokenToPrimary;
+  private final List<Token> ring;
   @VisibleForTesting final Set<TokenRange> tokenRanges;
   @VisibleForTesting final SetMultimap<Node, TokenRange> tokenRangesByPrimary;
   @VisibleForTesting final Map<CqlIdentifier, Map<String, String>> replicationConfigs;
@@ -109,12 +105,16 @@ public class DefaultTokenMap implements TokenMap {
 
   private DefaultTokenMap(
       TokenFactory tokenFactory,
+      Map<Token, Node> tokenToPrimary,
+      List<Token> ring,
       Set<TokenRange> tokenRanges,
       SetMultimap<Node, TokenRange> tokenRangesByPrimary,
       Map<CqlIdentifier, Map<String, String>> replicationConfigs,
       Map<Map<String, String>, KeyspaceTokenMap> keyspaceMaps,
       String logPrefix) {
     this.tokenFactory = tokenFactory;
+    this.tokenToPrimary = tokenToPrimary;
+    this.ring = ring;
     this.tokenRanges = tokenRanges;
     this.tokenRangesByPrimary = tokenRangesByPrimary;
     this.replicationConfigs = replicationConfigs;
@@ -209,10 +209,6 @@ public class DefaultTokenMap implements TokenMap {
     ImmutableMap.Builder<Map<String, String>, KeyspaceTokenMap> newKeyspaceMapsBuilder =
         ImmutableMap.builder();
 
-    // Will only be built if needed:
-    Map<Token, Node> tokenToPrimary = null;
-    List<Token> ring = null;
-
     for (Map<String, String> config : ImmutableSet.copyOf(newReplicationConfigs.values())) {
       KeyspaceTokenMap oldKeyspaceMap = keyspaceMaps.get(config);
       if (oldKeyspaceMap != null) {
@@ -220,11 +216,6 @@ public class DefaultTokenMap implements TokenMap {
         newKeyspaceMapsBuilder.put(config, oldKeyspaceMap);
       } else {
         LOG.debug("[{}] Computing new keyspace-level data for {}", logPrefix, config);
-        if (tokenToPrimary == null) {
-          TokenToPrimaryAndRing tmp = buildTokenToPrimaryAndRing(nodes, tokenFactory);
-          tokenToPrimary = tmp.tokenToPrimary;
-          ring = tmp.ring;
-        }
         newKeyspaceMapsBuilder.put(
             config,
             KeyspaceTokenMap.build(
@@ -239,6 +230,8 @@ public class DefaultTokenMap implements TokenMap {
     }
     return new DefaultTokenMap(
         tokenFactory,
+        tokenToPrimary,
+        ring,
         tokenRanges,
         tokenRangesByPrimary,
         newReplicationConfigs,
@@ -246,6 +239,117 @@ public class DefaultTokenMap implements TokenMap {
         logPrefix);
   }
 
+  /**
+   * Called when nodes were added or removed, or their tokens have changed.
+   *
+   * <p>This only recomputes what is strictly necessary: if the ownership of the tokens turns out to
+   * be the same, this is equivalent to {@link #refresh}. Otherwise, the replicas are only
+   * recomputed for the replication configurations that depend on the datacenters of the nodes that
+   * changed; the other configurations are adapted from their existing data.
+   */
+  public DefaultTokenMap rebuild(
+      @NonNull Collection<Node> nodes,
+      @NonNull Collection<KeyspaceMetadata> keyspaces,
+      @NonNull ReplicationStrategyFactory replicationStrategyFactory) {
+
+    TokenToPrimaryAndRing tmp = buildTokenToPrimaryAndRing(nodes, tokenFactory);
+    Map<Token, Node> newTokenToPrimary = tmp.tokenToPrimary;
+    List<Token> newRing = tmp.ring;
+    if (newTokenToPrimary.equals(tokenToPrimary)) {
+      LOG.debug("[{}] Token ownership has not changed, no need to rebuild the ring", logPrefix);
+      return refresh(nodes, keyspaces, replicationStrategyFactory);
+    }
+    LOG.debug("[{}] Rebuilt ring ({} tokens)", logPrefix, newRing.size());
+
+    Set<String> changedDcs = findChangedDatacenters(tokenToPrimary, newTokenToPrimary);
+    Set<TokenRange> newTokenRanges = buildTokenRanges(newRing, tokenFactory);
+    Map<CqlIdentifier, Map<String, String>> newReplicationConfigs =
+        buildReplicationConfigs(keyspaces, logPrefix);
+
+    ImmutableMap.Builder<Map<String, String>, KeyspaceTokenMap> newKeyspaceMapsBuilder =
+        ImmutableMap.builder();
+    for (Map<String, String> config : ImmutableSet.copyOf(newReplicationConfigs.values())) {
+      KeyspaceTokenMap oldKeyspaceMap = keyspaceMaps.get(config);
+      if (oldKeyspaceMap != null
+          && !dependsOnAny(replicationStrategyFactory.newInstance(config), changedDcs)) {
+        LOG.debug(
+            "[{}] Adapting existing keyspace-level data for {} (changes only affect {})",
+            logPrefix,
+            config,
+            changedDcs);
+        newKeyspaceMapsBuilder.put(
+            config,
+            oldKeyspaceMap.withRing(config, newTokenToPrimary, newRing, newTokenRanges, logPrefix));
+      } else {
+        LOG.debug("[{}] Computing new keyspace-level data for {}", logPrefix, config);
+        newKeyspaceMapsBuilder.put(
+            config,
+            KeyspaceTokenMap.build(
+                config,
+                newTokenToPrimary,
+                newRing,
+                newTokenRanges,
+                tokenFactory,
+                replicationStrategyFactory,
+                logPrefix));
+      }
+    }
+    return new DefaultTokenMap(
+        tokenFactory,
+        newTokenToPrimary,
+        newRing,
+        newTokenRanges,
+        buildTokenRangesByPrimary(newTokenRanges, newTokenToPrimary),
+        newReplicationConfigs,
+        newKeyspaceMapsBuilder.build(),
+        logPrefix);
+  }
+
+  /** The datacenters of all the nodes that gained or lost at least one token. */
+  private static Set<String> findChangedDatacenters(
+      Map<Token, Node> oldTokenToPrimary, Map<Token, Node> newTokenToPrimary) {
+    Set<String> result = new HashSet<>();
+    for (Map.Entry<Token, Node> entry : oldTokenToPrimary.entrySet()) {
+      Node newPrimary = newTokenToPrimary.get(entry.getKey());
+      if (newPrimary != entry.getValue()) {
+        result.add(entry.getValue().getDatacenter());
+        if (newPrimary != null) {
+          result.add(newPrimary.getDatacenter());
+        }
+      }
+    }
+    for (Map.Entry<Token, Node> entry : newTokenToPrimary.entrySet()) {
+      if (!oldTokenToPrimary.containsKey(entry.getKey())) {
+        result.add(entry.getValue().getDatacenter());
+      }
+    }
+    return result;
+  }
+
+  private static boolean dependsOnAny(ReplicationStrategy strategy, Set<String> datacenters) {
+    for (String datacenter : datacenters) {
+      if (strategy.dependsOnDatacenter(datacenter)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static SetMultimap<Node, TokenRange> buildTokenRangesByPrimary(
+      Set<TokenRange> tokenRanges, Map<Token, Node> tokenToPrimary) {
+    ImmutableSetMultimap.Builder<Node, TokenRange> result = ImmutableSetMultimap.builder();
+    for (TokenRange range : tokenRanges) {
+      if (range.isFullRing()) {
+        // The full ring is always ]min, min], so getEnd() doesn't match the node's token
+        assert tokenToPrimary.size() == 1;
+        result.put(tokenToPrimary.values().iterator().next(), range);
+      } else {
+        result.put(tokenToPrimary.get(range.getEnd()), range);
+      }
+    }
+    return result.build();
+  }
+
   private static TokenToPrimaryAndRing buildTokenToPrimaryAndRing(
       Collection<Node> nodes, TokenFactory tokenFactory) {
     ImmutableMap.Builder<Token, Node> tokenToPrimaryBuilder = ImmutableMap.builder();
@@ -274,9 +378,14 @@ public class DefaultTokenMap implements TokenMap {
   private static Map<CqlIdentifier, Map<String, String>> buildReplicationConfigs(
       Collection<KeyspaceMetadata> keyspaces, String logPrefix) {
     ImmutableMap.Builder<CqlIdentifier, Map<String, String>> builder = ImmutableMap.builder();
+    // Keyspaces with the same settings share a single instance. The keyspace-level data is keyed by
+    // these configs, so this matters for memory usage when there are many keyspaces.
+    Map<Map<String, String>, Map<String, String>> distinctConfigs = new HashMap<>();
     for (KeyspaceMetadata keyspace : keyspaces) {
       if (!keyspace.isVirtual()) {
-        builder.put(keyspace.getName(), keyspace.getReplication());
+        Map<String, String> config = normalize(keyspace.getReplication());
+        Map<String, String> previous = distinctConfigs.putIfAbsent(config, config);
+        builder.put(keyspace.getName(), (previous == null) ? config : previous);
       }
     }
     ImmutableMap<CqlIdentifier, Map<String, String>> result = builder.build();
@@ -284,6 +393,25 @@ public class DefaultTokenMap implements TokenMap {
     return result;
   }
 
+  /**
+   * Removes the datacenters that have a replication factor of 0 from NetworkTopologyStrategy
+   * settings: they are equivalent to datacenters that are not listed, and keyspaces that only
+   * differ in that way should share the same keyspace-level data.
+   */
+  private static Map<String, String> normalize(Map<String, String> replicationConfig) {
+    if (!NETWORK_TOPOLOGY_STRATEGY.equals(replicationConfig.get("class"))
+        || !replicationConfig.containsValue("0")) {
+      return replicationConfig;
+    }
+    ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+    for (Map.Entry<String, String> entry : replicationConfig.entrySet()) {
+      if (!"0".equals(entry.getValue())) {
+        builder.put(entry);
+      }
+    }
+    return builder.build();
+  }
+
   private static Set<TokenRange> buildTokenRanges(List<Token> ring, TokenFactory factory) {
     ImmutableSet.Builder<TokenRange> builder = ImmutableSet.builder();
     // JAVA-684: if there is only one token, return the full ring (]minToken, minToken])
@@ -19,10 +19,16 @@ import com.datastax.oss.driver.api.core.metadata.Node;
 import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
 import com.datastax.oss.driver.internal.core.util.NanoTime;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSetMultimap;
+import com.datastax.oss.driver.shaded.guava.common.collect.Maps;
 import com.datastax.oss.driver.shaded.guava.common.collect.SetMultimap;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -54,20 +60,12 @@ class KeyspaceTokenMap {
 
       SetMultimap<Token, Node> replicasByToken =
           strategy.computeReplicasByToken(tokenToPrimary, ring);
-      SetMultimap<Node, TokenRange> tokenRangesByNode;
-      if (ring.size() == 1) {
-        // We forced the single range to ]minToken,minToken], make sure to use that instead of
-        // relying
-        // on the node's token
-        ImmutableSetMultimap.Builder<Node, TokenRange> builder = ImmutableSetMultimap.builder();
-        for (Node node : tokenToPrimary.values()) {
-          builder.putAll(node, tokenRanges);
-        }
-        tokenRangesByNode = builder.build();
-      } else {
-        tokenRangesByNode = buildTokenRangesByNode(tokenRanges, replicasByToken);
-      }
-      return new KeyspaceTokenMap(ring, tokenRangesByNode, replicasByToken, tokenFactory);
+      return newInstance(
+          tokenToPrimary,
+          ring,
+          tokenRanges,
+          buildReplicasByRingIndex(ring, replicasByToken),
+          tokenFactory);
     } finally {
       LOG.debug(
           "[{}] Computing keyspace-level data for {} took {}",
@@ -77,49 +75,154 @@ class KeyspaceTokenMap {
     }
   }
 
+  private static KeyspaceTokenMap newInstance(
+      Map<Token, Node> tokenToPrimary,
+      List<Token> ring,
+      Set<TokenRange> tokenRanges,
+      List<Set<Node>> replicasByRingIndex,
+      TokenFactory tokenFactory) {
+    SetMultimap<Node, TokenRange> tokenRangesByNode;
+    if (ring.size() == 1) {
+      // We forced the single range to ]minToken,minToken], make sure to use that instead of
+      // relying on the node's token
+      ImmutableSetMultimap.Builder<Node, TokenRange> builder = ImmutableSetMultimap.builder();
+      for (Node node : tokenToPrimary.values()) {
+        builder.putAll(node, tokenRanges);
+      }
+      tokenRangesByNode = builder.build();
+    } else {
+      tokenRangesByNode = buildTokenRangesByNode(tokenRanges, ring, replicasByRingIndex);
+    }
+    return new KeyspaceTokenMap(
+        ring,
+        buildMurmur3Ring(ring, tokenFactory),
+        tokenRangesByNode,
+        replicasByRingIndex,
+        tokenFactory);
+  }
+
   private final List<Token> ring;
+  // If the partitioner is Murmur3: the values of the tokens in the ring, to search without boxing
+  @Nullable private final long[] murmur3Ring;
   private final SetMultimap<Node, TokenRange> tokenRangesByNode;
-  private final SetMultimap<Token, Node> replicasByToken;
+  // The replicas of each token in the ring, at the same index
+  private final List<Set<Node>> replicasByRingIndex;
   private final TokenFactory tokenFactory;
 
   private KeyspaceTokenMap(
       List<Token> ring,
+      @Nullable long[] murmur3Ring,
       SetMultimap<Node, TokenRange> tokenRangesByNode,
-      SetMultimap<Token, Node> replicasByToken,
+      List<Set<Node>> replicasByRingIndex,
       TokenFactory tokenFactory) {
     this.ring = ring;
+    this.murmur3Ring = murmur3Ring;
     this.tokenRangesByNode = tokenRangesByNode;
-    this.replicasByToken = replicasByToken;
+    this.replicasByRingIndex = replicasByRingIndex;
     this.tokenFactory = tokenFactory;
   }
 
+  /**
+   * Adapts this instance to a new ring, where all the nodes that gained or lost tokens belong to
+   * datacenters that this replication configuration does not depend on (see {@link
+   * ReplicationStrategy#dependsOnDatacenter(String)}).
+   *
+   * <p>In that case, the replicas of the tokens that were already in the ring are unchanged, and a
+   * new token has the same replicas as the next token in the old ring. So we can derive everything
+   * from the existing data, without running the replication strategy again.
+   */
+  KeyspaceTokenMap withRing(
+      Map<String, String> replicationConfig,
+      Map<Token, Node> newTokenToPrimary,
+      List<Token> newRing,
+      Set<TokenRange> newTokenRanges,
+      String logPrefix) {
+    long start = System.nanoTime();
+    try {
+      ImmutableList.Builder<Set<Node>> replicasByRingIndex = ImmutableList.builder();
+      for (Token token : newRing) {
+        replicasByRingIndex.add(getReplicas(token));
+      }
+      return newInstance(
+          newTokenToPrimary, newRing, newTokenRanges, replicasByRingIndex.build(), tokenFactory);
+    } finally {
+      LOG.debug(
+          "[{}] Adapting keyspace-level data for {} took {}",
+          logPrefix,
+          replicationConfig,
+          NanoTime.formatTimeSince(start));
+    }
+  }
+
   Set<TokenRange> getTokenRanges(Node replica) {
     return tokenRangesByNode.get(replica);
   }
 
   Set<Node> getReplicas(ByteBuffer partitionKey) {
-    return getReplicas(tokenFactory.hash(partitionKey));
+    if (murmur3Ring != null) {
+      // Hash directly to the raw value, no need to create a token instance
+      long value = ((Murmur3TokenFactory) tokenFactory).hashToLong(partitionKey);
+      return getReplicasAt(Arrays.binarySearch(murmur3Ring, value));
+    } else {
+      return getReplicas(tokenFactory.hash(partitionKey));
+    }
   }
 
   Set<Node> getReplicas(Token token) {
-    // If the token happens to be one of the "primary" tokens, get result directly
-    Set<Node> nodes = replicasByToken.get(token);
-    if (!nodes.isEmpty()) {
-      return nodes;
+    // Find the closest "primary" token on the ring (or the token itself if it's a primary token)
+    int i =
+        (murmur3Ring != null && token instanceof Murmur3Token)
+            ? Arrays.binarySearch(murmur3Ring, ((Murmur3Token) token).getValue())
+            : Collections.binarySearch(ring, token);
+    return getReplicasAt(i);
+  }
+
+  /** @param i the result of a binary search in the ring. */
+  private Set<Node> getReplicasAt(int i) {
+    if (ring.isEmpty()) {
+      return Collections.emptySet();
     }
-    // Otherwise, find the closest "primary" token on the ring
-    int i = Collections.binarySearch(ring, token);
     if (i < 0) {
       i = -i - 1;
       if (i >= ring.size()) {
         i = 0;
       }
     }
-    return replicasByToken.get(ring.get(i));
+    return replicasByRingIndex.get(i);
+  }
+
+  @Nullable
+  private static long[] buildMurmur3Ring(List<Token> ring, TokenFactory tokenFactory) {
+    if (!(tokenFactory instanceof Murmur3TokenFactory)) {
+      return null;
+    }
+    long[] result = new long[ring.size()];
+    for (int i = 0; i < ring.size(); i++) {
+      result[i] = ((Murmur3Token) ring.get(i)).getValue();
+    }
+    return result;
+  }
+
+  private static List<Set<Node>> buildReplicasByRingIndex(
+      List<Token> ring, SetMultimap<Token, Node> replicasByToken) {
+    // Consecutive tokens often have the same replicas (especially with vnodes and few nodes), only
+    // keep one instance of each distinct set.
+    Map<Set<Node>, Set<Node>> distinctSets = new HashMap<>();
+    ImmutableList.Builder<Set<Node>> result = ImmutableList.builder();
+    for (Token token : ring) {
+      Set<Node> replicas = ImmutableSet.copyOf(replicasByToken.get(token));
+      Set<Node> previous = distinctSets.putIfAbsent(replicas, replicas);
+      result.add((previous == null) ? replicas : previous);
+    }
+    return result.build();
   }
 
   private static SetMultimap<Node, TokenRange> buildTokenRangesByNode(
-      Set<TokenRange> tokenRanges, SetMultimap<Token, Node> replicasByToken) {
+      Set<TokenRange> tokenRanges, List<Token> ring, List<Set<Node>> replicasByRingIndex) {
+    Map<Token, Set<Node>> replicasByToken = Maps.newHashMapWithExpectedSize(ring.size());
+    for (int i = 0; i < ring.size(); i++) {
+      replicasByToken.put(ring.get(i), replicasByRingIndex.get(i));
+    }
     ImmutableSetMultimap.Builder<Node, TokenRange> result = ImmutableSetMultimap.builder();
     for (TokenRange range : tokenRanges) {
       for (Node node : replicasByToken.get(range.getEnd())) {
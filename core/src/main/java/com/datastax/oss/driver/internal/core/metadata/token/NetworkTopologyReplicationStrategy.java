@@ -55,6 +55,12 @@ class NetworkTopologyReplicationStrategy implements ReplicationStrategy {
     this.logPrefix = logPrefix;
   }
 
+  @Override
+  public boolean dependsOnDatacenter(String datacenter) {
+    // Tokens of other DCs are skipped when we walk the ring
+    return replicationFactors.containsKey(datacenter);
+  }
+
   @Override
   public SetMultimap<Token, Node> computeReplicasByToken(
       Map<Token, Node> tokenToPrimary, List<Token> ring) {
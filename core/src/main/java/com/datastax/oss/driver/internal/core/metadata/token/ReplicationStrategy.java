@@ -24,4 +24,15 @@ import java.util.Map;
 public interface ReplicationStrategy {
   SetMultimap<Token, Node> computeReplicasByToken(
       Map<Token, Node> tokenToPrimary, List<Token> ring);
+
+  /**
+   * Whether the replicas computed by this strategy depend on the nodes of the given datacenter.
+   *
+   * <p>If this returns false, adding, removing or moving a node in that datacenter never changes
+   * the replicas of the other tokens, which allows the token map to skip recomputing them. The
+   * default implementation conservatively returns true.
+   */
+  default boolean dependsOnDatacenter(String datacenter) {
+    return true;
+  }
 }
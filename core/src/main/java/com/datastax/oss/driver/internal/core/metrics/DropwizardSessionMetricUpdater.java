@@ -18,6 +18,7 @@ package com.datastax.oss.driver.internal.core.metrics;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.metadata.Node;
 import com.datastax.oss.driver.api.core.metrics.DefaultSessionMetric;
 import com.datastax.oss.driver.api.core.metrics.SessionMetric;
@@ -26,10 +27,16 @@ import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
 import com.datastax.oss.driver.internal.core.cql.CqlPrepareAsyncProcessor;
 import com.datastax.oss.driver.internal.core.cql.CqlPrepareSyncProcessor;
 import com.datastax.oss.driver.internal.core.session.RequestProcessor;
+import com.datastax.oss.driver.internal.core.session.throttling.AdaptiveConcurrencyLimitingRequestThrottler;
 import com.datastax.oss.driver.internal.core.session.throttling.ConcurrencyLimitingRequestThrottler;
 import com.datastax.oss.driver.internal.core.session.throttling.RateLimitingRequestThrottler;
 import com.datastax.oss.driver.shaded.guava.common.cache.Cache;
+import com.datastax.oss.driver.shaded.guava.common.collect.Sets;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import net.jcip.annotations.ThreadSafe;
 import org.slf4j.Logger;
@@ -65,7 +72,8 @@ public class DropwizardSessionMetricUpdater extends DropwizardMetricUpdater<Sess
     if (enabledMetrics.contains(DefaultSessionMetric.THROTTLING_QUEUE_SIZE)) {
       this.registry.gauge(
           buildFullName(DefaultSessionMetric.THROTTLING_QUEUE_SIZE, null),
-          () -> buildQueueGauge(context.getRequestThrottler(), context.getSessionName()));
+          () -> buildQueueGauge(context.getRequestThrottlers(), context.getSessionName()));
+      registerProfileQueueGauges(context.getRequestThrottlers(), context.getSessionName());
     }
     if (enabledMetrics.contains(DefaultSessionMetric.CQL_PREPARED_CACHE_SIZE)) {
       this.registry.gauge(
@@ -101,6 +109,12 @@ public class DropwizardSessionMetricUpdater extends DropwizardMetricUpdater<Sess
         DefaultDriverOption.METRICS_SESSION_THROTTLING_DIGITS,
         DefaultDriverOption.METRICS_SESSION_THROTTLING_INTERVAL);
     initializeDefaultCounter(DefaultSessionMetric.THROTTLING_ERRORS, null);
+    initializeHdrTimer(
+        DefaultSessionMetric.COALESCER_FLUSH_LATENCY,
+        context.getConfig().getDefaultProfile(),
+        DefaultDriverOption.METRICS_SESSION_COALESCER_FLUSH_LATENCY_HIGHEST,
+        DefaultDriverOption.METRICS_SESSION_COALESCER_FLUSH_LATENCY_DIGITS,
+        DefaultDriverOption.METRICS_SESSION_COALESCER_FLUSH_LATENCY_INTERVAL);
   }
 
   @Override
@@ -108,11 +122,61 @@ public class DropwizardSessionMetricUpdater extends DropwizardMetricUpdater<Sess
     return metricNamePrefix + metric.getPath();
   }
 
+  private Gauge<Integer> buildQueueGauge(
+      Map<String, RequestThrottler> requestThrottlers, String logPrefix) {
+    // Profiles that don't override the throttler configuration share the same instance
+    Set<RequestThrottler> distinctThrottlers = Sets.newIdentityHashSet();
+    distinctThrottlers.addAll(requestThrottlers.values());
+    if (distinctThrottlers.size() == 1) {
+      return buildQueueGauge(distinctThrottlers.iterator().next(), logPrefix);
+    }
+    // Otherwise report the total size of all queues
+    List<Gauge<Integer>> gauges = new ArrayList<>();
+    for (RequestThrottler requestThrottler : distinctThrottlers) {
+      gauges.add(buildQueueGauge(requestThrottler, logPrefix));
+    }
+    return () -> {
+      int total = 0;
+      for (Gauge<Integer> gauge : gauges) {
+        total += gauge.getValue();
+      }
+      return total;
+    };
+  }
+
+  /**
+   * If some profiles use their own throttler, registers one gauge per distinct throttler, next to
+   * the total. Each gauge is named after the first profile that uses the throttler (the default
+   * throttler is always named after the default profile).
+   */
+  private void registerProfileQueueGauges(
+      Map<String, RequestThrottler> requestThrottlers, String logPrefix) {
+    Map<RequestThrottler, String> profileNames = new IdentityHashMap<>();
+    RequestThrottler defaultThrottler = requestThrottlers.get(DriverExecutionProfile.DEFAULT_NAME);
+    if (defaultThrottler != null) {
+      profileNames.put(defaultThrottler, DriverExecutionProfile.DEFAULT_NAME);
+    }
+    for (Map.Entry<String, RequestThrottler> entry : requestThrottlers.entrySet()) {
+      profileNames.putIfAbsent(entry.getValue(), entry.getKey());
+    }
+    if (profileNames.size() > 1) {
+      for (Map.Entry<RequestThrottler, String> entry : profileNames.entrySet()) {
+        this.registry.gauge(
+            buildFullName(DefaultSessionMetric.THROTTLING_QUEUE_SIZE, null)
+                + "."
+                + entry.getValue(),
+            () -> buildQueueGauge(entry.getKey(), logPrefix));
+      }
+    }
+  }
+
   private Gauge<Integer> buildQueueGauge(RequestThrottler requestThrottler, String logPrefix) {
     if (requestThrottler instanceof ConcurrencyLimitingRequestThrottler) {
       return ((ConcurrencyLimitingRequestThrottler) requestThrottler)::getQueueSize;
     } else if (requestThrottler instanceof RateLimitingRequestThrottler) {
       return ((RateLimitingRequestThrottler) requestThrottler)::getQueueSize;
+    } else if (requestThrottler instanceof AdaptiveConcurrencyLimitingRequestThrottler) {
+      return ((AdaptiveConcurrencyLimitingRequestThrottler) requestThrottler)::getQueueSize;
     } else {
       LOG.warn(
           "[{}] Metric {} does not support {}, it will always return 0",
@@ -22,6 +22,8 @@ import com.datastax.oss.driver.api.core.UnsupportedProtocolVersionException;
 import com.datastax.oss.driver.api.core.auth.AuthenticationException;
 import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
 import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.config.DriverOption;
 import com.datastax.oss.driver.api.core.connection.ReconnectionPolicy;
 import com.datastax.oss.driver.api.core.loadbalancing.NodeDistance;
 import com.datastax.oss.driver.api.core.metadata.Node;
@@ -47,12 +49,15 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import net.jcip.annotations.ThreadSafe;
 import org.slf4j.Logger;
@@ -89,7 +94,7 @@ public class ChannelPool implements AsyncAutoCloseable {
   }
 
   // This is read concurrently, but only mutated on adminExecutor (by methods in SingleThreaded)
-  @VisibleForTesting final ChannelSet channels = new ChannelSet();
+  @VisibleForTesting final ChannelSet channels;
 
   private final Node node;
   private final CqlIdentifier initialKeyspaceName;
@@ -110,9 +115,32 @@ public class ChannelPool implements AsyncAutoCloseable {
     this.adminExecutor = context.getNettyOptions().adminEventExecutorGroup().next();
     this.sessionLogPrefix = sessionLogPrefix;
     this.logPrefix = sessionLogPrefix + "|" + node.getEndPoint();
+    this.channels =
+        new ChannelSet(
+            usePowerOfTwoChoices(context),
+            context
+                .getConfig()
+                .getDefaultProfile()
+                .getBoolean(DefaultDriverOption.CONNECTION_POOL_EVENT_LOOP_AFFINITY));
     this.singleThreaded = new SingleThreaded(keyspaceName, distance, context);
   }
 
+  private static boolean usePowerOfTwoChoices(InternalDriverContext context) {
+    DriverExecutionProfile config = context.getConfig().getDefaultProfile();
+    if (config.isDefined(DefaultDriverOption.CONNECTION_POOL_CHANNEL_SELECTION)) {
+      String name = config.getString(DefaultDriverOption.CONNECTION_POOL_CHANNEL_SELECTION);
+      if (name.equalsIgnoreCase("power-of-two-choices")) {
+        return true;
+      } else if (!name.equalsIgnoreCase("most-available")) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Unsupported channel selection '%s' (from configuration option %s)",
+                name, DefaultDriverOption.CONNECTION_POOL_CHANNEL_SELECTION.getPath()));
+      }
+    }
+    return false;
+  }
+
   private CompletionStage<ChannelPool> connect() {
     RunOrSchedule.on(adminExecutor, singleThreaded::connect);
     return singleThreaded.connectFuture;
@@ -186,6 +214,15 @@ public class ChannelPool implements AsyncAutoCloseable {
     RunOrSchedule.on(adminExecutor, () -> singleThreaded.resize(newDistance));
   }
 
+  /**
+   * Checks the utilization of the pool's channels, and grows or shrinks it if adaptive sizing is
+   * enabled. This is normally scheduled periodically, it is exposed for tests.
+   */
+  @VisibleForTesting
+  void checkUtilization() {
+    RunOrSchedule.on(adminExecutor, singleThreaded::checkUtilization);
+  }
+
   /**
    * Changes the keyspace name on all the channels in this pool.
    *
@@ -232,6 +269,9 @@ public class ChannelPool implements AsyncAutoCloseable {
     private final Set<DriverChannel> closingChannels = new HashSet<>();
     private final Reconnection reconnection;
     private final Object configListenerKey;
+    // Only if adaptive sizing is enabled
+    private final ScheduledFuture<?> utilizationCheck;
+    private int lowUtilizationChecks;
 
     private NodeDistance distance;
     private int wantedCount;
@@ -263,6 +303,16 @@ public class ChannelPool implements AsyncAutoCloseable {
       this.configListenerKey =
           eventBus.register(
               ConfigChangeEvent.class, RunOrSchedule.on(adminExecutor, this::onConfigChanged));
+      // Always schedule the check, even if adaptive sizing is disabled: max-size can be set at
+      // runtime (the check returns immediately if it's not)
+      long intervalNanos =
+          config
+              .getDefaultProfile()
+              .getDuration(DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_INTERVAL)
+              .toNanos();
+      this.utilizationCheck =
+          adminExecutor.scheduleAtFixedRate(
+              this::checkUtilization, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
     }
 
     private void connect() {
@@ -431,8 +481,14 @@ public class ChannelPool implements AsyncAutoCloseable {
 
     private void resize(NodeDistance newDistance) {
       assert adminExecutor.inEventLoop();
-      distance = newDistance;
       int newChannelCount = getConfiguredSize(newDistance);
+      if (newDistance == distance) {
+        // If adaptive sizing grew the pool, keep as many channels as the bounds allow
+        newChannelCount =
+            Math.max(newChannelCount, Math.min(wantedCount, getConfiguredMaxSize(newDistance)));
+      }
+      distance = newDistance;
+      lowUtilizationChecks = 0;
       if (newChannelCount > wantedCount) {
         LOG.debug("[{}] Growing ({} => {} channels)", logPrefix, wantedCount, newChannelCount);
         wantedCount = newChannelCount;
@@ -466,6 +522,60 @@ public class ChannelPool implements AsyncAutoCloseable {
       }
     }
 
+    private void checkUtilization() {
+      assert adminExecutor.inEventLoop();
+      if (isClosing || reconnection.isRunning()) {
+        // Utilization is not meaningful until the pool has all the channels it wants
+        return;
+      }
+      int minCount = getConfiguredSize(distance);
+      int maxCount = getConfiguredMaxSize(distance);
+      int inFlight = channels.getInFlight();
+      int capacity = inFlight + channels.getAvailableIds();
+      if (maxCount <= minCount || capacity == 0) {
+        return;
+      }
+      double utilization = (double) inFlight / capacity;
+      DriverExecutionProfile defaultConfig = config.getDefaultProfile();
+      if (utilization
+              > defaultConfig.getDouble(DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_GROW_THRESHOLD)
+          && wantedCount < maxCount) {
+        LOG.debug(
+            "[{}] Utilization is {}, growing ({} => {} channels)",
+            logPrefix,
+            utilization,
+            wantedCount,
+            wantedCount + 1);
+        wantedCount += 1;
+        lowUtilizationChecks = 0;
+        reconnection.start();
+      } else if (utilization
+              < defaultConfig.getDouble(
+                  DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_SHRINK_THRESHOLD)
+          && wantedCount > minCount) {
+        // Shrink more conservatively than we grow, closing a channel and reopening it shortly
+        // after is expensive
+        Duration shrinkDelay =
+            defaultConfig.getDuration(DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_SHRINK_DELAY);
+        Duration interval =
+            defaultConfig.getDuration(DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_INTERVAL);
+        lowUtilizationChecks += 1;
+        if (lowUtilizationChecks * interval.toNanos() >= shrinkDelay.toNanos()) {
+          LOG.debug(
+              "[{}] Utilization is {}, shrinking ({} => {} channels)",
+              logPrefix,
+              utilization,
+              wantedCount,
+              wantedCount - 1);
+          wantedCount -= 1;
+          lowUtilizationChecks = 0;
+          shrinkIfTooManyChannels();
+        }
+      } else {
+        lowUtilizationChecks = 0;
+      }
+    }
+
     private void onConfigChanged(@SuppressWarnings("unused") ConfigChangeEvent event) {
       assert adminExecutor.inEventLoop();
       // resize re-reads the pool size from the configuration and does nothing if it hasn't changed,
@@ -530,6 +640,7 @@ public class ChannelPool implements AsyncAutoCloseable {
       // If an attempt was in progress right now, it might open new channels but they will be
       // handled in onAllConnected
       reconnection.stop();
+      utilizationCheck.cancel(false);
 
       eventBus.unregister(configListenerKey, ConfigChangeEvent.class);
 
@@ -580,5 +691,17 @@ public class ChannelPool implements AsyncAutoCloseable {
                   ? DefaultDriverOption.CONNECTION_POOL_LOCAL_SIZE
                   : DefaultDriverOption.CONNECTION_POOL_REMOTE_SIZE);
     }
+
+    /** @return the maximum size for adaptive sizing (if it's not enabled, the configured size). */
+    private int getConfiguredMaxSize(NodeDistance distance) {
+      DriverOption option =
+          (distance == NodeDistance.LOCAL)
+              ? DefaultDriverOption.CONNECTION_POOL_LOCAL_MAX_SIZE
+              : DefaultDriverOption.CONNECTION_POOL_REMOTE_MAX_SIZE;
+      DriverExecutionProfile defaultConfig = config.getDefaultProfile();
+      return defaultConfig.isDefined(option)
+          ? defaultConfig.getInt(option)
+          : getConfiguredSize(distance);
+    }
   }
 }
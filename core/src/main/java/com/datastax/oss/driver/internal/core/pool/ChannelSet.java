@@ -19,8 +19,10 @@ import com.datastax.oss.driver.internal.core.channel.DriverChannel;
 import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
 import com.datastax.oss.driver.shaded.guava.common.collect.Iterators;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import io.netty.util.concurrent.FastThreadLocalThread;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.locks.ReentrantLock;
 import net.jcip.annotations.ThreadSafe;
 
@@ -34,9 +36,23 @@ import net.jcip.annotations.ThreadSafe;
 class ChannelSet implements Iterable<DriverChannel> {
   private volatile DriverChannel[] channels;
   private final ReentrantLock lock = new ReentrantLock(); // must be held when mutating the array
+  private final boolean powerOfTwoChoices;
+  private final boolean eventLoopAffinity;
 
   ChannelSet() {
+    this(false, false);
+  }
+
+  /**
+   * @param powerOfTwoChoices whether {@link #next()} should compare two random channels, instead of
+   *     scanning all of them to find the one with the most available ids.
+   * @param eventLoopAffinity whether {@link #next()} should prefer the channels whose event loop is
+   *     the calling thread, if there are any with available ids.
+   */
+  ChannelSet(boolean powerOfTwoChoices, boolean eventLoopAffinity) {
     this.channels = new DriverChannel[] {};
+    this.powerOfTwoChoices = powerOfTwoChoices;
+    this.eventLoopAffinity = eventLoopAffinity;
   }
 
   void add(DriverChannel toAdd) {
@@ -79,23 +95,66 @@ class ChannelSet implements Iterable<DriverChannel> {
   /** @return null if the set is empty or all are full */
   DriverChannel next() {
     DriverChannel[] snapshot = this.channels;
-    switch (snapshot.length) {
-      case 0:
-        return null;
-      case 1:
-        return snapshot[0];
-      default:
-        DriverChannel best = null;
-        int bestScore = 0;
-        for (DriverChannel channel : snapshot) {
-          int score = channel.getAvailableIds();
-          if (score > bestScore) {
-            bestScore = score;
-            best = channel;
-          }
+    if (snapshot.length == 0) {
+      return null;
+    } else if (snapshot.length == 1) {
+      return snapshot[0];
+    }
+    // Event loop threads are FastThreadLocalThreads (driver threads are created by
+    // SafeThreadFactory, and Netty's own factory does the same). Checking this first is cheap, and
+    // avoids scanning all the channels for calls from application threads, which never match.
+    if (eventLoopAffinity && Thread.currentThread() instanceof FastThreadLocalThread) {
+      // If we're already on the event loop of some channels, use them in priority: the write and
+      // the response will be processed without any handoff to another thread.
+      DriverChannel local = mostAvailableOnCurrentEventLoop(snapshot);
+      if (local != null) {
+        return local;
+      }
+    }
+    // With two channels, comparing two random channels would be the same as a scan
+    if (powerOfTwoChoices && snapshot.length > 2) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int i1 = random.nextInt(snapshot.length);
+      int i2 = random.nextInt(snapshot.length - 1);
+      if (i2 >= i1) {
+        i2 += 1;
+      }
+      DriverChannel channel1 = snapshot[i1], channel2 = snapshot[i2];
+      int score1 = channel1.getAvailableIds(), score2 = channel2.getAvailableIds();
+      if (score1 > 0 || score2 > 0) {
+        return (score1 >= score2) ? channel1 : channel2;
+      }
+      // Both are full, we can only return null if all the others are too
+    }
+    return mostAvailable(snapshot);
+  }
+
+  private static DriverChannel mostAvailableOnCurrentEventLoop(DriverChannel[] snapshot) {
+    DriverChannel best = null;
+    int bestScore = 0;
+    for (DriverChannel channel : snapshot) {
+      if (channel.eventLoop().inEventLoop()) {
+        int score = channel.getAvailableIds();
+        if (score > bestScore) {
+          bestScore = score;
+          best = channel;
         }
-        return best;
+      }
+    }
+    return best;
+  }
+
+  private static DriverChannel mostAvailable(DriverChannel[] snapshot) {
+    DriverChannel best = null;
+    int bestScore = 0;
+    for (DriverChannel channel : snapshot) {
+      int score = channel.getAvailableIds();
+      if (score > bestScore) {
+        bestScore = score;
+        best = channel;
+      }
     }
+    return best;
   }
 
   /** @return the number of available stream ids on all channels in this channel set. */
@@ -0,0 +1,66 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import io.netty.buffer.ByteBuf;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/** The checksums used by protocol v5 segments. */
+class Crc {
+
+  private static final int CRC24_INIT = 0x875060;
+  private static final int CRC24_POLY = 0x1974F0B;
+
+  // The payload CRC32 is seeded with these bytes, so that an all-zero payload does not have a
+  // zero checksum
+  private static final byte[] CRC32_INITIAL_BYTES = {
+    (byte) 0xFA, (byte) 0x2D, (byte) 0x55, (byte) 0xCA
+  };
+
+  /**
+   * Computes the CRC24 of the {@code length} lowest bytes of {@code bytes}, starting from the least
+   * significant one (segment headers are little-endian).
+   */
+  static int computeCrc24(long bytes, int length) {
+    int crc = CRC24_INIT;
+    for (int i = 0; i < length; i++) {
+      crc ^= (int) (bytes & 0xFF) << 16;
+      bytes >>= 8;
+      for (int j = 0; j < 8; j++) {
+        crc <<= 1;
+        if ((crc & 0x1000000) != 0) {
+          crc ^= CRC24_POLY;
+        }
+      }
+    }
+    return crc;
+  }
+
+  /**
+   * Computes the CRC32 of the readable bytes of a buffer, without modifying its indices.
+   *
+   * @param crc32 an instance to reuse; it will be reset.
+   */
+  static int computeCrc32(ByteBuf buffer, CRC32 crc32) {
+    crc32.reset();
+    crc32.update(CRC32_INITIAL_BYTES);
+    for (ByteBuffer nioBuffer : buffer.nioBuffers(buffer.readerIndex(), buffer.readableBytes())) {
+      crc32.update(nioBuffer);
+    }
+    return (int) crc32.getValue();
+  }
+}
@@ -16,31 +16,67 @@
 package com.datastax.oss.driver.internal.core.protocol;
 
 import com.datastax.oss.driver.api.core.connection.FrameTooLongException;
+import com.datastax.oss.driver.api.core.metrics.DefaultNodeMetric;
+import com.datastax.oss.driver.internal.core.metrics.NodeMetricUpdater;
+import com.datastax.oss.protocol.internal.Compressor;
 import com.datastax.oss.protocol.internal.Frame;
 import com.datastax.oss.protocol.internal.FrameCodec;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import net.jcip.annotations.ThreadSafe;
 
 @ChannelHandler.Sharable
 @ThreadSafe
 public class FrameEncoder extends MessageToMessageEncoder<Frame> {
 
+  // Offsets in the frame header (protocol v3 and above)
+  private static final int FLAGS_OFFSET = 1;
+  private static final int LENGTH_OFFSET = 5;
+
   private final FrameCodec<ByteBuf> frameCodec;
   private final int maxFrameLength;
+  private final Compressor<ByteBuf> compressor;
+  private final int compressionThreshold;
+  private final NodeMetricUpdater metricUpdater;
 
   public FrameEncoder(FrameCodec<ByteBuf> frameCodec, int maxFrameLength) {
+    this(frameCodec, maxFrameLength, null, 0, null);
+  }
+
+  /**
+   * Builds an encoder that compresses frames itself, instead of delegating to the frame codec. This
+   * allows it to skip small frames, and to record metrics.
+   *
+   * @param frameCodec a codec that does not compress frames.
+   * @param compressor the compressor negotiated with the server.
+   * @param compressionThreshold the minimum size of a frame body to compress it.
+   * @param metricUpdater where to record the compression ratio and time.
+   */
+  public FrameEncoder(
+      FrameCodec<ByteBuf> frameCodec,
+      int maxFrameLength,
+      Compressor<ByteBuf> compressor,
+      int compressionThreshold,
+      NodeMetricUpdater metricUpdater) {
     super(Frame.class);
     this.frameCodec = frameCodec;
     this.maxFrameLength = maxFrameLength;
+    this.compressor = compressor;
+    this.compressionThreshold = compressionThreshold;
+    this.metricUpdater = metricUpdater;
   }
 
   @Override
   protected void encode(ChannelHandlerContext ctx, Frame frame, List<Object> out) throws Exception {
     ByteBuf buffer = frameCodec.encode(frame);
+    if (compressor != null && frame.message.opcode != ProtocolConstants.Opcode.STARTUP) {
+      buffer = compress(buffer);
+    }
     int actualLength = buffer.readableBytes();
     if (actualLength > maxFrameLength) {
       throw new FrameTooLongException(
@@ -49,4 +85,46 @@ public class FrameEncoder extends MessageToMessageEncoder<Frame> {
     }
     out.add(buffer);
   }
+
+  private ByteBuf compress(ByteBuf frame) {
+    int headerLength = FrameCodec.headerEncodedSize();
+    int bodyLength = frame.readableBytes() - headerLength;
+    if (bodyLength < compressionThreshold) {
+      return frame;
+    }
+    long start = System.nanoTime();
+    ByteBuf body = frame.slice(frame.readerIndex() + headerLength, bodyLength);
+    ByteBuf compressedBody;
+    try {
+      compressedBody = compressor.compress(body);
+    } catch (Throwable t) {
+      frame.release();
+      throw t;
+    }
+    int compressedLength = compressedBody.readableBytes();
+    metricUpdater.updateTimer(
+        DefaultNodeMetric.COMPRESSION_TIME, null, System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    metricUpdater.updateHistogram(
+        DefaultNodeMetric.COMPRESSION_RATIO,
+        null,
+        (bodyLength == 0) ? 100 : compressedLength * 100L / bodyLength);
+    if (compressedLength >= bodyLength) {
+      // Incompressible data, the server accepts uncompressed frames at any time
+      compressedBody.release();
+      return frame;
+    }
+
+    int headerIndex = frame.readerIndex();
+    frame.setByte(
+        headerIndex + FLAGS_OFFSET,
+        frame.getByte(headerIndex + FLAGS_OFFSET) | ProtocolConstants.FrameFlag.COMPRESSED);
+    frame.setInt(headerIndex + LENGTH_OFFSET, compressedLength);
+    ByteBuf result =
+        frame
+            .alloc()
+            .compositeBuffer(2)
+            .addComponents(true, frame.retainedSlice(headerIndex, headerLength), compressedBody);
+    frame.release();
+    return result;
+  }
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import com.datastax.oss.protocol.internal.Message;
+import com.datastax.oss.protocol.internal.PrimitiveCodec;
+import com.datastax.oss.protocol.internal.PrimitiveSizes;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.Result;
+import com.datastax.oss.protocol.internal.response.result.DefaultRows;
+import com.datastax.oss.protocol.internal.response.result.Rows;
+import com.datastax.oss.protocol.internal.response.result.RowsMetadata;
+import io.netty.buffer.ByteBuf;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.RandomAccess;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * A page of rows that keeps its contents in the serialized form, and only locates the cells of a
+ * row when that row is consumed.
+ *
+ * <p>The default decoder allocates a byte array and a {@link ByteBuffer} for every cell as soon as
+ * the frame is read. Instead, this implementation copies the whole rows section of the frame in a
+ * single array. Polling a row from {@link #getData()} computes the offsets of its cells, and the
+ * buffers are only created when a cell is actually read. Row lists are views over the shared array,
+ * so they remain valid after the page has been consumed.
+ *
+ * <p>The flip side is that a row keeps the whole page in memory, as long as it is referenced.
+ */
+public class LazyRows extends Rows {
+
+  private final RowsMetadata metadata;
+  private final RowQueue data;
+
+  public LazyRows(RowsMetadata metadata, int rowCount, byte[] rowBytes) {
+    this.metadata = metadata;
+    this.data = new RowQueue(rowBytes, rowCount, metadata.columnCount);
+  }
+
+  @Override
+  public RowsMetadata getMetadata() {
+    return metadata;
+  }
+
+  @Override
+  public Queue<List<ByteBuffer>> getData() {
+    return data;
+  }
+
+  @Override
+  public String toString() {
+    return "ROWS(" + data.size() + " x " + metadata.columnCount + " columns)";
+  }
+
+  public static class SubCodec extends Result.SubCodec {
+
+    public SubCodec(int protocolVersion) {
+      super(ProtocolConstants.ResultKind.ROWS, protocolVersion);
+    }
+
+    @Override
+    public <B> void encode(B dest, Message message, PrimitiveCodec<B> encoder) {
+      Rows rows = (Rows) message;
+      rows.getMetadata().encode(dest, encoder, false, protocolVersion);
+      encoder.writeInt(rows.getData().size(), dest);
+      for (List<ByteBuffer> row : rows.getData()) {
+        for (ByteBuffer column : row) {
+          encoder.writeBytes(column, dest);
+        }
+      }
+    }
+
+    @Override
+    public int encodedSize(Message message) {
+      Rows rows = (Rows) message;
+      int size = rows.getMetadata().encodedSize(false, protocolVersion) + PrimitiveSizes.INT;
+      for (List<ByteBuffer> row : rows.getData()) {
+        for (ByteBuffer column : row) {
+          size += PrimitiveSizes.sizeOfBytes(column);
+        }
+      }
+      return size;
+    }
+
+    @Override
+    public <B> Message decode(B source, PrimitiveCodec<B> decoder) {
+      RowsMetadata metadata = RowsMetadata.decode(source, decoder, false, protocolVersion);
+      int rowCount = decoder.readInt(source);
+      if (source instanceof ByteBuf) {
+        ByteBuf buffer = (ByteBuf) source;
+        // Walk the length prefixes to find where the rows end, then copy them in one go
+        int start = buffer.readerIndex();
+        int end = start;
+        int cellCount = rowCount * metadata.columnCount;
+        for (int i = 0; i < cellCount; i++) {
+          int length = buffer.getInt(end);
+          end += PrimitiveSizes.INT + Math.max(length, 0);
+        }
+        byte[] rowBytes = new byte[end - start];
+        buffer.readBytes(rowBytes);
+        return new LazyRows(metadata, rowCount, rowBytes);
+      } else {
+        Queue<List<ByteBuffer>> data = new ArrayDeque<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+          List<ByteBuffer> row = new ArrayList<>(metadata.columnCount);
+          for (int j = 0; j < metadata.columnCount; j++) {
+            row.add(decoder.readBytes(source));
+          }
+          data.add(row);
+        }
+        return new DefaultRows(metadata, data);
+      }
+    }
+  }
+
+  /**
+   * Rows are parsed as they are polled. Like the default implementation, this queue is consumed by
+   * a single thread.
+   */
+  @NotThreadSafe
+  private static class RowQueue extends AbstractQueue<List<ByteBuffer>> {
+
+    private final byte[] bytes;
+    private final int columnCount;
+    private int remaining;
+    private int position;
+
+    private RowQueue(byte[] bytes, int rowCount, int columnCount) {
+      this.bytes = bytes;
+      this.remaining = rowCount;
+      this.columnCount = columnCount;
+    }
+
+    @Override
+    public int size() {
+      return remaining;
+    }
+
+    @Override
+    public boolean offer(List<ByteBuffer> row) {
+      throw new UnsupportedOperationException("Decoded pages are read-only");
+    }
+
+    @Override
+    public List<ByteBuffer> poll() {
+      if (remaining == 0) {
+        return null;
+      }
+      LazyRow row = new LazyRow(bytes, position, columnCount);
+      position = row.end;
+      remaining -= 1;
+      return row;
+    }
+
+    @Override
+    public List<ByteBuffer> peek() {
+      return (remaining == 0) ? null : new LazyRow(bytes, position, columnCount);
+    }
+
+    @Override
+    public Iterator<List<ByteBuffer>> iterator() {
+      return new Iterator<List<ByteBuffer>>() {
+        private int iteratorRemaining = remaining;
+        private int iteratorPosition = position;
+
+        @Override
+        public boolean hasNext() {
+          return iteratorRemaining > 0;
+        }
+
+        @Override
+        public List<ByteBuffer> next() {
+          if (iteratorRemaining == 0) {
+            throw new NoSuchElementException();
+          }
+          LazyRow row = new LazyRow(bytes, iteratorPosition, columnCount);
+          iteratorPosition = row.end;
+          iteratorRemaining -= 1;
+          return row;
+        }
+      };
+    }
+  }
+
+  private static class LazyRow extends AbstractList<ByteBuffer> implements RandomAccess {
+
+    private final byte[] bytes;
+    // The position of each cell's length prefix
+    private final int[] offsets;
+    // The buffer of each cell, created the first time it is read
+    private final ByteBuffer[] cells;
+    private final int end;
+
+    private LazyRow(byte[] bytes, int start, int columnCount) {
+      this.bytes = bytes;
+      this.offsets = new int[columnCount];
+      this.cells = new ByteBuffer[columnCount];
+      int position = start;
+      for (int i = 0; i < columnCount; i++) {
+        offsets[i] = position;
+        position += PrimitiveSizes.INT + Math.max(readInt(bytes, position), 0);
+      }
+      this.end = position;
+    }
+
+    @Override
+    public ByteBuffer get(int index) {
+      ByteBuffer cell = cells[index];
+      if (cell == null) {
+        int offset = offsets[index];
+        int length = readInt(bytes, offset);
+        if (length >= 0) {
+          cell = ByteBuffer.wrap(bytes, offset + PrimitiveSizes.INT, length).slice();
+          cells[index] = cell;
+        }
+      }
+      return cell;
+    }
+
+    @Override
+    public int size() {
+      return offsets.length;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+      return ((bytes[offset] & 0xFF) << 24)
+          | ((bytes[offset + 1] & 0xFF) << 16)
+          | ((bytes[offset + 2] & 0xFF) << 8)
+          | (bytes[offset + 3] & 0xFF);
+    }
+  }
+}
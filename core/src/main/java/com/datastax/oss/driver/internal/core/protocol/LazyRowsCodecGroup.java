@@ -0,0 +1,84 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import com.datastax.oss.protocol.internal.FrameCodec;
+import com.datastax.oss.protocol.internal.Message;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.Result;
+import com.datastax.oss.protocol.internal.response.result.Prepared;
+import com.datastax.oss.protocol.internal.response.result.SchemaChange;
+import com.datastax.oss.protocol.internal.response.result.SetKeyspace;
+import com.datastax.oss.protocol.internal.response.result.Void;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Wraps the codecs of a protocol version, in order to decode {@code ROWS} results as {@link
+ * LazyRows}.
+ *
+ * <p>All the other codecs are registered unchanged.
+ */
+@ThreadSafe
+public class LazyRowsCodecGroup implements FrameCodec.CodecGroup {
+
+  private final FrameCodec.CodecGroup delegate;
+
+  public LazyRowsCodecGroup(FrameCodec.CodecGroup delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void registerCodecs(Registry registry) {
+    delegate.registerCodecs(
+        new Registry() {
+          @Override
+          public Registry addCodec(Message.Codec codec) {
+            if (codec.opcode == ProtocolConstants.Opcode.RESULT) {
+              registry.addEncoder(codec);
+              registry.addDecoder(newResultCodec(codec.protocolVersion));
+            } else {
+              registry.addCodec(codec);
+            }
+            return this;
+          }
+
+          @Override
+          public Registry addEncoder(Message.Codec codec) {
+            registry.addEncoder(codec);
+            return this;
+          }
+
+          @Override
+          public Registry addDecoder(Message.Codec codec) {
+            registry.addDecoder(
+                (codec.opcode == ProtocolConstants.Opcode.RESULT)
+                    ? newResultCodec(codec.protocolVersion)
+                    : codec);
+            return this;
+          }
+        });
+  }
+
+  private static Message.Codec newResultCodec(int protocolVersion) {
+    return new Result.Codec(
+        protocolVersion,
+        new Void.SubCodec(protocolVersion),
+        new LazyRows.SubCodec(protocolVersion),
+        new SetKeyspace.SubCodec(protocolVersion),
+        new Prepared.SubCodec(protocolVersion),
+        new SchemaChange.SubCodec(protocolVersion));
+  }
+}
@@ -53,6 +53,52 @@ public class Lz4Compressor extends ByteBufCompressor {
     return "lz4";
   }
 
+  /**
+   * Compresses the input into a raw LZ4 block, without the length prefix of {@link
+   * #compress(ByteBuf)}. This is the format of compressed protocol v5 segments.
+   */
+  public ByteBuf compressBlock(ByteBuf input) {
+    ByteBuffer in = inputNioBuffer(input);
+    ByteBuf output = input.alloc().buffer(compressor.maxCompressedLength(in.remaining()));
+    try {
+      ByteBuffer out = outputNioBuffer(output);
+      int written =
+          compressor.compress(
+              in, in.position(), in.remaining(), out, out.position(), out.remaining());
+      output.writerIndex(output.writerIndex() + written);
+    } catch (Exception e) {
+      output.release();
+      throw e;
+    }
+    // Increase reader index.
+    input.readerIndex(input.writerIndex());
+    return output;
+  }
+
+  /**
+   * Decompresses a raw LZ4 block, when the uncompressed length is known from another source (such
+   * as a protocol v5 segment header).
+   */
+  public ByteBuf decompressBlock(ByteBuf input, int uncompressedLength) {
+    ByteBuffer in = inputNioBuffer(input);
+    ByteBuf output = input.alloc().buffer(uncompressedLength);
+    try {
+      ByteBuffer out = outputNioBuffer(output);
+      int read =
+          decompressor.decompress(in, in.position(), out, out.position(), uncompressedLength);
+      if (read != in.remaining()) {
+        throw new IllegalArgumentException("Compressed lengths mismatch");
+      }
+      output.writerIndex(output.writerIndex() + uncompressedLength);
+    } catch (Exception e) {
+      output.release();
+      throw e;
+    }
+    // Increase reader index.
+    input.readerIndex(input.writerIndex());
+    return output;
+  }
+
   @Override
   protected ByteBuf compressDirect(ByteBuf input) {
     int maxCompressedLength = compressor.maxCompressedLength(input.readableBytes());
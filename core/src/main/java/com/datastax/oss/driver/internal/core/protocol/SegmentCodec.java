@@ -0,0 +1,188 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.CorruptedFrameException;
+import java.util.zip.CRC32;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Encodes and decodes the outer framing layer of protocol v5, where CQL frames are grouped in
+ * checksummed segments.
+ *
+ * <p>A segment is made of:
+ *
+ * <ul>
+ *   <li>a little-endian header: the payload length (17 bits), the uncompressed length (17 bits,
+ *       only if compression is enabled, 0 if this segment was not compressed), a "self-contained"
+ *       flag (1 bit), padding to the next byte, and the CRC24 of those bytes (3 bytes);
+ *   <li>the payload: either one or more complete frames (self-contained segment), or a part of a
+ *       frame that is too large to fit in a single segment;
+ *   <li>the CRC32 of the payload (4 bytes, little-endian).
+ * </ul>
+ *
+ * Compression, if enabled, is always LZ4, and applies to the payload as a whole.
+ *
+ * <p>Instances hold reusable state, they must be confined to a single channel.
+ */
+@NotThreadSafe
+public class SegmentCodec {
+
+  /** The maximum length of a segment's payload (uncompressed). */
+  public static final int MAX_PAYLOAD_LENGTH = (1 << 17) - 1;
+
+  static final int UNCOMPRESSED_HEADER_LENGTH = 6;
+  static final int COMPRESSED_HEADER_LENGTH = 8;
+  static final int CRC24_LENGTH = 3;
+  static final int CRC32_LENGTH = 4;
+
+  private static final int LENGTH_MASK = MAX_PAYLOAD_LENGTH;
+  private static final int LENGTH_BITS = 17;
+
+  private final Lz4Compressor compressor;
+  private final CRC32 crc32 = new CRC32();
+
+  /** @param compressor the compressor to use, or {@code null} to use uncompressed segments. */
+  public SegmentCodec(Lz4Compressor compressor) {
+    this.compressor = compressor;
+  }
+
+  public int headerLength() {
+    return (compressor == null) ? UNCOMPRESSED_HEADER_LENGTH : COMPRESSED_HEADER_LENGTH;
+  }
+
+  /**
+   * Encodes a segment. This takes ownership of the payload: it will be released, or reused as part
+   * of the result (even if this method throws).
+   */
+  public ByteBuf encode(ByteBuf payload, boolean selfContained, ByteBufAllocator allocator) {
+    int uncompressedLength = payload.readableBytes();
+    assert uncompressedLength <= MAX_PAYLOAD_LENGTH;
+    long header;
+    if (compressor == null) {
+      header = uncompressedLength;
+      if (selfContained) {
+        header |= 1L << LENGTH_BITS;
+      }
+    } else {
+      ByteBuf compressed;
+      try {
+        compressed = compressor.compressBlock(payload.duplicate());
+      } catch (Throwable t) {
+        payload.release();
+        throw t;
+      }
+      if (compressed.readableBytes() < uncompressedLength) {
+        payload.release();
+        payload = compressed;
+        header = compressed.readableBytes() | ((long) uncompressedLength << LENGTH_BITS);
+      } else {
+        // An uncompressed length of 0 indicates that the payload was sent as-is
+        compressed.release();
+        header = uncompressedLength;
+      }
+      if (selfContained) {
+        header |= 1L << (2 * LENGTH_BITS);
+      }
+    }
+
+    int headerDataLength = headerLength() - CRC24_LENGTH;
+    ByteBuf headerBuffer = null;
+    try {
+      headerBuffer = allocator.buffer(headerLength());
+      writeLittleEndian(header, headerDataLength, headerBuffer);
+      writeLittleEndian(Crc.computeCrc24(header, headerDataLength), CRC24_LENGTH, headerBuffer);
+
+      ByteBuf trailer = allocator.buffer(CRC32_LENGTH);
+      trailer.writeIntLE(Crc.computeCrc32(payload, crc32));
+
+      return allocator.compositeBuffer(3).addComponents(true, headerBuffer, payload, trailer);
+    } catch (Throwable t) {
+      if (headerBuffer != null) {
+        headerBuffer.release();
+      }
+      payload.release();
+      throw t;
+    }
+  }
+
+  /**
+   * Decodes a segment header, checks its CRC, and returns the number of bytes that follow it (the
+   * payload and its CRC).
+   *
+   * @param buffer a buffer containing at least {@link #headerLength()} readable bytes. Its reader
+   *     index is not modified.
+   */
+  public int decodeRemainingLength(ByteBuf buffer) {
+    long header = checkHeader(buffer);
+    return (int) (header & LENGTH_MASK) + CRC32_LENGTH;
+  }
+
+  /**
+   * Decodes a full segment, checks its CRCs, and returns its payload (uncompressed if needed).
+   *
+   * @param buffer a buffer containing the whole segment. The reader index will be moved after it.
+   */
+  public ByteBuf decode(ByteBuf buffer) {
+    long header = checkHeader(buffer);
+    buffer.skipBytes(headerLength());
+    int payloadLength = (int) (header & LENGTH_MASK);
+    int uncompressedLength =
+        (compressor == null) ? 0 : (int) ((header >>> LENGTH_BITS) & LENGTH_MASK);
+
+    ByteBuf payload = buffer.readSlice(payloadLength);
+    int expectedCrc = buffer.readIntLE();
+    int actualCrc = Crc.computeCrc32(payload, crc32);
+    if (actualCrc != expectedCrc) {
+      throw new CorruptedFrameException(
+          String.format(
+              "Payload CRC mismatch in segment (expected %08x, got %08x)", expectedCrc, actualCrc));
+    }
+    return (uncompressedLength == 0)
+        ? payload.retain()
+        : compressor.decompressBlock(payload, uncompressedLength);
+  }
+
+  private long checkHeader(ByteBuf buffer) {
+    int headerDataLength = headerLength() - CRC24_LENGTH;
+    int index = buffer.readerIndex();
+    long header = readLittleEndian(buffer, index, headerDataLength);
+    int expectedCrc = (int) readLittleEndian(buffer, index + headerDataLength, CRC24_LENGTH);
+    int actualCrc = Crc.computeCrc24(header, headerDataLength);
+    if (actualCrc != expectedCrc) {
+      throw new CorruptedFrameException(
+          String.format(
+              "Header CRC mismatch in segment (expected %06x, got %06x)", expectedCrc, actualCrc));
+    }
+    return header;
+  }
+
+  private static void writeLittleEndian(long value, int length, ByteBuf buffer) {
+    for (int i = 0; i < length; i++) {
+      buffer.writeByte((int) (value >>> (8 * i)));
+    }
+  }
+
+  private static long readLittleEndian(ByteBuf buffer, int index, int length) {
+    long value = 0;
+    for (int i = 0; i < length; i++) {
+      value |= (buffer.getByte(index + i) & 0xFFL) << (8 * i);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import java.util.List;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Decodes protocol v5 segments, and emits their (uncompressed) payloads.
+ *
+ * <p>Payloads are passed as-is to the {@link FrameDecoder}, which already reassembles frames from
+ * arbitrary chunks of bytes. So frames that span multiple segments don't need any special handling
+ * here.
+ *
+ * <p>A checksum failure means that the stream can't be trusted anymore: this throws a {@link
+ * io.netty.handler.codec.CorruptedFrameException}, which will cause the connection to be closed.
+ */
+@NotThreadSafe
+public class SegmentDecoder extends ByteToMessageDecoder {
+
+  private final SegmentCodec segmentCodec;
+
+  // The length of the payload + CRC of the current segment, or -1 if its header is not decoded yet
+  private int remainingLength = -1;
+
+  public SegmentDecoder(SegmentCodec segmentCodec) {
+    this.segmentCodec = segmentCodec;
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+    int headerLength = segmentCodec.headerLength();
+    while (true) {
+      if (remainingLength < 0) {
+        if (in.readableBytes() < headerLength) {
+          return;
+        }
+        remainingLength = segmentCodec.decodeRemainingLength(in);
+      }
+      if (in.readableBytes() < headerLength + remainingLength) {
+        return;
+      }
+      remainingLength = -1;
+      out.add(segmentCodec.decode(in));
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import java.util.ArrayList;
+import java.util.List;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Groups encoded frames into protocol v5 segments.
+ *
+ * <p>Frames are accumulated until the channel is flushed, or until the next frame would not fit in
+ * the current segment. Therefore, when requests are written in batches (see {@code
+ * WriteCoalescer}), a single segment -- with a single checksum, and compressed as a whole -- is
+ * sent for the whole batch. Frames that are larger than the maximum payload length are split across
+ * multiple segments.
+ *
+ * <p>This handler must be placed between the {@link FrameEncoder} and the network, and the frame
+ * encoder must not compress frames itself.
+ */
+@NotThreadSafe
+public class SegmentEncoder extends ChannelOutboundHandlerAdapter {
+
+  private final SegmentCodec segmentCodec;
+
+  private final List<ByteBuf> pendingFrames = new ArrayList<>();
+  private final List<ChannelPromise> pendingPromises = new ArrayList<>();
+  private int pendingLength;
+
+  public SegmentEncoder(SegmentCodec segmentCodec) {
+    this.segmentCodec = segmentCodec;
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+      throws Exception {
+    if (!(msg instanceof ByteBuf)) {
+      ctx.write(msg, promise);
+      return;
+    }
+    ByteBuf frame = (ByteBuf) msg;
+    int frameLength = frame.readableBytes();
+    if (pendingLength + frameLength > SegmentCodec.MAX_PAYLOAD_LENGTH) {
+      writePendingFrames(ctx);
+    }
+    if (frameLength > SegmentCodec.MAX_PAYLOAD_LENGTH) {
+      writeLargeFrame(ctx, frame, promise);
+    } else {
+      pendingFrames.add(frame);
+      pendingPromises.add(promise);
+      pendingLength += frameLength;
+    }
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext ctx) throws Exception {
+    writePendingFrames(ctx);
+    ctx.flush();
+  }
+
+  @Override
+  public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+    releasePendingFrames(new IllegalStateException("Channel was closed before frame was sent"));
+    ctx.close(promise);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) {
+    releasePendingFrames(new IllegalStateException("Segment encoder was removed"));
+  }
+
+  private void writePendingFrames(ChannelHandlerContext ctx) {
+    int frameCount = pendingFrames.size();
+    if (frameCount == 0) {
+      return;
+    }
+    ByteBuf payload;
+    ChannelPromise segmentPromise;
+    if (frameCount == 1) {
+      payload = pendingFrames.get(0);
+      segmentPromise = pendingPromises.get(0);
+    } else {
+      CompositeByteBuf composite = ctx.alloc().compositeBuffer(frameCount);
+      composite.addComponents(true, pendingFrames);
+      payload = composite;
+      segmentPromise = ctx.newPromise();
+      segmentPromise.addListener(new PromiseNotifier(new ArrayList<>(pendingPromises)));
+    }
+    pendingFrames.clear();
+    pendingPromises.clear();
+    pendingLength = 0;
+    try {
+      ctx.write(segmentCodec.encode(payload, true, ctx.alloc()), segmentPromise);
+    } catch (Throwable t) {
+      segmentPromise.tryFailure(t);
+    }
+  }
+
+  private void writeLargeFrame(ChannelHandlerContext ctx, ByteBuf frame, ChannelPromise promise) {
+    boolean ownsFrame = true;
+    try {
+      while (frame.readableBytes() > SegmentCodec.MAX_PAYLOAD_LENGTH) {
+        ByteBuf slice = frame.readRetainedSlice(SegmentCodec.MAX_PAYLOAD_LENGTH);
+        // If this write fails, the channel is unusable, and the last one will fail as well
+        ctx.write(segmentCodec.encode(slice, false, ctx.alloc()), ctx.newPromise());
+      }
+      ownsFrame = false;
+      ctx.write(segmentCodec.encode(frame, false, ctx.alloc()), promise);
+    } catch (Throwable t) {
+      if (ownsFrame) {
+        frame.release();
+      }
+      promise.tryFailure(t);
+    }
+  }
+
+  private void releasePendingFrames(Throwable cause) {
+    for (ByteBuf frame : pendingFrames) {
+      frame.release();
+    }
+    for (ChannelPromise promise : pendingPromises) {
+      promise.tryFailure(cause);
+    }
+    pendingFrames.clear();
+    pendingPromises.clear();
+    pendingLength = 0;
+  }
+
+  /** Completes the promises of the individual frames when their segment has been written. */
+  private static class PromiseNotifier implements ChannelFutureListener {
+    private final List<ChannelPromise> promises;
+
+    private PromiseNotifier(List<ChannelPromise> promises) {
+      this.promises = promises;
+    }
+
+    @Override
+    public void operationComplete(ChannelFuture future) {
+      for (ChannelPromise promise : promises) {
+        if (future.isSuccess()) {
+          promise.trySuccess();
+        } else {
+          promise.tryFailure(future.cause());
+        }
+      }
+    }
+  }
+}
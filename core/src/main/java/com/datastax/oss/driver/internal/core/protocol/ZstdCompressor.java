@@ -0,0 +1,221 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+import io.netty.buffer.ByteBuf;
+import java.nio.ByteBuffer;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A compressor based on <a href="https://github.com/luben/zstd-jni">zstd-jni</a>.
+ *
+ * <p>Like {@link Lz4Compressor}, each compressed body is prefixed with its uncompressed length.
+ */
+@ThreadSafe
+public class ZstdCompressor extends ByteBufCompressor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ZstdCompressor.class);
+
+  public static final int DEFAULT_LEVEL = 3;
+
+  private final int level;
+
+  public ZstdCompressor(DriverContext context) {
+    this(context.getSessionName(), getLevel(context.getConfig().getDefaultProfile()));
+  }
+
+  public ZstdCompressor(String logPrefix, int level) {
+    this.level = level;
+    try {
+      // Force the initialization of the class, which loads the native library
+      Zstd.compressBound(0);
+    } catch (NoClassDefFoundError e) {
+      throw new IllegalStateException(
+          "Error initializing compressor, make sure that the zstd library "
+              + "(com.github.luben:zstd-jni) is in the classpath "
+              + "(the driver declares it as an optional dependency, "
+              + "so you need to declare it explicitly)",
+          e);
+    } catch (LinkageError e) {
+      // The class was found, but the native library couldn't be loaded
+      throw new IllegalStateException(
+          "Error initializing compressor, the zstd native library could not be loaded on this "
+              + "platform",
+          e);
+    }
+    LOG.info("[{}] Using zstd compression with level {}", logPrefix, level);
+  }
+
+  private static int getLevel(DriverExecutionProfile config) {
+    return config.isDefined(DefaultDriverOption.PROTOCOL_COMPRESSION_LEVEL)
+        ? config.getInt(DefaultDriverOption.PROTOCOL_COMPRESSION_LEVEL)
+        : DEFAULT_LEVEL;
+  }
+
+  @Override
+  public String algorithm() {
+    return "zstd";
+  }
+
+  @Override
+  protected ByteBuf compressDirect(ByteBuf input) {
+    int maxCompressedLength = (int) Zstd.compressBound(input.readableBytes());
+    ByteBuf output = input.alloc().directBuffer(4 + maxCompressedLength);
+    try {
+      ByteBuffer in = inputNioBuffer(input);
+      // Increase reader index.
+      input.readerIndex(input.writerIndex());
+
+      output.writeInt(in.remaining());
+
+      ByteBuffer out = outputNioBuffer(output);
+      long written;
+      try {
+        written =
+            Zstd.compressDirectByteBuffer(
+                out, out.position(), out.remaining(), in, in.position(), in.remaining(), level);
+      } catch (ZstdException e) {
+        throw zstdError(e.getMessage(), e);
+      }
+      // Set the writer index so the amount of written bytes is reflected
+      output.writerIndex(output.writerIndex() + checkResult(written));
+    } catch (Exception e) {
+      // release output buffer so we not leak and rethrow exception.
+      output.release();
+      throw e;
+    }
+    return output;
+  }
+
+  @Override
+  protected ByteBuf compressHeap(ByteBuf input) {
+    int maxCompressedLength = (int) Zstd.compressBound(input.readableBytes());
+
+    int inOffset = input.arrayOffset() + input.readerIndex();
+    byte[] in = input.array();
+    int len = input.readableBytes();
+    // Increase reader index.
+    input.readerIndex(input.writerIndex());
+
+    ByteBuf output = input.alloc().heapBuffer(4 + maxCompressedLength);
+    try {
+      output.writeInt(len);
+      int offset = output.arrayOffset() + output.writerIndex();
+      byte[] out = output.array();
+      long written;
+      try {
+        written =
+            Zstd.compressByteArray(out, offset, output.writableBytes(), in, inOffset, len, level);
+      } catch (ZstdException e) {
+        throw zstdError(e.getMessage(), e);
+      }
+      // Set the writer index so the amount of written bytes is reflected
+      output.writerIndex(output.writerIndex() + checkResult(written));
+    } catch (Exception e) {
+      // release output buffer so we not leak and rethrow exception.
+      output.release();
+      throw e;
+    }
+    return output;
+  }
+
+  @Override
+  protected ByteBuf decompressDirect(ByteBuf input) {
+    int uncompressedLength = input.readInt();
+    ByteBuffer in = inputNioBuffer(input);
+    // Increase reader index.
+    input.readerIndex(input.writerIndex());
+    ByteBuf output = input.alloc().directBuffer(uncompressedLength);
+    try {
+      ByteBuffer out = outputNioBuffer(output);
+      long read;
+      try {
+        read =
+            Zstd.decompressDirectByteBuffer(
+                out, out.position(), uncompressedLength, in, in.position(), in.remaining());
+      } catch (ZstdException e) {
+        throw zstdError(e.getMessage(), e);
+      }
+      if (checkResult(read) != uncompressedLength) {
+        throw new IllegalArgumentException("Uncompressed lengths mismatch");
+      }
+
+      // Set the writer index so the amount of written bytes is reflected
+      output.writerIndex(output.writerIndex() + uncompressedLength);
+    } catch (Exception e) {
+      // release output buffer so we not leak and rethrow exception.
+      output.release();
+      throw e;
+    }
+    return output;
+  }
+
+  @Override
+  protected ByteBuf decompressHeap(ByteBuf input) {
+    byte[] in = input.array();
+    int uncompressedLength = input.readInt();
+    int inOffset = input.arrayOffset() + input.readerIndex();
+    int len = input.readableBytes();
+    // Increase reader index.
+    input.readerIndex(input.writerIndex());
+
+    ByteBuf output = input.alloc().heapBuffer(uncompressedLength);
+    try {
+      int offset = output.arrayOffset() + output.writerIndex();
+      byte[] out = output.array();
+      long read;
+      try {
+        read = Zstd.decompressByteArray(out, offset, uncompressedLength, in, inOffset, len);
+      } catch (ZstdException e) {
+        throw zstdError(e.getMessage(), e);
+      }
+      if (checkResult(read) != uncompressedLength) {
+        throw new IllegalArgumentException("Uncompressed lengths mismatch");
+      }
+
+      // Set the writer index so the amount of written bytes is reflected
+      output.writerIndex(output.writerIndex() + uncompressedLength);
+    } catch (Exception e) {
+      // release output buffer so we not leak and rethrow exception.
+      output.release();
+      throw e;
+    }
+    return output;
+  }
+
+  /**
+   * Zstd methods return either a size, or an error code that must be checked separately (recent
+   * versions of zstd-jni throw a {@link ZstdException} for some errors instead, the callers convert
+   * it with {@link #zstdError}).
+   */
+  private static int checkResult(long result) {
+    if (Zstd.isError(result)) {
+      throw zstdError(Zstd.getErrorName(result), null);
+    }
+    return (int) result;
+  }
+
+  private static IllegalArgumentException zstdError(String name, Throwable cause) {
+    return new IllegalArgumentException("Zstd error: " + name, cause);
+  }
+}
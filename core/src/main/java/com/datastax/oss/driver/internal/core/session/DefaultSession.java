@@ -28,6 +28,7 @@ import com.datastax.oss.driver.api.core.metadata.Node;
 import com.datastax.oss.driver.api.core.metadata.NodeState;
 import com.datastax.oss.driver.api.core.metrics.Metrics;
 import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.session.throttling.RequestThrottler;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.driver.internal.core.channel.DriverChannel;
 import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
@@ -42,6 +43,7 @@ import com.datastax.oss.driver.internal.core.util.Loggers;
 import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
 import com.datastax.oss.driver.internal.core.util.concurrent.RunOrSchedule;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
+import com.datastax.oss.driver.shaded.guava.common.collect.Sets;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import io.netty.util.concurrent.EventExecutor;
@@ -319,7 +321,7 @@ public class DefaultSession implements CqlSession {
         context.getNodeStateListener();
         context.getSchemaChangeListener();
         context.getRequestTracker();
-        context.getRequestThrottler();
+        context.getRequestThrottlers();
         context.getAuthProvider();
         context.getSslHandlerFactory();
         context.getTimestampGenerator();
@@ -543,7 +545,6 @@ public class DefaultSession implements CqlSession {
               context::getNodeStateListener,
               context::getSchemaChangeListener,
               context::getRequestTracker,
-              context::getRequestThrottler,
               context::getTimestampGenerator)) {
         try {
           policies.add(supplier.get());
@@ -571,6 +572,14 @@ public class DefaultSession implements CqlSession {
       } catch (Throwable t) {
         // ignore
       }
+      try {
+        // Profiles that don't override the throttler configuration share the same instance
+        Set<RequestThrottler> throttlers = Sets.newIdentityHashSet();
+        throttlers.addAll(context.getRequestThrottlers().values());
+        policies.addAll(throttlers);
+      } catch (Throwable t) {
+        // ignore
+      }
       policies.addAll(context.getLifecycleListeners());
 
       // Finally we have a list of all the policies that initialized successfully, close them:
@@ -0,0 +1,360 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.session.throttling;
+
+import com.datastax.oss.driver.api.core.AllNodesFailedException;
+import com.datastax.oss.driver.api.core.RequestThrottlingException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.session.throttling.RequestThrottler;
+import com.datastax.oss.driver.api.core.session.throttling.Throttled;
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A request throttler that limits the number of concurrent requests, and adjusts that limit
+ * dynamically based on how the cluster responds.
+ *
+ * <p>The limit follows an AIMD (additive increase, multiplicative decrease) scheme:
+ *
+ * <ul>
+ *   <li>every request that completes faster than the latency threshold, while the session is using
+ *       at least half of the current limit, increases the limit by one;
+ *   <li>a request that is slower than the threshold, times out, or fails because a coordinator was
+ *       overloaded ({@link OverloadedException}), multiplies the limit by the backoff ratio. This
+ *       happens at most once per latency threshold period, so that a single overload episode does
+ *       not collapse the limit.
+ * </ul>
+ *
+ * The limit always stays between {@code min-concurrent-requests} and {@code
+ * max-concurrent-requests}; it starts at the minimum. Like with {@link
+ * ConcurrencyLimitingRequestThrottler}, requests that exceed the limit are enqueued (up to {@code
+ * max-queue-size}), and dequeued in FIFO order when active requests complete.
+ *
+ * <p>To activate this throttler, modify the {@code advanced.throttler} section in the driver
+ * configuration, for example:
+ *
+ * <pre>
+ * datastax-java-driver {
+ *   advanced.throttler {
+ *     class = AdaptiveConcurrencyLimitingRequestThrottler
+ *     min-concurrent-requests = 10
+ *     max-concurrent-requests = 10000
+ *     max-queue-size = 10000
+ *     latency-threshold = 500 milliseconds
+ *     backoff-ratio = 0.9
+ *   }
+ * }
+ * </pre>
+ *
+ * See {@code reference.conf} (in the manual or core driver JAR) for more details.
+ */
+@ThreadSafe
+public class AdaptiveConcurrencyLimitingRequestThrottler implements RequestThrottler {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(AdaptiveConcurrencyLimitingRequestThrottler.class);
+
+  @VisibleForTesting static final int DEFAULT_MIN_CONCURRENT_REQUESTS = 10;
+  @VisibleForTesting static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofMillis(500);
+  @VisibleForTesting static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+  private final String logPrefix;
+  private final NanoClock clock;
+  private final int minConcurrentRequests;
+  private final int maxConcurrentRequests;
+  private final int maxQueueSize;
+  private final long latencyThresholdNanos;
+  private final double backoffRatio;
+
+  private final AtomicInteger limit;
+  private final AtomicLong lastDecreaseNanos;
+  private final AtomicInteger concurrentRequests = new AtomicInteger();
+  private final Deque<Throttled> queue = new ConcurrentLinkedDeque<>();
+  // ConcurrentLinkedDeque.size() is not a constant-time operation, so track the size separately.
+  private final AtomicInteger queueSize = new AtomicInteger();
+  private final ConcurrentMap<Throttled, Long> startTimes = new ConcurrentHashMap<>();
+  private volatile boolean closed;
+
+  public AdaptiveConcurrencyLimitingRequestThrottler(DriverContext context) {
+    this(context, System::nanoTime);
+  }
+
+  public AdaptiveConcurrencyLimitingRequestThrottler(DriverContext context, String profileName) {
+    this(
+        context.getSessionName() + "|" + profileName,
+        context.getConfig().getProfile(profileName),
+        System::nanoTime);
+  }
+
+  @VisibleForTesting
+  AdaptiveConcurrencyLimitingRequestThrottler(DriverContext context, NanoClock clock) {
+    this(context.getSessionName(), context.getConfig().getDefaultProfile(), clock);
+  }
+
+  private AdaptiveConcurrencyLimitingRequestThrottler(
+      String logPrefix, DriverExecutionProfile config, NanoClock clock) {
+    this.logPrefix = logPrefix;
+    this.clock = clock;
+    this.maxConcurrentRequests =
+        config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_CONCURRENT_REQUESTS);
+    this.minConcurrentRequests =
+        Math.min(
+            config.getInt(
+                DefaultDriverOption.REQUEST_THROTTLER_MIN_CONCURRENT_REQUESTS,
+                DEFAULT_MIN_CONCURRENT_REQUESTS),
+            maxConcurrentRequests);
+    this.maxQueueSize = config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_QUEUE_SIZE);
+    Duration latencyThreshold =
+        config.getDuration(
+            DefaultDriverOption.REQUEST_THROTTLER_LATENCY_THRESHOLD, DEFAULT_LATENCY_THRESHOLD);
+    this.latencyThresholdNanos = latencyThreshold.toNanos();
+    this.backoffRatio =
+        config.getDouble(
+            DefaultDriverOption.REQUEST_THROTTLER_BACKOFF_RATIO, DEFAULT_BACKOFF_RATIO);
+    if (backoffRatio <= 0 || backoffRatio >= 1) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid backoff ratio %s, must be strictly between 0 and 1 "
+                  + "(from configuration option %s)",
+              backoffRatio, DefaultDriverOption.REQUEST_THROTTLER_BACKOFF_RATIO.getPath()));
+    }
+
+    this.limit = new AtomicInteger(minConcurrentRequests);
+    // Allow a decrease right away
+    this.lastDecreaseNanos = new AtomicLong(clock.nanoTime() - latencyThresholdNanos);
+
+    LOG.debug(
+        "[{}] Initializing with minConcurrentRequests = {}, maxConcurrentRequests = {}, "
+            + "maxQueueSize = {}, latencyThreshold = {}, backoffRatio = {}",
+        logPrefix,
+        minConcurrentRequests,
+        maxConcurrentRequests,
+        maxQueueSize,
+        latencyThreshold,
+        backoffRatio);
+  }
+
+  @Override
+  public void register(@NonNull Throttled request) {
+    if (closed) {
+      LOG.trace("[{}] Rejecting request after shutdown", logPrefix);
+      fail(request, "The session is shutting down");
+    } else if (queueSize.get() == 0 && tryAcquire()) {
+      LOG.trace("[{}] Starting newly registered request", logPrefix);
+      start(request, false);
+    } else if (tryReserveQueueSlot()) {
+      LOG.trace("[{}] Enqueuing request", logPrefix);
+      queue.offer(request);
+      if (closed) {
+        // close() might have drained the queue before our insertion
+        if (queue.remove(request)) {
+          queueSize.decrementAndGet();
+          fail(request, "The session is shutting down");
+        }
+      } else {
+        // All active requests might have completed before our insertion, in which case nobody else
+        // would dequeue us
+        drain();
+      }
+    } else {
+      LOG.trace("[{}] Rejecting request because of full queue", logPrefix);
+      fail(
+          request,
+          String.format(
+              "The session has reached its maximum capacity "
+                  + "(concurrent requests: %d, queue size: %d)",
+              limit.get(), maxQueueSize));
+    }
+  }
+
+  @Override
+  public void signalSuccess(@NonNull Throttled request) {
+    Long startNanos = startTimes.remove(request);
+    if (startNanos != null) {
+      long now = clock.nanoTime();
+      if (now - startNanos > latencyThresholdNanos) {
+        decrease(now);
+      } else {
+        increase();
+      }
+    }
+    onRequestDone();
+  }
+
+  @Override
+  public void signalError(@NonNull Throttled request, @NonNull Throwable error) {
+    startTimes.remove(request);
+    if (isOverload(error)) {
+      decrease(clock.nanoTime());
+    }
+    // Other errors don't tell us anything about the load of the cluster
+    onRequestDone();
+  }
+
+  @Override
+  public void signalTimeout(@NonNull Throttled request) {
+    if (!closed) {
+      if (queue.remove(request)) { // The request timed out before it was active
+        LOG.trace("[{}] Removing timed out request from the queue", logPrefix);
+        queueSize.decrementAndGet();
+      } else {
+        startTimes.remove(request);
+        decrease(clock.nanoTime());
+        onRequestDone();
+      }
+    }
+  }
+
+  private void onRequestDone() {
+    if (!closed) {
+      // If the limit was decreased, don't hand our permit over until we're back under it
+      Throttled next = (concurrentRequests.get() <= limit.get()) ? queue.poll() : null;
+      if (next == null) {
+        concurrentRequests.decrementAndGet();
+      } else {
+        queueSize.decrementAndGet();
+        LOG.trace("[{}] Starting dequeued request", logPrefix);
+        start(next, true);
+        // don't touch concurrentRequests since we finished one but started another
+      }
+      // A request might have been enqueued concurrently, or the limit might have increased
+      drain();
+    }
+  }
+
+  /** Starts queued requests as long as there is capacity. */
+  private void drain() {
+    while (!closed && !queue.isEmpty() && tryAcquire()) {
+      Throttled next = queue.poll();
+      if (next == null) {
+        // Another thread dequeued it first, give the permit back and check again
+        concurrentRequests.decrementAndGet();
+      } else {
+        queueSize.decrementAndGet();
+        LOG.trace("[{}] Starting dequeued request", logPrefix);
+        start(next, true);
+      }
+    }
+  }
+
+  private void start(Throttled request, boolean wasDelayed) {
+    startTimes.put(request, clock.nanoTime());
+    request.onThrottleReady(wasDelayed);
+  }
+
+  private void increase() {
+    int current = limit.get();
+    // Only grow if we're actually using the current limit, otherwise successes under a light load
+    // would inflate it indefinitely
+    if (current < maxConcurrentRequests && concurrentRequests.get() * 2 >= current) {
+      // If this fails, another thread changed the limit concurrently, it's fine to skip
+      limit.compareAndSet(current, current + 1);
+    }
+  }
+
+  private void decrease(long now) {
+    long last = lastDecreaseNanos.get();
+    if (now - last >= latencyThresholdNanos && lastDecreaseNanos.compareAndSet(last, now)) {
+      int newLimit =
+          limit.updateAndGet(
+              current -> Math.max(minConcurrentRequests, (int) (current * backoffRatio)));
+      LOG.debug("[{}] Overload detected, decreasing concurrency limit to {}", logPrefix, newLimit);
+    }
+  }
+
+  private static boolean isOverload(Throwable error) {
+    if (error instanceof OverloadedException) {
+      return true;
+    } else if (error instanceof AllNodesFailedException) {
+      for (Throwable nodeError : ((AllNodesFailedException) error).getErrors().values()) {
+        if (nodeError instanceof OverloadedException) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean tryAcquire() {
+    while (true) {
+      int current = concurrentRequests.get();
+      if (current >= limit.get()) {
+        return false;
+      } else if (concurrentRequests.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private boolean tryReserveQueueSlot() {
+    while (true) {
+      int current = queueSize.get();
+      if (current >= maxQueueSize) {
+        return false;
+      } else if (queueSize.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    LOG.debug("[{}] Rejecting {} queued requests after shutdown", logPrefix, queueSize.get());
+    Throttled request;
+    while ((request = queue.poll()) != null) {
+      queueSize.decrementAndGet();
+      fail(request, "The session is shutting down");
+    }
+    startTimes.clear();
+  }
+
+  public int getQueueSize() {
+    return queueSize.get();
+  }
+
+  /** The current concurrency limit. */
+  public int getConcurrencyLimit() {
+    return limit.get();
+  }
+
+  @VisibleForTesting
+  int getConcurrentRequests() {
+    return concurrentRequests.get();
+  }
+
+  @VisibleForTesting
+  Deque<Throttled> getQueue() {
+    return queue;
+  }
+
+  private static void fail(Throttled request, String message) {
+    request.onThrottleFailure(new RequestThrottlingException(message));
+  }
+}
@@ -23,10 +23,9 @@ import com.datastax.oss.driver.api.core.session.throttling.RequestThrottler;
 import com.datastax.oss.driver.api.core.session.throttling.Throttled;
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.NonNull;
-import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.concurrent.locks.ReentrantLock;
-import net.jcip.annotations.GuardedBy;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.jcip.annotations.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +47,11 @@ import org.slf4j.LoggerFactory;
  * </pre>
  *
  * See {@code reference.conf} (in the manual or core driver JAR) for more details.
+ *
+ * <p>This class is lock-free: it is called by every client thread when a request starts, and by
+ * every event loop when a request completes, so a single lock would become a contention point under
+ * load. The permit count is maintained with atomic operations, and pending requests are stored in a
+ * concurrent FIFO queue.
  */
 @ThreadSafe
 public class ConcurrencyLimitingRequestThrottler implements RequestThrottler {
@@ -59,20 +63,24 @@ public class ConcurrencyLimitingRequestThrottler implements RequestThrottler {
   private final int maxConcurrentRequests;
   private final int maxQueueSize;
 
-  private final ReentrantLock lock = new ReentrantLock();
-
-  @GuardedBy("lock")
-  private int concurrentRequests;
+  private final AtomicInteger concurrentRequests = new AtomicInteger();
+  private final Deque<Throttled> queue = new ConcurrentLinkedDeque<>();
+  // ConcurrentLinkedDeque.size() is not a constant-time operation, so track the size separately.
+  // This is incremented before an element is added (to reserve a slot), and decremented after it
+  // is removed.
+  private final AtomicInteger queueSize = new AtomicInteger();
+  private volatile boolean closed;
 
-  @GuardedBy("lock")
-  private Deque<Throttled> queue = new ArrayDeque<>();
+  public ConcurrencyLimitingRequestThrottler(DriverContext context) {
+    this(context.getSessionName(), context.getConfig().getDefaultProfile());
+  }
 
-  @GuardedBy("lock")
-  private boolean closed;
+  public ConcurrencyLimitingRequestThrottler(DriverContext context, String profileName) {
+    this(context.getSessionName() + "|" + profileName, context.getConfig().getProfile(profileName));
+  }
 
-  public ConcurrencyLimitingRequestThrottler(DriverContext context) {
-    this.logPrefix = context.getSessionName();
-    DriverExecutionProfile config = context.getConfig().getDefaultProfile();
+  private ConcurrencyLimitingRequestThrottler(String logPrefix, DriverExecutionProfile config) {
+    this.logPrefix = logPrefix;
     this.maxConcurrentRequests =
         config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_CONCURRENT_REQUESTS);
     this.maxQueueSize = config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_QUEUE_SIZE);
@@ -85,41 +93,41 @@ public class ConcurrencyLimitingRequestThrottler implements RequestThrottler {
 
   @Override
   public void register(@NonNull Throttled request) {
-    lock.lock();
-    try {
+    if (closed) {
+      LOG.trace("[{}] Rejecting request after shutdown", logPrefix);
+      fail(request, "The session is shutting down");
+    } else if (queueSize.get() == 0 && tryAcquire()) {
+      // We have capacity for one more concurrent request
+      LOG.trace("[{}] Starting newly registered request", logPrefix);
+      request.onThrottleReady(false);
+    } else if (tryReserveQueueSlot()) {
+      LOG.trace("[{}] Enqueuing request", logPrefix);
+      queue.offer(request);
       if (closed) {
-        LOG.trace("[{}] Rejecting request after shutdown", logPrefix);
-        fail(request, "The session is shutting down");
-      } else if (queue.isEmpty() && concurrentRequests < maxConcurrentRequests) {
-        // We have capacity for one more concurrent request
-        LOG.trace("[{}] Starting newly registered request", logPrefix);
-        concurrentRequests += 1;
-        request.onThrottleReady(false);
-      } else if (queue.size() < maxQueueSize) {
-        LOG.trace("[{}] Enqueuing request", logPrefix);
-        queue.add(request);
+        // close() might have drained the queue before our insertion
+        if (queue.remove(request)) {
+          queueSize.decrementAndGet();
+          fail(request, "The session is shutting down");
+        }
       } else {
-        LOG.trace("[{}] Rejecting request because of full queue", logPrefix);
-        fail(
-            request,
-            String.format(
-                "The session has reached its maximum capacity "
-                    + "(concurrent requests: %d, queue size: %d)",
-                maxConcurrentRequests, maxQueueSize));
+        // All active requests might have completed before our insertion, in which case nobody else
+        // would dequeue us
+        drain();
       }
-    } finally {
-      lock.unlock();
+    } else {
+      LOG.trace("[{}] Rejecting request because of full queue", logPrefix);
+      fail(
+          request,
+          String.format(
+              "The session has reached its maximum capacity "
+                  + "(concurrent requests: %d, queue size: %d)",
+              maxConcurrentRequests, maxQueueSize));
     }
   }
 
   @Override
   public void signalSuccess(@NonNull Throttled request) {
-    lock.lock();
-    try {
-      onRequestDone();
-    } finally {
-      lock.unlock();
-    }
+    onRequestDone();
   }
 
   @Override
@@ -129,75 +137,92 @@ public class ConcurrencyLimitingRequestThrottler implements RequestThrottler {
 
   @Override
   public void signalTimeout(@NonNull Throttled request) {
-    lock.lock();
-    try {
-      if (!closed) {
-        if (queue.remove(request)) { // The request timed out before it was active
-          LOG.trace("[{}] Removing timed out request from the queue", logPrefix);
-        } else {
-          onRequestDone();
-        }
+    if (!closed) {
+      if (queue.remove(request)) { // The request timed out before it was active
+        LOG.trace("[{}] Removing timed out request from the queue", logPrefix);
+        queueSize.decrementAndGet();
+      } else {
+        onRequestDone();
       }
-    } finally {
-      lock.unlock();
     }
   }
 
-  @SuppressWarnings("GuardedBy") // this method is only called with the lock held
   private void onRequestDone() {
-    assert lock.isHeldByCurrentThread();
     if (!closed) {
-      if (queue.isEmpty()) {
-        concurrentRequests -= 1;
+      Throttled next = queue.poll();
+      if (next == null) {
+        concurrentRequests.decrementAndGet();
+        // A request might have been enqueued between the poll and the decrement
+        drain();
       } else {
+        queueSize.decrementAndGet();
         LOG.trace("[{}] Starting dequeued request", logPrefix);
-        queue.poll().onThrottleReady(true);
+        next.onThrottleReady(true);
         // don't touch concurrentRequests since we finished one but started another
       }
     }
   }
 
+  /** Starts queued requests as long as there is capacity. */
+  private void drain() {
+    while (!closed && !queue.isEmpty() && tryAcquire()) {
+      Throttled next = queue.poll();
+      if (next == null) {
+        // Another thread dequeued it first, give the permit back and check again
+        concurrentRequests.decrementAndGet();
+      } else {
+        queueSize.decrementAndGet();
+        LOG.trace("[{}] Starting dequeued request", logPrefix);
+        next.onThrottleReady(true);
+      }
+    }
+  }
+
+  private boolean tryAcquire() {
+    while (true) {
+      int current = concurrentRequests.get();
+      if (current >= maxConcurrentRequests) {
+        return false;
+      } else if (concurrentRequests.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private boolean tryReserveQueueSlot() {
+    while (true) {
+      int current = queueSize.get();
+      if (current >= maxQueueSize) {
+        return false;
+      } else if (queueSize.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
   @Override
   public void close() {
-    lock.lock();
-    try {
-      closed = true;
-      LOG.debug("[{}] Rejecting {} queued requests after shutdown", logPrefix, queue.size());
-      for (Throttled request : queue) {
-        fail(request, "The session is shutting down");
-      }
-    } finally {
-      lock.unlock();
+    closed = true;
+    LOG.debug("[{}] Rejecting {} queued requests after shutdown", logPrefix, queueSize.get());
+    Throttled request;
+    while ((request = queue.poll()) != null) {
+      queueSize.decrementAndGet();
+      fail(request, "The session is shutting down");
     }
   }
 
   public int getQueueSize() {
-    lock.lock();
-    try {
-      return queue.size();
-    } finally {
-      lock.unlock();
-    }
+    return queueSize.get();
   }
 
   @VisibleForTesting
   int getConcurrentRequests() {
-    lock.lock();
-    try {
-      return concurrentRequests;
-    } finally {
-      lock.unlock();
-    }
+    return concurrentRequests.get();
   }
 
   @VisibleForTesting
   Deque<Throttled> getQueue() {
-    lock.lock();
-    try {
-      return queue;
-    } finally {
-      lock.unlock();
-    }
+    return queue;
   }
 
   private static void fail(Throttled request, String message) {
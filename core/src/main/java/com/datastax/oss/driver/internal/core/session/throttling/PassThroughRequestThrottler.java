@@ -47,6 +47,11 @@ public class PassThroughRequestThrottler implements RequestThrottler {
     // nothing to do
   }
 
+  @SuppressWarnings("unused")
+  public PassThroughRequestThrottler(DriverContext context, String profileName) {
+    // nothing to do
+  }
+
   @Override
   public void register(@NonNull Throttled request) {
     request.onThrottleReady(false);
@@ -38,6 +38,12 @@ import org.slf4j.LoggerFactory;
 /**
  * A request throttler that limits the rate of requests per second.
  *
+ * <p>This is a token bucket: permits are created at the configured rate, and accumulate up to
+ * {@code max-burst} while the session is idle. Requests that can't get a permit are enqueued; the
+ * queue is drained by a task that is only scheduled while requests are waiting, and runs at the
+ * exact time when the next permit becomes available (or after {@code drain-interval}, if that is
+ * longer).
+ *
  * <p>To activate this throttler, modify the {@code advanced.throttler} section in the driver
  * configuration, for example:
  *
@@ -46,8 +52,8 @@ import org.slf4j.LoggerFactory;
  *   advanced.throttler {
  *     class = RateLimitingRequestThrottler
  *     max-requests-per-second = 10000
+ *     max-burst = 10000
  *     max-queue-size = 10000
- *     drain-interval = 10 milliseconds
  *   }
  * }
  * </pre>
@@ -62,8 +68,13 @@ public class RateLimitingRequestThrottler implements RequestThrottler {
   private final String logPrefix;
   private final NanoClock clock;
   private final int maxRequestsPerSecond;
+  private final int maxBurst;
   private final int maxQueueSize;
   private final long drainIntervalNanos;
+  // The time to create one permit, rounded up
+  private final long nanosPerPermit;
+  // The time to fill the bucket from empty
+  private final long nanosToMaxBurst;
   private final EventExecutor scheduler;
 
   private final ReentrantLock lock = new ReentrantLock();
@@ -85,31 +96,59 @@ public class RateLimitingRequestThrottler implements RequestThrottler {
     this(context, System::nanoTime);
   }
 
+  @SuppressWarnings("unused")
+  public RateLimitingRequestThrottler(DriverContext context, String profileName) {
+    this(
+        context,
+        context.getSessionName() + "|" + profileName,
+        context.getConfig().getProfile(profileName),
+        System::nanoTime);
+  }
+
   @VisibleForTesting
   RateLimitingRequestThrottler(DriverContext context, NanoClock clock) {
-    this.logPrefix = context.getSessionName();
-    this.clock = clock;
+    this(context, context.getSessionName(), context.getConfig().getDefaultProfile(), clock);
+  }
 
-    DriverExecutionProfile config = context.getConfig().getDefaultProfile();
+  private RateLimitingRequestThrottler(
+      DriverContext context, String logPrefix, DriverExecutionProfile config, NanoClock clock) {
+    this.logPrefix = logPrefix;
+    this.clock = clock;
 
     this.maxRequestsPerSecond =
         config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_REQUESTS_PER_SECOND);
+    this.maxBurst =
+        config.isDefined(DefaultDriverOption.REQUEST_THROTTLER_MAX_BURST)
+            ? config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_BURST)
+            : maxRequestsPerSecond;
+    if (maxBurst <= 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid max burst %d, must be strictly positive (from configuration option %s)",
+              maxBurst, DefaultDriverOption.REQUEST_THROTTLER_MAX_BURST.getPath()));
+    }
     this.maxQueueSize = config.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_QUEUE_SIZE);
     Duration drainInterval =
-        config.getDuration(DefaultDriverOption.REQUEST_THROTTLER_DRAIN_INTERVAL);
+        config.isDefined(DefaultDriverOption.REQUEST_THROTTLER_DRAIN_INTERVAL)
+            ? config.getDuration(DefaultDriverOption.REQUEST_THROTTLER_DRAIN_INTERVAL)
+            : Duration.ZERO;
     this.drainIntervalNanos = drainInterval.toNanos();
+    this.nanosPerPermit = (1_000_000_000L + maxRequestsPerSecond - 1) / maxRequestsPerSecond;
+    this.nanosToMaxBurst = maxBurst * 1_000_000_000L / maxRequestsPerSecond;
 
     this.lastUpdateNanos = clock.nanoTime();
-    // Start with one second worth of permits to avoid delaying initial requests
-    this.storedPermits = maxRequestsPerSecond;
+    // Start with a full bucket to avoid delaying initial requests
+    this.storedPermits = maxBurst;
 
     this.scheduler =
         ((InternalDriverContext) context).getNettyOptions().adminEventExecutorGroup().next();
 
     LOG.debug(
-        "[{}] Initializing with maxRequestsPerSecond = {}, maxQueueSize = {}, drainInterval = {}",
+        "[{}] Initializing with maxRequestsPerSecond = {}, maxBurst = {}, maxQueueSize = {}, "
+            + "drainInterval = {}",
         logPrefix,
         maxRequestsPerSecond,
+        maxBurst,
         maxQueueSize,
         drainInterval);
   }
@@ -128,7 +167,7 @@ public class RateLimitingRequestThrottler implements RequestThrottler {
       } else if (queue.size() < maxQueueSize) {
         LOG.trace("[{}] Enqueuing request", logPrefix);
         if (queue.isEmpty()) {
-          scheduler.schedule(this::drain, drainIntervalNanos, TimeUnit.NANOSECONDS);
+          scheduleDrain(now);
         }
         queue.add(request);
       } else {
@@ -145,9 +184,9 @@ public class RateLimitingRequestThrottler implements RequestThrottler {
     }
   }
 
-  // Runs periodically when the queue is not empty. It tries to dequeue as much as possible while
-  // staying under the target rate. If it does not completely drain the queue, it reschedules
-  // itself.
+  // Runs when the queue is not empty. It tries to dequeue as much as possible while staying under
+  // the target rate. If it does not completely drain the queue, it reschedules itself for when the
+  // next permit will be available.
   private void drain() {
     assert scheduler.inEventLoop();
     long now = clock.nanoTime();
@@ -167,7 +206,7 @@ public class RateLimitingRequestThrottler implements RequestThrottler {
             "[{}] {} elements remaining in queue, rescheduling drain task",
             logPrefix,
             queue.size());
-        scheduler.schedule(this::drain, drainIntervalNanos, TimeUnit.NANOSECONDS);
+        scheduleDrain(now);
       }
     } finally {
       lock.unlock();
@@ -216,18 +255,23 @@ public class RateLimitingRequestThrottler implements RequestThrottler {
 
     long elapsedNanos = currentTimeNanos - lastUpdateNanos;
 
-    if (elapsedNanos >= 1_000_000_000) {
+    if (elapsedNanos >= nanosToMaxBurst) {
       // created more than the max, so whatever was stored, the sum will be capped to the max
-      storedPermits = maxRequestsPerSecond;
+      storedPermits = maxBurst;
       lastUpdateNanos = currentTimeNanos;
     } else if (elapsedNanos > 0) {
       int createdPermits = (int) (elapsedNanos * maxRequestsPerSecond / 1_000_000_000);
       if (createdPermits > 0) {
-        // Only reset interval if we've generated permits, otherwise we might continually reset
-        // before we get the chance to generate anything.
-        lastUpdateNanos = currentTimeNanos;
+        // Only move forward by the time it took to create those permits: the remainder counts
+        // towards the next one. Otherwise we might continually reset before we get the chance to
+        // generate anything, or lose a fraction of the rate at each update.
+        lastUpdateNanos += createdPermits * 1_000_000_000L / maxRequestsPerSecond;
+        storedPermits = Math.min(storedPermits + createdPermits, maxBurst);
+        if (storedPermits == maxBurst) {
+          // The bucket is full, time doesn't accumulate anymore
+          lastUpdateNanos = currentTimeNanos;
+        }
       }
-      storedPermits = Math.min(storedPermits + createdPermits, maxRequestsPerSecond);
     }
 
     int returned = (storedPermits >= wantedPermits) ? wantedPermits : storedPermits;
@@ -235,6 +279,16 @@ public class RateLimitingRequestThrottler implements RequestThrottler {
     return returned;
   }
 
+  @SuppressWarnings("GuardedBy") // this method is only called with the lock held
+  private void scheduleDrain(long currentTimeNanos) {
+    assert lock.isHeldByCurrentThread();
+    // The next permit is created nanosPerPermit after the last update (in the worst case, it might
+    // be a nanosecond earlier because of the rounding)
+    long delayNanos =
+        Math.max(nanosPerPermit - (currentTimeNanos - lastUpdateNanos), drainIntervalNanos);
+    scheduler.schedule(this::drain, Math.max(delayNanos, 0), TimeUnit.NANOSECONDS);
+  }
+
   public int getQueueSize() {
     lock.lock();
     try {
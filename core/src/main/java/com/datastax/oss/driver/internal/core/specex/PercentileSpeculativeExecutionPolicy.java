@@ -0,0 +1,319 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.specex;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.connection.HeartbeatException;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.specex.SpeculativeExecutionPolicy;
+import com.datastax.oss.driver.api.core.tracker.RequestTracker;
+import com.datastax.oss.driver.internal.core.context.EventBus;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.metadata.NodeStateEvent;
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A policy that schedules a configurable number of speculative executions, separated by a delay
+ * that follows a percentile of the recent response times.
+ *
+ * <p>Response times are recorded in HdrHistogram recorders, either one per node (the delay of the
+ * next execution then depends on the node that the current execution was sent to), or one for the
+ * whole execution profile. Every refresh interval, the policy takes the samples recorded since the
+ * previous refresh and, once at least {@code min-samples} are available, recomputes the delay as
+ * the configured percentile of those samples. Until the first delay is known, the policy falls back
+ * to the {@code delay} option if it is present, or does not schedule any speculative execution
+ * otherwise.
+ *
+ * <p>To activate this policy, modify the {@code advanced.speculative-execution-policy} section in
+ * the driver configuration, for example:
+ *
+ * <pre>
+ * datastax-java-driver {
+ *   advanced.speculative-execution-policy {
+ *     class = PercentileSpeculativeExecutionPolicy
+ *     max-executions = 3
+ *     percentile.value = 99.0
+ *   }
+ * }
+ * </pre>
+ *
+ * See {@code reference.conf} (in the manual or core driver JAR) for more details.
+ *
+ * <p>The policy collects latencies by acting as a {@link RequestTracker}; the driver registers it
+ * automatically, in addition to the tracker defined in the configuration.
+ */
+@ThreadSafe
+public class PercentileSpeculativeExecutionPolicy
+    implements SpeculativeExecutionPolicy, RequestTracker {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(PercentileSpeculativeExecutionPolicy.class);
+
+  // 1% precision is plenty for a delay in milliseconds, and keeps the histograms small
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private final DriverContext context;
+  private final String logPrefix;
+  private final int maxExecutions;
+  private final double percentile;
+  private final long minSamples;
+  private final long highestLatencyMicros;
+  private final long refreshIntervalNanos;
+  private final long fallbackDelayMillis;
+  // Exactly one of these is used, depending on the configured scope
+  private final LatencyHistogram profileLatencies;
+  private final ConcurrentMap<Node, LatencyHistogram> nodeLatencies;
+  // Only set if latencies are tracked per node, to evict the histograms of removed nodes
+  private final EventBus eventBus;
+  private final Object nodeStateListenerKey;
+
+  public PercentileSpeculativeExecutionPolicy(
+      @NonNull DriverContext context, @NonNull String profileName) {
+    this.context = context;
+    this.logPrefix = context.getSessionName() + "|" + profileName;
+    DriverExecutionProfile config = context.getConfig().getProfile(profileName);
+    this.maxExecutions = config.getInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX);
+    if (this.maxExecutions < 1) {
+      throw new IllegalArgumentException("Max must be at least 1");
+    }
+    this.percentile = config.getDouble(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE);
+    if (this.percentile <= 0 || this.percentile > 100) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid percentile %s (from configuration option %s), must be in ]0, 100]",
+              this.percentile, DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE.getPath()));
+    }
+    this.minSamples =
+        Math.max(
+            1, config.getInt(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_MIN_SAMPLES));
+    this.highestLatencyMicros =
+        config
+                .getDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_HIGHEST_LATENCY)
+                .toNanos()
+            / 1000;
+    if (this.highestLatencyMicros < 2) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid highest latency (from configuration option %s), "
+                  + "must be at least 2 microseconds",
+              DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_HIGHEST_LATENCY.getPath()));
+    }
+    this.refreshIntervalNanos =
+        config
+            .getDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_REFRESH_INTERVAL)
+            .toNanos();
+    if (this.refreshIntervalNanos <= 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid refresh interval %d ns (from configuration option %s), must be positive",
+              this.refreshIntervalNanos,
+              DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_REFRESH_INTERVAL.getPath()));
+    }
+    this.fallbackDelayMillis =
+        config.isDefined(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY)
+            ? config.getDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY).toMillis()
+            : -1;
+    if (config.getBoolean(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_PER_NODE)) {
+      this.profileLatencies = null;
+      this.nodeLatencies = new ConcurrentHashMap<>();
+      this.eventBus = ((InternalDriverContext) context).getEventBus();
+      this.nodeStateListenerKey = eventBus.register(NodeStateEvent.class, this::onNodeStateEvent);
+    } else {
+      this.profileLatencies = new LatencyHistogram(profileName);
+      this.nodeLatencies = null;
+      this.eventBus = null;
+      this.nodeStateListenerKey = null;
+    }
+  }
+
+  @Override
+  public long nextExecution(
+      @NonNull Node node,
+      @Nullable @SuppressWarnings("unused") CqlIdentifier keyspace,
+      @NonNull @SuppressWarnings("unused") Request request,
+      int runningExecutions) {
+    assert runningExecutions >= 1;
+    if (runningExecutions >= maxExecutions) {
+      return -1;
+    }
+    LatencyHistogram latencies =
+        (nodeLatencies == null) ? profileLatencies : nodeLatencies.get(node);
+    long delayMillis = (latencies == null) ? -1 : latencies.getDelayMillis(nanoTime());
+    return (delayMillis >= 0) ? delayMillis : fallbackDelayMillis;
+  }
+
+  @Override
+  public void onNodeSuccess(
+      @NonNull Request request,
+      long latencyNanos,
+      @NonNull DriverExecutionProfile executionProfile,
+      @NonNull Node node,
+      @NonNull String requestLogPrefix) {
+    updateLatency(executionProfile, node, latencyNanos);
+  }
+
+  @Override
+  public void onNodeError(
+      @NonNull Request request,
+      @NonNull Throwable error,
+      long latencyNanos,
+      @NonNull DriverExecutionProfile executionProfile,
+      @NonNull Node node,
+      @NonNull String requestLogPrefix) {
+    // A node that times out is a node that we should have speculated on. Other errors are ignored:
+    // a node that quickly rejects requests (unavailable, overloaded, bootstrapping...) would
+    // otherwise pull the percentile down.
+    if (isSlowResponse(error)) {
+      updateLatency(executionProfile, node, latencyNanos);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (eventBus != null) {
+      eventBus.unregister(nodeStateListenerKey, NodeStateEvent.class);
+    }
+  }
+
+  private void onNodeStateEvent(NodeStateEvent event) {
+    // A null new state means the node was removed from the cluster
+    if (event.newState == null) {
+      nodeLatencies.remove(event.node);
+    }
+  }
+
+  private static boolean isSlowResponse(Throwable error) {
+    return error instanceof ReadTimeoutException
+        || error instanceof WriteTimeoutException
+        || error instanceof HeartbeatException;
+  }
+
+  @VisibleForTesting
+  void updateLatency(DriverExecutionProfile executionProfile, Node node, long latencyNanos) {
+    // The driver registers the policy as a tracker for all requests, only keep those from the
+    // profiles that use this instance
+    if (context.getSpeculativeExecutionPolicy(executionProfile.getName()) != this) {
+      return;
+    }
+    LatencyHistogram latencies;
+    if (nodeLatencies == null) {
+      latencies = profileLatencies;
+    } else {
+      latencies = nodeLatencies.get(node);
+      if (latencies == null) {
+        latencies = nodeLatencies.computeIfAbsent(node, n -> new LatencyHistogram(n.toString()));
+      }
+    }
+    latencies.record(latencyNanos);
+  }
+
+  @VisibleForTesting
+  long nanoTime() {
+    return System.nanoTime();
+  }
+
+  /**
+   * The recent response times of a node or profile.
+   *
+   * <p>Samples are fed directly to the recorder, which is lock-free. The delay is only recomputed
+   * once per refresh interval, by the first thread that notices it is due; other threads keep using
+   * the previous value instead of waiting.
+   *
+   * <p>Note that executions that get cancelled (because another one completed first) are never
+   * recorded. Since they are the slowest ones, the computed percentile tends to be a bit lower than
+   * the actual one, and speculative executions a bit more frequent than the percentile suggests.
+   */
+  private class LatencyHistogram {
+
+    private final String name;
+    private final Recorder recorder = new Recorder(highestLatencyMicros, SIGNIFICANT_DIGITS);
+    private final Lock refreshLock = new ReentrantLock();
+
+    @GuardedBy("refreshLock")
+    private Histogram intervalHistogram;
+
+    // Accumulates intervals until there are enough samples to compute a meaningful percentile
+    @GuardedBy("refreshLock")
+    private final Histogram pendingHistogram =
+        new Histogram(highestLatencyMicros, SIGNIFICANT_DIGITS);
+
+    private volatile long lastRefreshNanos = nanoTime();
+    private volatile long delayMillis = -1;
+
+    private LatencyHistogram(String name) {
+      this.name = name;
+    }
+
+    private void record(long latencyNanos) {
+      // Clamp out-of-range values instead of discarding them: a response that took longer than the
+      // highest latency is still a slow response
+      recorder.recordValue(Math.max(0, Math.min(latencyNanos / 1000, highestLatencyMicros)));
+    }
+
+    private long getDelayMillis(long now) {
+      if (now - lastRefreshNanos >= refreshIntervalNanos && refreshLock.tryLock()) {
+        try {
+          // Might have raced with another thread that just refreshed => re-check the timestamp
+          if (now - lastRefreshNanos >= refreshIntervalNanos) {
+            refresh(now);
+          }
+        } finally {
+          refreshLock.unlock();
+        }
+      }
+      return delayMillis;
+    }
+
+    @GuardedBy("refreshLock")
+    private void refresh(long now) {
+      intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+      pendingHistogram.add(intervalHistogram);
+      long samples = pendingHistogram.getTotalCount();
+      if (samples >= minSamples) {
+        // Never return 0 for sub-millisecond latencies, that would start all executions at once
+        long micros = pendingHistogram.getValueAtPercentile(percentile);
+        delayMillis = Math.max(1, Math.round(micros / 1000.0));
+        pendingHistogram.reset();
+        LOG.debug(
+            "[{}] Speculative execution delay for {} is now {} ms (p{} of {} samples)",
+            logPrefix,
+            name,
+            delayMillis,
+            percentile,
+            samples);
+      }
+      lastRefreshNanos = now;
+    }
+  }
+}
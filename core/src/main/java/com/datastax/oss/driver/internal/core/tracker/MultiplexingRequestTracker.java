@@ -0,0 +1,135 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.tracker;
+
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.tracker.RequestTracker;
+import com.datastax.oss.driver.internal.core.util.Loggers;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.List;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Forwards request events to the session's main tracker, and to additional components that need
+ * them internally (for example a load balancing policy that monitors node latencies).
+ *
+ * <p>Only the main tracker is closed by {@link #close()}: the other components are expected to
+ * manage their own lifecycle.
+ */
+@ThreadSafe
+public class MultiplexingRequestTracker implements RequestTracker {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MultiplexingRequestTracker.class);
+
+  private final RequestTracker mainTracker;
+  private final RequestTracker[] allTrackers;
+
+  public MultiplexingRequestTracker(
+      @NonNull RequestTracker mainTracker, @NonNull List<RequestTracker> otherTrackers) {
+    this.mainTracker = mainTracker;
+    this.allTrackers = new RequestTracker[otherTrackers.size() + 1];
+    this.allTrackers[0] = mainTracker;
+    for (int i = 0; i < otherTrackers.size(); i++) {
+      this.allTrackers[i + 1] = otherTrackers.get(i);
+    }
+  }
+
+  @NonNull
+  public RequestTracker getMainTracker() {
+    return mainTracker;
+  }
+
+  @Override
+  public void onSuccess(
+      @NonNull Request request,
+      long latencyNanos,
+      @NonNull DriverExecutionProfile executionProfile,
+      @NonNull Node node,
+      @NonNull String requestLogPrefix) {
+    for (RequestTracker tracker : allTrackers) {
+      try {
+        tracker.onSuccess(request, latencyNanos, executionProfile, node, requestLogPrefix);
+      } catch (Throwable t) {
+        logError(tracker, "onSuccess", t);
+      }
+    }
+  }
+
+  @Override
+  public void onError(
+      @NonNull Request request,
+      @NonNull Throwable error,
+      long latencyNanos,
+      @NonNull DriverExecutionProfile executionProfile,
+      @Nullable Node node,
+      @NonNull String requestLogPrefix) {
+    for (RequestTracker tracker : allTrackers) {
+      try {
+        tracker.onError(request, error, latencyNanos, executionProfile, node, requestLogPrefix);
+      } catch (Throwable t) {
+        logError(tracker, "onError", t);
+      }
+    }
+  }
+
+  @Override
+  public void onNodeError(
+      @NonNull Request request,
+      @NonNull Throwable error,
+      long latencyNanos,
+      @NonNull DriverExecutionProfile executionProfile,
+      @NonNull Node node,
+      @NonNull String requestLogPrefix) {
+    for (RequestTracker tracker : allTrackers) {
+      try {
+        tracker.onNodeError(request, error, latencyNanos, executionProfile, node, requestLogPrefix);
+      } catch (Throwable t) {
+        logError(tracker, "onNodeError", t);
+      }
+    }
+  }
+
+  @Override
+  public void onNodeSuccess(
+      @NonNull Request request,
+      long latencyNanos,
+      @NonNull DriverExecutionProfile executionProfile,
+      @NonNull Node node,
+      @NonNull String requestLogPrefix) {
+    for (RequestTracker tracker : allTrackers) {
+      try {
+        tracker.onNodeSuccess(request, latencyNanos, executionProfile, node, requestLogPrefix);
+      } catch (Throwable t) {
+        logError(tracker, "onNodeSuccess", t);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    mainTracker.close();
+  }
+
+  private static void logError(RequestTracker tracker, String method, Throwable error) {
+    Loggers.warnWithException(
+        LOG, "Unexpected error while invoking {}.{}", tracker.getClass().getName(), method, error);
+  }
+}
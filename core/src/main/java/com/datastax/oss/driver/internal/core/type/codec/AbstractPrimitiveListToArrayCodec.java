@@ -0,0 +1,166 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.type.codec;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.List;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Base class for codecs that map a CQL list of fixed-size elements to a Java primitive array.
+ *
+ * <p>Compared to a {@link ListCodec} with a boxed element codec, this encodes the whole array in a
+ * single pass into one buffer, and decodes without creating a wrapper object or an intermediate
+ * buffer per element.
+ *
+ * <p>CQL lists can't contain nulls, so they always map to a primitive array. A CQL {@code NULL} (or
+ * an empty list, since Cassandra does not distinguish between the two) decodes to an empty array.
+ */
+@ThreadSafe
+public abstract class AbstractPrimitiveListToArrayCodec<ArrayT, ElementT>
+    implements TypeCodec<ArrayT> {
+
+  private final DataType cqlType;
+  private final GenericType<ArrayT> javaType;
+  private final int elementSize;
+  private final TypeCodec<List<ElementT>> boxedCodec;
+
+  /**
+   * @param elementSize the serialized size of an element, in bytes.
+   * @param boxedCodec a regular list codec for the same CQL type, used for formatting and parsing.
+   */
+  protected AbstractPrimitiveListToArrayCodec(
+      @NonNull DataType elementType,
+      @NonNull Class<ArrayT> javaClass,
+      int elementSize,
+      @NonNull TypeCodec<List<ElementT>> boxedCodec) {
+    this.cqlType = DataTypes.listOf(elementType);
+    this.javaType = GenericType.of(javaClass);
+    this.elementSize = elementSize;
+    this.boxedCodec = boxedCodec;
+  }
+
+  @NonNull
+  @Override
+  public GenericType<ArrayT> getJavaType() {
+    return javaType;
+  }
+
+  @NonNull
+  @Override
+  public DataType getCqlType() {
+    return cqlType;
+  }
+
+  @Nullable
+  @Override
+  public ByteBuffer encode(@Nullable ArrayT array, @NonNull ProtocolVersion protocolVersion) {
+    if (array == null) {
+      return null;
+    }
+    // An int indicating the number of elements, followed by each element preceded by its size
+    int length = length(array);
+    long size = 4 + encodedSize(length);
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Array of %d elements is too large to be encoded (%d bytes)", length, size));
+    }
+    ByteBuffer output = ByteBuffer.allocate((int) size);
+    output.putInt(length);
+    writeElements(array, output);
+    output.flip();
+    return output;
+  }
+
+  @NonNull
+  @Override
+  public ArrayT decode(@Nullable ByteBuffer bytes, @NonNull ProtocolVersion protocolVersion) {
+    if (bytes == null || bytes.remaining() == 0) {
+      return newArray(0);
+    }
+    ByteBuffer input = bytes.duplicate();
+    if (input.remaining() < 4) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid list: expected at least 4 bytes for the number of elements, got %d",
+              input.remaining()));
+    }
+    int length = input.getInt();
+    if (length < 0 || input.remaining() != encodedSize(length)) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Invalid list of %d elements: expected %d bytes, got %d",
+              length, encodedSize(length), input.remaining()));
+    }
+    ArrayT array = newArray(length);
+    readElements(input, array);
+    return array;
+  }
+
+  @NonNull
+  @Override
+  public String format(@Nullable ArrayT array) {
+    return (array == null) ? "NULL" : boxedCodec.format(toList(array));
+  }
+
+  @Nullable
+  @Override
+  public ArrayT parse(@Nullable String value) {
+    List<ElementT> list = boxedCodec.parse(value);
+    return (list == null) ? null : fromList(list);
+  }
+
+  /**
+   * The size of the elements in the serialized form, each preceded by its size. This is computed as
+   * a long, because it can exceed the capacity of an int for large arrays.
+   */
+  private long encodedSize(int length) {
+    return (long) length * (4 + elementSize);
+  }
+
+  /** Checks the size that precedes each element in the serialized form. */
+  protected void checkElementSize(int size) {
+    if (size != elementSize) {
+      throw new IllegalArgumentException(
+          String.format("Invalid list element size: expected %d bytes, got %d", elementSize, size));
+    }
+  }
+
+  protected abstract int length(@NonNull ArrayT array);
+
+  @NonNull
+  protected abstract ArrayT newArray(int length);
+
+  /** Writes each element preceded by its size. */
+  protected abstract void writeElements(@NonNull ArrayT array, @NonNull ByteBuffer output);
+
+  /** Reads each element (preceded by its size, that must be checked). */
+  protected abstract void readElements(@NonNull ByteBuffer input, @NonNull ArrayT array);
+
+  @NonNull
+  protected abstract List<ElementT> toList(@NonNull ArrayT array);
+
+  @NonNull
+  protected abstract ArrayT fromList(@NonNull List<ElementT> list);
+}
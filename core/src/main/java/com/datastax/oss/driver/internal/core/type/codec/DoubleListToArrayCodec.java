@@ -0,0 +1,85 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.type.codec;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import net.jcip.annotations.ThreadSafe;
+
+/** Maps CQL type {@code list<double>} to Java's {@code double[]}. */
+@ThreadSafe
+public class DoubleListToArrayCodec extends AbstractPrimitiveListToArrayCodec<double[], Double> {
+
+  public DoubleListToArrayCodec() {
+    super(DataTypes.DOUBLE, double[].class, 8, TypeCodecs.listOf(TypeCodecs.DOUBLE));
+  }
+
+  @Override
+  public boolean accepts(@NonNull Object value) {
+    return value instanceof double[];
+  }
+
+  @Override
+  protected int length(@NonNull double[] array) {
+    return array.length;
+  }
+
+  @NonNull
+  @Override
+  protected double[] newArray(int length) {
+    return new double[length];
+  }
+
+  @Override
+  protected void writeElements(@NonNull double[] array, @NonNull ByteBuffer output) {
+    for (double element : array) {
+      output.putInt(8);
+      output.putDouble(element);
+    }
+  }
+
+  @Override
+  protected void readElements(@NonNull ByteBuffer input, @NonNull double[] array) {
+    for (int i = 0; i < array.length; i++) {
+      checkElementSize(input.getInt());
+      array[i] = input.getDouble();
+    }
+  }
+
+  @NonNull
+  @Override
+  protected List<Double> toList(@NonNull double[] array) {
+    List<Double> list = new ArrayList<>(array.length);
+    for (double element : array) {
+      list.add(element);
+    }
+    return list;
+  }
+
+  @NonNull
+  @Override
+  protected double[] fromList(@NonNull List<Double> list) {
+    double[] array = new double[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+}
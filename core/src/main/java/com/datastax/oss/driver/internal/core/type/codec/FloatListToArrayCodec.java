@@ -0,0 +1,85 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.type.codec;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import net.jcip.annotations.ThreadSafe;
+
+/** Maps CQL type {@code list<float>} to Java's {@code float[]}. */
+@ThreadSafe
+public class FloatListToArrayCodec extends AbstractPrimitiveListToArrayCodec<float[], Float> {
+
+  public FloatListToArrayCodec() {
+    super(DataTypes.FLOAT, float[].class, 4, TypeCodecs.listOf(TypeCodecs.FLOAT));
+  }
+
+  @Override
+  public boolean accepts(@NonNull Object value) {
+    return value instanceof float[];
+  }
+
+  @Override
+  protected int length(@NonNull float[] array) {
+    return array.length;
+  }
+
+  @NonNull
+  @Override
+  protected float[] newArray(int length) {
+    return new float[length];
+  }
+
+  @Override
+  protected void writeElements(@NonNull float[] array, @NonNull ByteBuffer output) {
+    for (float element : array) {
+      output.putInt(4);
+      output.putFloat(element);
+    }
+  }
+
+  @Override
+  protected void readElements(@NonNull ByteBuffer input, @NonNull float[] array) {
+    for (int i = 0; i < array.length; i++) {
+      checkElementSize(input.getInt());
+      array[i] = input.getFloat();
+    }
+  }
+
+  @NonNull
+  @Override
+  protected List<Float> toList(@NonNull float[] array) {
+    List<Float> list = new ArrayList<>(array.length);
+    for (float element : array) {
+      list.add(element);
+    }
+    return list;
+  }
+
+  @NonNull
+  @Override
+  protected float[] fromList(@NonNull List<Float> list) {
+    float[] array = new float[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+}
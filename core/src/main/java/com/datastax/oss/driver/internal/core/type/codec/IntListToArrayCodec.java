@@ -0,0 +1,85 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.type.codec;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import net.jcip.annotations.ThreadSafe;
+
+/** Maps CQL type {@code list<int>} to Java's {@code int[]}. */
+@ThreadSafe
+public class IntListToArrayCodec extends AbstractPrimitiveListToArrayCodec<int[], Integer> {
+
+  public IntListToArrayCodec() {
+    super(DataTypes.INT, int[].class, 4, TypeCodecs.listOf(TypeCodecs.INT));
+  }
+
+  @Override
+  public boolean accepts(@NonNull Object value) {
+    return value instanceof int[];
+  }
+
+  @Override
+  protected int length(@NonNull int[] array) {
+    return array.length;
+  }
+
+  @NonNull
+  @Override
+  protected int[] newArray(int length) {
+    return new int[length];
+  }
+
+  @Override
+  protected void writeElements(@NonNull int[] array, @NonNull ByteBuffer output) {
+    for (int element : array) {
+      output.putInt(4);
+      output.putInt(element);
+    }
+  }
+
+  @Override
+  protected void readElements(@NonNull ByteBuffer input, @NonNull int[] array) {
+    for (int i = 0; i < array.length; i++) {
+      checkElementSize(input.getInt());
+      array[i] = input.getInt();
+    }
+  }
+
+  @NonNull
+  @Override
+  protected List<Integer> toList(@NonNull int[] array) {
+    List<Integer> list = new ArrayList<>(array.length);
+    for (int element : array) {
+      list.add(element);
+    }
+    return list;
+  }
+
+  @NonNull
+  @Override
+  protected int[] fromList(@NonNull List<Integer> list) {
+    int[] array = new int[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.type.codec;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import net.jcip.annotations.ThreadSafe;
+
+/** Maps CQL type {@code list<bigint>} to Java's {@code long[]}. */
+@ThreadSafe
+public class LongListToArrayCodec extends AbstractPrimitiveListToArrayCodec<long[], Long> {
+
+  public LongListToArrayCodec() {
+    super(DataTypes.BIGINT, long[].class, 8, TypeCodecs.listOf(TypeCodecs.BIGINT));
+  }
+
+  @Override
+  public boolean accepts(@NonNull Object value) {
+    return value instanceof long[];
+  }
+
+  @Override
+  protected int length(@NonNull long[] array) {
+    return array.length;
+  }
+
+  @NonNull
+  @Override
+  protected long[] newArray(int length) {
+    return new long[length];
+  }
+
+  @Override
+  protected void writeElements(@NonNull long[] array, @NonNull ByteBuffer output) {
+    for (long element : array) {
+      output.putInt(8);
+      output.putLong(element);
+    }
+  }
+
+  @Override
+  protected void readElements(@NonNull ByteBuffer input, @NonNull long[] array) {
+    for (int i = 0; i < array.length; i++) {
+      checkElementSize(input.getInt());
+      array[i] = input.getLong();
+    }
+  }
+
+  @NonNull
+  @Override
+  protected List<Long> toList(@NonNull long[] array) {
+    List<Long> list = new ArrayList<>(array.length);
+    for (long element : array) {
+      list.add(element);
+    }
+    return list;
+  }
+
+  @NonNull
+  @Override
+  protected long[] fromList(@NonNull List<Long> list) {
+    long[] array = new long[list.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = list.get(i);
+    }
+    return array;
+  }
+}
@@ -23,19 +23,30 @@ import com.datastax.oss.driver.internal.core.util.Strings;
 import com.datastax.oss.protocol.internal.util.Bytes;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import io.netty.util.internal.PlatformDependent;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import net.jcip.annotations.ThreadSafe;
 
 @ThreadSafe
 public class StringCodec implements TypeCodec<String> {
 
+  /**
+   * Whether to use our own UTF-8 encoder. Only on JDK 8: since JDK 9, strings that only contain
+   * Latin-1 characters are stored compactly, and {@link String#getBytes(Charset)} encodes ASCII
+   * strings with a single intrinsic array copy, which is faster than a char-by-char loop.
+   */
+  private static final boolean USE_CUSTOM_UTF8_ENCODER = PlatformDependent.javaVersion() < 9;
+
   private final DataType cqlType;
   private final Charset charset;
+  private final boolean isUtf8;
 
   public StringCodec(@NonNull DataType cqlType, @NonNull Charset charset) {
     this.cqlType = cqlType;
     this.charset = charset;
+    this.isUtf8 = charset.equals(StandardCharsets.UTF_8);
   }
 
   @NonNull
@@ -63,7 +74,13 @@ public class StringCodec implements TypeCodec<String> {
   @Nullable
   @Override
   public ByteBuffer encode(@Nullable String value, @NonNull ProtocolVersion protocolVersion) {
-    return (value == null) ? null : ByteBuffer.wrap(value.getBytes(charset));
+    if (value == null) {
+      return null;
+    } else if (isUtf8 && USE_CUSTOM_UTF8_ENCODER) {
+      return ByteBuffer.wrap(encodeUtf8(value));
+    } else {
+      return ByteBuffer.wrap(value.getBytes(charset));
+    }
   }
 
   @Nullable
@@ -73,11 +90,97 @@ public class StringCodec implements TypeCodec<String> {
       return null;
     } else if (bytes.remaining() == 0) {
       return "";
+    } else if (bytes.hasArray()) {
+      // Decode in place, this avoids a copy if the buffer is a slice of a larger array (which is
+      // the case for rows decoded from a response frame)
+      return new String(
+          bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(), charset);
     } else {
       return new String(Bytes.getArray(bytes), charset);
     }
   }
 
+  /**
+   * Encodes a string in UTF-8 in an array of the exact size (only used on JDK 8, see {@link
+   * #USE_CUSTOM_UTF8_ENCODER}).
+   *
+   * <p>On JDK 8, {@link String#getBytes(Charset)} allocates an array for the worst case (3 bytes
+   * per char), and then copies the result into an array of the right size. Instead, we compute the
+   * exact length first, which is trivial for ASCII strings, the most common case. Like the JDK
+   * encoder, malformed surrogates are replaced by {@code '?'}.
+   */
+  private static byte[] encodeUtf8(String value) {
+    int length = value.length();
+    int i = 0;
+    while (i < length && value.charAt(i) < 0x80) {
+      i += 1;
+    }
+    if (i == length) {
+      byte[] bytes = new byte[length];
+      for (int j = 0; j < length; j++) {
+        bytes[j] = (byte) value.charAt(j);
+      }
+      return bytes;
+    }
+
+    int asciiPrefixLength = i;
+    int encodedLength = asciiPrefixLength;
+    for (; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        encodedLength += 1;
+      } else if (c < 0x800) {
+        encodedLength += 2;
+      } else if (Character.isSurrogate(c)) {
+        if (isSurrogatePair(value, i)) {
+          encodedLength += 4;
+          i += 1;
+        } else {
+          encodedLength += 1;
+        }
+      } else {
+        encodedLength += 3;
+      }
+    }
+
+    byte[] bytes = new byte[encodedLength];
+    int position = 0;
+    for (i = 0; i < asciiPrefixLength; i++) {
+      bytes[position++] = (byte) value.charAt(i);
+    }
+    for (; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        bytes[position++] = (byte) c;
+      } else if (c < 0x800) {
+        bytes[position++] = (byte) (0xC0 | (c >> 6));
+        bytes[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        if (isSurrogatePair(value, i)) {
+          int codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+          bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+          bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+          bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+          bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+          i += 1;
+        } else {
+          bytes[position++] = '?';
+        }
+      } else {
+        bytes[position++] = (byte) (0xE0 | (c >> 12));
+        bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        bytes[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return bytes;
+  }
+
+  private static boolean isSurrogatePair(String value, int index) {
+    return Character.isHighSurrogate(value.charAt(index))
+        && index + 1 < value.length()
+        && Character.isLowSurrogate(value.charAt(index + 1));
+  }
+
   @NonNull
   @Override
   public String format(@Nullable String value) {
@@ -94,11 +94,20 @@ public class ArrayUtils {
       @NonNull ElementT[] elements, int startIndex, int length, int amount) {
     if (length >= 2) {
       amount = amount % length;
-      // Repeatedly shift by 1. This is not the most time-efficient but the array will typically be
-      // small so we don't care, and this avoids allocating a temporary buffer.
-      for (int i = 0; i < amount; i++) {
-        bubbleDown(elements, startIndex, startIndex + length - 1);
+      if (amount > 0) {
+        // Rotate with three reversals: this is linear in the length of the range, independently
+        // of the amount, and avoids allocating a temporary buffer.
+        int endIndex = startIndex + length - 1;
+        reverse(elements, startIndex, startIndex + amount - 1);
+        reverse(elements, startIndex + amount, endIndex);
+        reverse(elements, startIndex, endIndex);
       }
     }
   }
+
+  private static <ElementT> void reverse(@NonNull ElementT[] elements, int from, int to) {
+    while (from < to) {
+      swap(elements, from++, to--);
+    }
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.api.core.cql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.driver.api.core.DefaultProtocolVersion;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.util.Bytes;
+import java.nio.ByteBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BoundStatementBuilderTest {
+
+  private static final ByteBuffer VALUE1 = Bytes.fromHexString("0x01");
+  private static final ByteBuffer VALUE2 = Bytes.fromHexString("0x02");
+
+  @Mock private PreparedStatement preparedStatement;
+  @Mock private ColumnDefinitions variableDefinitions;
+
+  private BoundStatementBuilder builder;
+
+  @Before
+  public void setup() {
+    builder =
+        new BoundStatementBuilder(
+            preparedStatement,
+            variableDefinitions,
+            new ByteBuffer[] {ProtocolConstants.UNSET_VALUE, ProtocolConstants.UNSET_VALUE},
+            null,
+            null,
+            null,
+            null,
+            null,
+            ImmutableMap.of(),
+            null,
+            false,
+            Long.MIN_VALUE,
+            null,
+            -1,
+            null,
+            null,
+            null,
+            CodecRegistry.DEFAULT,
+            DefaultProtocolVersion.V4);
+  }
+
+  @Test
+  public void should_not_affect_built_statement_when_reused() {
+    BoundStatement statement1 = builder.setBytesUnsafe(0, VALUE1).setBytesUnsafe(1, VALUE1).build();
+    BoundStatement statement2 = builder.setBytesUnsafe(0, VALUE2).build();
+
+    assertThat(statement1.getBytesUnsafe(0)).isEqualTo(VALUE1);
+    assertThat(statement1.getBytesUnsafe(1)).isEqualTo(VALUE1);
+    assertThat(statement2.getBytesUnsafe(0)).isEqualTo(VALUE2);
+    assertThat(statement2.getBytesUnsafe(1)).isEqualTo(VALUE1);
+  }
+
+  @Test
+  public void should_unset_all_values() {
+    BoundStatement statement1 = builder.setBytesUnsafe(0, VALUE1).setBytesUnsafe(1, VALUE2).build();
+    BoundStatement statement2 = builder.unsetAll().setBytesUnsafe(1, VALUE1).build();
+
+    assertThat(statement1.isSet(0)).isTrue();
+    assertThat(statement1.isSet(1)).isTrue();
+    assertThat(statement2.isSet(0)).isFalse();
+    assertThat(statement2.getBytesUnsafe(1)).isEqualTo(VALUE1);
+  }
+}
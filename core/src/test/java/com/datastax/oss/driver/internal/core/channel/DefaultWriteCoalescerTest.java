@@ -0,0 +1,142 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.channel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.metrics.DefaultSessionMetric;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.metrics.MetricsFactory;
+import com.datastax.oss.driver.internal.core.metrics.SessionMetricUpdater;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultChannelPromise;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class DefaultWriteCoalescerTest {
+
+  @Mock private InternalDriverContext context;
+  @Mock private DriverConfig config;
+  @Mock private DriverExecutionProfile defaultProfile;
+  @Mock private MetricsFactory metricsFactory;
+  @Mock private SessionMetricUpdater metricUpdater;
+
+  private EventLoopGroup eventLoopGroup;
+
+  @Before
+  public void setup() {
+    MockitoAnnotations.initMocks(this);
+    when(context.getConfig()).thenReturn(config);
+    when(config.getDefaultProfile()).thenReturn(defaultProfile);
+    when(defaultProfile.getInt(DefaultDriverOption.COALESCER_MAX_RUNS)).thenReturn(5);
+    when(defaultProfile.getDuration(DefaultDriverOption.COALESCER_INTERVAL))
+        .thenReturn(Duration.ofNanos(10_000));
+    when(defaultProfile.getDuration(DefaultDriverOption.COALESCER_ADAPTIVE_MAX_INTERVAL))
+        .thenReturn(Duration.ofNanos(100_000));
+    when(defaultProfile.getInt(DefaultDriverOption.COALESCER_ADAPTIVE_TARGET_FLUSH_SIZE))
+        .thenReturn(16);
+    when(context.getMetricsFactory()).thenReturn(metricsFactory);
+    when(metricsFactory.getSessionUpdater()).thenReturn(metricUpdater);
+    when(metricUpdater.isEnabled(DefaultSessionMetric.COALESCER_FLUSH_LATENCY, null))
+        .thenReturn(true);
+
+    eventLoopGroup = new DefaultEventLoopGroup(1);
+  }
+
+  @After
+  public void teardown() {
+    eventLoopGroup.shutdownGracefully(100, 200, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  public void should_write_and_flush() throws Exception {
+    should_write_and_flush(false);
+  }
+
+  @Test
+  public void should_write_and_flush_in_adaptive_mode() throws Exception {
+    should_write_and_flush(true);
+  }
+
+  private void should_write_and_flush(boolean adaptive) throws Exception {
+    when(defaultProfile.getBoolean(DefaultDriverOption.COALESCER_ADAPTIVE)).thenReturn(adaptive);
+    DefaultWriteCoalescer coalescer = new DefaultWriteCoalescer(context);
+    EventLoop eventLoop = eventLoopGroup.next();
+    Channel channel = mock(Channel.class);
+    when(channel.eventLoop()).thenReturn(eventLoop);
+    when(channel.newPromise()).thenAnswer(i -> new DefaultChannelPromise(channel, eventLoop));
+    when(channel.write(any(), any(ChannelPromise.class)))
+        .thenAnswer(i -> ((ChannelPromise) i.getArgument(1)).setSuccess());
+
+    List<ChannelFuture> futures = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      futures.add(coalescer.writeAndFlush(channel, i));
+    }
+    for (ChannelFuture future : futures) {
+      assertThat(future.await(1, TimeUnit.SECONDS)).isTrue();
+      assertThat(future.isSuccess()).isTrue();
+    }
+    // Wait for the current run to complete
+    eventLoop.submit(() -> {}).get(1, TimeUnit.SECONDS);
+
+    InOrder inOrder = inOrder(channel);
+    for (int i = 0; i < 100; i++) {
+      inOrder.verify(channel).write(eq(i), any(ChannelPromise.class));
+    }
+    inOrder.verify(channel, atLeastOnce()).flush();
+
+    // Every write is counted in exactly one flush run
+    ArgumentCaptor<Long> flushSizes = ArgumentCaptor.forClass(Long.class);
+    verify(metricUpdater, atLeastOnce())
+        .updateHistogram(
+            eq(DefaultSessionMetric.COALESCER_FLUSH_SIZE), isNull(), flushSizes.capture());
+    assertThat(flushSizes.getAllValues().stream().mapToLong(Long::longValue).sum()).isEqualTo(100);
+    // One latency sample per write
+    verify(metricUpdater, times(100))
+        .updateTimer(
+            eq(DefaultSessionMetric.COALESCER_FLUSH_LATENCY),
+            isNull(),
+            anyLong(),
+            eq(TimeUnit.NANOSECONDS));
+  }
+}
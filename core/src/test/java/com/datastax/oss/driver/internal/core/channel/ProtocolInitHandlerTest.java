@@ -34,6 +34,7 @@ import com.datastax.oss.driver.internal.core.ProtocolVersionRegistry;
 import com.datastax.oss.driver.internal.core.TestResponses;
 import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
 import com.datastax.oss.driver.internal.core.metadata.TestNodeFactory;
+import com.datastax.oss.driver.internal.core.protocol.SegmentCodec;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
 import com.datastax.oss.protocol.internal.Frame;
 import com.datastax.oss.protocol.internal.ProtocolConstants;
@@ -48,6 +49,7 @@ import com.datastax.oss.protocol.internal.response.Error;
 import com.datastax.oss.protocol.internal.response.Ready;
 import com.datastax.oss.protocol.internal.response.result.SetKeyspace;
 import com.datastax.oss.protocol.internal.util.Bytes;
+import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelFuture;
 import java.net.InetSocketAddress;
 import java.time.Duration;
@@ -176,6 +178,42 @@ public class ProtocolInitHandlerTest extends ChannelHandlerTestBase {
     assertThat(channel.pipeline().last()).isNotEqualTo(protocolInitHandler);
   }
 
+  @Test
+  public void should_switch_to_segments_after_ready_if_enabled() {
+    // Placeholders for the codec handlers, segment handlers get inserted relative to them
+    channel
+        .pipeline()
+        .addBefore("inflight", "encoder", new ChannelDuplexHandler())
+        .addBefore("inflight", "decoder", new ChannelDuplexHandler())
+        .addLast(
+            "init",
+            new ProtocolInitHandler(
+                internalDriverContext,
+                DefaultProtocolVersion.V5,
+                null,
+                END_POINT,
+                DriverChannelOptions.DEFAULT,
+                heartbeatHandler,
+                new SegmentCodec(null)));
+
+    ChannelFuture connectFuture = channel.connect(new InetSocketAddress("localhost", 9042));
+
+    Frame requestFrame = readOutboundFrame();
+    assertThat(requestFrame.message).isInstanceOf(Startup.class);
+    assertThat(channel.pipeline().get("segmentEncoder")).isNull();
+
+    writeInboundFrame(buildInboundFrame(requestFrame, new Ready()));
+
+    // The handlers are in place before the next request is sent
+    assertThat(channel.pipeline().names())
+        .containsSubsequence("segmentEncoder", "encoder", "segmentDecoder", "decoder");
+    requestFrame = readOutboundFrame();
+    assertThat(requestFrame.message).isInstanceOf(Query.class);
+    writeInboundFrame(requestFrame, TestResponses.clusterNameResponse("someClusterName"));
+
+    assertThat(connectFuture).isSuccess();
+  }
+
   @Test
   public void should_fail_to_initialize_if_init_query_times_out() throws InterruptedException {
     channel
@@ -0,0 +1,61 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.channel;
+
+import static com.datastax.oss.driver.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class RotatingStreamIdGeneratorTest {
+  @Test
+  public void should_return_available_ids_in_sequence() {
+    StreamIdGenerator generator = new RotatingStreamIdGenerator(8);
+    for (int i = 0; i < 8; i++) {
+      assertThat(generator.acquire()).isEqualTo(i);
+      assertThat(generator.getAvailableIds()).isEqualTo(7 - i);
+    }
+    assertThat(generator.acquire()).isEqualTo(-1);
+  }
+
+  @Test
+  public void should_resume_search_after_last_acquired_id() {
+    StreamIdGenerator generator = new RotatingStreamIdGenerator(8);
+    for (int i = 0; i < 4; i++) {
+      generator.acquire();
+    }
+    generator.release(1);
+    // 1 is available, but the search starts after 3
+    assertThat(generator.acquire()).isEqualTo(4);
+    assertThat(generator.acquire()).isEqualTo(5);
+  }
+
+  @Test
+  public void should_wrap_around_when_reaching_end() {
+    StreamIdGenerator generator = new RotatingStreamIdGenerator(8);
+    for (int i = 0; i < 8; i++) {
+      generator.acquire();
+    }
+    generator.release(6);
+    generator.release(2);
+    assertThat(generator.acquire()).isEqualTo(2);
+    assertThat(generator.acquire()).isEqualTo(6);
+    assertThat(generator.acquire()).isEqualTo(-1);
+
+    generator.release(0);
+    assertThat(generator.acquire()).isEqualTo(0);
+    assertThat(generator.getAvailableIds()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.session.ProgrammaticArguments;
+import com.datastax.oss.driver.api.core.session.throttling.RequestThrottler;
+import com.datastax.oss.driver.api.core.tracker.RequestTracker;
+import com.datastax.oss.driver.internal.core.config.typesafe.DefaultDriverConfigLoader;
+import com.datastax.oss.driver.internal.core.protocol.ByteBufPrimitiveCodec;
+import com.datastax.oss.driver.internal.core.session.throttling.ConcurrencyLimitingRequestThrottler;
+import com.datastax.oss.driver.internal.core.session.throttling.PassThroughRequestThrottler;
+import com.datastax.oss.driver.internal.core.specex.PercentileSpeculativeExecutionPolicy;
+import com.datastax.oss.driver.internal.core.tracker.MultiplexingRequestTracker;
+import com.datastax.oss.protocol.internal.Compressor;
+import com.datastax.oss.protocol.internal.Frame;
+import com.datastax.oss.protocol.internal.FrameCodec;
+import com.datastax.oss.protocol.internal.Message;
+import com.datastax.oss.protocol.internal.PrimitiveCodec;
+import com.datastax.oss.protocol.internal.PrimitiveSizes;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.ProtocolV4ClientCodecs;
+import com.typesafe.config.ConfigFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import java.util.Map;
+import org.junit.Test;
+
+public class DefaultDriverContextTest {
+
+  @Test
+  public void should_share_request_throttler_unless_overridden_in_profile() {
+    // Given
+    DefaultDriverContext context =
+        buildContext(
+            "advanced.throttler {\n"
+                + "  class = ConcurrencyLimitingRequestThrottler\n"
+                + "  max-concurrent-requests = 10\n"
+                + "  max-queue-size = 10\n"
+                + "}\n"
+                + "profiles {\n"
+                + "  oltp { basic.request.timeout = 1 second }\n"
+                + "  export { advanced.throttler.max-concurrent-requests = 2 }\n"
+                + "  analytics { advanced.throttler.class = PassThroughRequestThrottler }\n"
+                + "}");
+
+    // When
+    Map<String, RequestThrottler> throttlers = context.getRequestThrottlers();
+
+    // Then
+    RequestThrottler defaultThrottler = context.getRequestThrottler();
+    assertThat(defaultThrottler).isInstanceOf(ConcurrencyLimitingRequestThrottler.class);
+    assertThat(throttlers.get(DriverExecutionProfile.DEFAULT_NAME)).isSameAs(defaultThrottler);
+    assertThat(throttlers.get("oltp")).isSameAs(defaultThrottler);
+    assertThat(throttlers.get("export"))
+        .isInstanceOf(ConcurrencyLimitingRequestThrottler.class)
+        .isNotSameAs(defaultThrottler);
+    assertThat(throttlers.get("analytics")).isInstanceOf(PassThroughRequestThrottler.class);
+    assertThat(context.getRequestThrottler("export")).isSameAs(throttlers.get("export"));
+    assertThat(context.getRequestThrottler("unknown")).isSameAs(defaultThrottler);
+  }
+
+  @Test
+  public void should_register_speculative_execution_policy_as_request_tracker() {
+    // Given
+    DefaultDriverContext context =
+        buildContext(
+            "advanced.speculative-execution-policy {\n"
+                + "  class = PercentileSpeculativeExecutionPolicy\n"
+                + "  max-executions = 2\n"
+                + "}");
+
+    // When
+    RequestTracker requestTracker = context.getRequestTracker();
+
+    // Then
+    assertThat(context.getSpeculativeExecutionPolicy(DriverExecutionProfile.DEFAULT_NAME))
+        .isInstanceOf(PercentileSpeculativeExecutionPolicy.class);
+    assertThat(requestTracker).isInstanceOf(MultiplexingRequestTracker.class);
+  }
+
+  @Test
+  public void should_use_custom_codecs_for_uncompressed_frames() {
+    // Given
+    DefaultDriverContext context =
+        new DefaultDriverContext(
+            buildConfigLoader("advanced.protocol.compression = lz4"),
+            ProgrammaticArguments.builder().build()) {
+          @Override
+          protected FrameCodec<ByteBuf> buildFrameCodec(Compressor<ByteBuf> compressor) {
+            return new FrameCodec<>(
+                new ByteBufPrimitiveCodec(ByteBufAllocator.DEFAULT),
+                compressor,
+                new ProtocolV4ClientCodecs(),
+                registry -> registry.addEncoder(new CustomRequestCodec()));
+          }
+        };
+    Frame frame =
+        Frame.forRequest(
+            ProtocolConstants.Version.V4, 1, false, Frame.NO_PAYLOAD, new CustomRequest());
+
+    // When
+    ByteBuf compressed = context.getFrameCodec().encode(frame);
+    ByteBuf uncompressed = context.getUncompressedFrameCodec().encode(frame);
+
+    // Then
+    try {
+      assertThat(compressed.getByte(1) & ProtocolConstants.FrameFlag.COMPRESSED).isNotZero();
+      assertThat(compressed.getByte(4)).isEqualTo(CustomRequest.OPCODE);
+      assertThat(uncompressed.getByte(1) & ProtocolConstants.FrameFlag.COMPRESSED).isZero();
+      assertThat(uncompressed.getByte(4)).isEqualTo(CustomRequest.OPCODE);
+    } finally {
+      compressed.release();
+      uncompressed.release();
+    }
+  }
+
+  @Test
+  public void should_fail_if_only_no_arg_frame_codec_method_is_overridden_with_compression() {
+    // Given
+    DefaultDriverContext context =
+        new DefaultDriverContext(
+            buildConfigLoader("advanced.protocol.compression = lz4"),
+            ProgrammaticArguments.builder().build()) {
+          @Override
+          protected FrameCodec<ByteBuf> buildFrameCodec() {
+            return new FrameCodec<>(
+                new ByteBufPrimitiveCodec(ByteBufAllocator.DEFAULT),
+                getCompressor(),
+                new ProtocolV4ClientCodecs(),
+                registry -> registry.addEncoder(new CustomRequestCodec()));
+          }
+        };
+
+    // When
+    Throwable error = catchThrowable(context::getUncompressedFrameCodec);
+
+    // Then
+    assertThat(error)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("override buildFrameCodec(Compressor) instead");
+    // The main codec still comes from the override
+    Frame frame =
+        Frame.forRequest(
+            ProtocolConstants.Version.V4, 1, false, Frame.NO_PAYLOAD, new CustomRequest());
+    ByteBuf compressed = context.getFrameCodec().encode(frame);
+    try {
+      assertThat(compressed.getByte(4)).isEqualTo(CustomRequest.OPCODE);
+    } finally {
+      compressed.release();
+    }
+  }
+
+  private static DefaultDriverContext buildContext(String configSource) {
+    return new DefaultDriverContext(
+        buildConfigLoader(configSource), ProgrammaticArguments.builder().build());
+  }
+
+  private static DriverConfigLoader buildConfigLoader(String configSource) {
+    return new DefaultDriverConfigLoader(
+        () ->
+            ConfigFactory.parseString(configSource)
+                .withFallback(
+                    ConfigFactory.defaultReference()
+                        .getConfig(DefaultDriverConfigLoader.DEFAULT_ROOT_PATH)));
+  }
+
+  private static class CustomRequest extends Message {
+    private static final byte OPCODE = 0x42;
+
+    private CustomRequest() {
+      super(false, OPCODE);
+    }
+  }
+
+  private static class CustomRequestCodec extends Message.Codec {
+
+    private CustomRequestCodec() {
+      super(CustomRequest.OPCODE, ProtocolConstants.Version.V4);
+    }
+
+    @Override
+    public <B> void encode(B dest, Message message, PrimitiveCodec<B> encoder) {
+      encoder.writeString("custom", dest);
+    }
+
+    @Override
+    public int encodedSize(Message message) {
+      return PrimitiveSizes.sizeOfString("custom");
+    }
+
+    @Override
+    public <B> Message decode(B source, PrimitiveCodec<B> decoder) {
+      throw new UnsupportedOperationException("Not used in this test");
+    }
+  }
+}
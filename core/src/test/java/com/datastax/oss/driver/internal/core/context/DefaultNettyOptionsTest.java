@@ -0,0 +1,106 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.session.ProgrammaticArguments;
+import com.datastax.oss.driver.internal.core.config.typesafe.DefaultDriverConfigLoader;
+import com.typesafe.config.ConfigFactory;
+import io.netty.bootstrap.Bootstrap;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.LoggerFactory;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultNettyOptionsTest {
+
+  @Mock private Appender<ILoggingEvent> appender;
+  @Captor private ArgumentCaptor<ILoggingEvent> loggingEventCaptor;
+  private Logger logger;
+  private Level initialLogLevel;
+
+  @Before
+  public void setup() {
+    logger = (Logger) LoggerFactory.getLogger(DefaultNettyOptions.class);
+    initialLogLevel = logger.getLevel();
+    logger.setLevel(Level.WARN);
+    logger.addAppender(appender);
+  }
+
+  @After
+  public void teardown() {
+    logger.detachAppender(appender);
+    logger.setLevel(initialLogLevel);
+  }
+
+  @Test
+  public void should_warn_about_unsupported_native_options_only_once() {
+    // Given
+    DefaultNettyOptions options =
+        new DefaultNettyOptions(
+            new DefaultDriverContext(
+                buildConfigLoader(
+                    "advanced.netty.io-group.transport = nio\n"
+                        + "advanced.socket.tcp-quickack = true\n"
+                        + "advanced.socket.busy-poll = 50 microseconds"),
+                ProgrammaticArguments.builder().build()));
+
+    try {
+      // When
+      for (int i = 0; i < 3; i++) {
+        options.afterBootstrapInitialized(new Bootstrap());
+      }
+
+      // Then
+      verify(appender, atLeast(1)).doAppend(loggingEventCaptor.capture());
+      List<String> warnings =
+          loggingEventCaptor.getAllValues().stream()
+              .filter(e -> e.getLevel() == Level.WARN)
+              .map(ILoggingEvent::getFormattedMessage)
+              .collect(Collectors.toList());
+      assertThat(warnings).hasSize(2);
+      assertThat(warnings.get(0)).contains("advanced.socket.tcp-quickack");
+      assertThat(warnings.get(1)).contains("advanced.socket.busy-poll");
+    } finally {
+      options.onClose();
+    }
+  }
+
+  private static DriverConfigLoader buildConfigLoader(String configSource) {
+    return new DefaultDriverConfigLoader(
+        () ->
+            ConfigFactory.parseString(configSource)
+                .withFallback(
+                    ConfigFactory.defaultReference()
+                        .getConfig(DefaultDriverConfigLoader.DEFAULT_ROOT_PATH)));
+  }
+}
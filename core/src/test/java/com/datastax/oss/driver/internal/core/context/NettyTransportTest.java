@@ -0,0 +1,55 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.Test;
+
+public class NettyTransportTest {
+
+  // Note: the native transport modules are not in the test classpath
+
+  @Test
+  public void should_parse_nio() {
+    assertThat(NettyTransport.fromConfig("nio", "test")).isEqualTo(NettyTransport.NIO);
+    assertThat(NettyTransport.fromConfig("NIO", "test")).isEqualTo(NettyTransport.NIO);
+    assertThat(NettyTransport.NIO.channelClass()).isEqualTo(NioSocketChannel.class);
+  }
+
+  @Test
+  public void should_fall_back_to_nio_if_native_transport_not_available() {
+    assertThat(NettyTransport.EPOLL.isAvailable()).isFalse();
+    assertThat(NettyTransport.IO_URING.isAvailable()).isFalse();
+    assertThat(NettyTransport.fromConfig("auto", "test")).isEqualTo(NettyTransport.NIO);
+    assertThat(NettyTransport.fromConfig("epoll", "test")).isEqualTo(NettyTransport.NIO);
+    assertThat(NettyTransport.fromConfig("io_uring", "test")).isEqualTo(NettyTransport.NIO);
+  }
+
+  @Test
+  public void should_fail_if_unknown_transport() {
+    assertThatThrownBy(() -> NettyTransport.fromConfig("kqueue", "test"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Unsupported Netty transport 'kqueue'");
+  }
+
+  @Test
+  public void should_not_support_native_options_with_nio() {
+    assertThat(NettyTransport.NIO.<Boolean>nativeOption("TCP_QUICKACK")).isNull();
+  }
+}
@@ -163,7 +163,8 @@ public class RequestHandlerTestHarness implements AutoCloseable {
 
     when(context.getWriteTypeRegistry()).thenReturn(new DefaultWriteTypeRegistry());
 
-    when(context.getRequestThrottler()).thenReturn(new PassThroughRequestThrottler(context));
+    when(context.getRequestThrottler(anyString()))
+        .thenReturn(new PassThroughRequestThrottler(context));
 
     when(context.getRequestTracker()).thenReturn(new NoopRequestTracker(context));
   }
@@ -32,6 +32,7 @@ import com.datastax.oss.driver.api.core.context.DriverContext;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.internal.core.metadata.DefaultNode;
 import com.datastax.oss.driver.internal.core.session.DefaultSession;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
@@ -53,6 +54,7 @@ public class DefaultLoadBalancingPolicyQueryPlanTest extends DefaultLoadBalancin
   @Mock private DefaultSession session;
   @Mock private Metadata metadata;
   @Mock private TokenMap tokenMap;
+  @Mock private DefaultNode node6;
 
   private DefaultLoadBalancingPolicy policy;
 
@@ -183,6 +185,33 @@ public class DefaultLoadBalancingPolicyQueryPlanTest extends DefaultLoadBalancin
     verify(session, never()).getPools();
   }
 
+  @Test
+  public void should_prioritize_replicas_in_live_nodes_order() {
+    when(request.getRoutingKeyspace()).thenReturn(KEYSPACE);
+    when(request.getRoutingKey()).thenReturn(ROUTING_KEY);
+    // node6 is not a live node in the local DC, it should be ignored
+    when(tokenMap.getReplicas(KEYSPACE, ROUTING_KEY))
+        .thenReturn(ImmutableSet.of(node5, node6, node2));
+
+    assertThat(policy.newQueryPlan(request, session))
+        .containsExactly(node2, node5, node1, node3, node4);
+    assertThat(policy.newQueryPlan(request, session))
+        .containsExactly(node2, node5, node3, node4, node1);
+  }
+
+  @Test
+  public void should_not_include_down_nodes_in_query_plan() {
+    policy.onDown(node2);
+
+    assertThat(policy.newQueryPlan(request, session)).containsExactly(node1, node3, node4, node5);
+    assertThat(policy.newQueryPlan(request, session)).containsExactly(node3, node4, node5, node1);
+
+    policy.onUp(node2);
+
+    assertThat(policy.newQueryPlan(request, session))
+        .containsExactly(node4, node5, node2, node1, node3);
+  }
+
   static class NonShufflingPolicy extends DefaultLoadBalancingPolicy {
     NonShufflingPolicy(DriverContext context, String profileName) {
       super(context, profileName);
@@ -0,0 +1,239 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.loadbalancing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.UnavailableException;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.internal.core.pool.ChannelPool;
+import com.datastax.oss.driver.internal.core.session.DefaultSession;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import com.datastax.oss.protocol.internal.util.Bytes;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+public class LatencyAwareLoadBalancingPolicyTest extends DefaultLoadBalancingPolicyTestBase {
+
+  private static final CqlIdentifier KEYSPACE = CqlIdentifier.fromInternal("ks");
+  private static final ByteBuffer ROUTING_KEY = Bytes.fromHexString("0xdeadbeef");
+
+  @Mock private Request request;
+  @Mock private DefaultSession session;
+  @Mock private Metadata metadata;
+  @Mock private TokenMap tokenMap;
+  @Mock private ChannelPool pool1;
+  @Mock private ChannelPool pool2;
+  @Mock private ChannelPool pool3;
+
+  private TestPolicy policy;
+
+  @Before
+  @Override
+  public void setup() {
+    super.setup();
+
+    when(defaultProfile.getDuration(DefaultDriverOption.LOAD_BALANCING_LATENCY_HALF_LIFE))
+        .thenReturn(Duration.ofSeconds(1));
+    when(defaultProfile.getInt(DefaultDriverOption.LOAD_BALANCING_EXCLUSION_IN_FLIGHT))
+        .thenReturn(100);
+    when(defaultProfile.getDouble(DefaultDriverOption.LOAD_BALANCING_EXCLUSION_LATENCY_RATIO))
+        .thenReturn(3.0);
+
+    when(metadataManager.getContactPoints()).thenReturn(ImmutableSet.of(node1));
+    when(metadataManager.getMetadata()).thenReturn(metadata);
+    when(metadata.getTokenMap()).thenAnswer(invocation -> Optional.of(this.tokenMap));
+
+    when(request.getRoutingKeyspace()).thenReturn(KEYSPACE);
+    when(request.getRoutingKey()).thenReturn(ROUTING_KEY);
+    when(tokenMap.getReplicas(KEYSPACE, ROUTING_KEY))
+        .thenReturn(ImmutableSet.of(node1, node2, node3));
+    when(session.getPools()).thenReturn(ImmutableMap.of(node1, pool1, node2, pool2, node3, pool3));
+
+    policy = new TestPolicy(context, DriverExecutionProfile.DEFAULT_NAME);
+    policy.init(
+        ImmutableMap.of(
+            UUID.randomUUID(), node1,
+            UUID.randomUUID(), node2,
+            UUID.randomUUID(), node3,
+            UUID.randomUUID(), node4,
+            UUID.randomUUID(), node5),
+        distanceReporter);
+  }
+
+  @Test
+  public void should_rank_replicas_by_in_flight_count_if_no_latencies() {
+    when(pool1.getInFlight()).thenReturn(5);
+    when(pool2.getInFlight()).thenReturn(1);
+    when(pool3.getInFlight()).thenReturn(3);
+
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node2, node3, node1);
+  }
+
+  @Test
+  public void should_rank_replicas_by_latency() {
+    recordLatency(node1, 10);
+    recordLatency(node2, 5);
+    recordLatency(node3, 8);
+
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node2, node3, node1);
+  }
+
+  @Test
+  public void should_combine_latency_and_in_flight_count() {
+    recordLatency(node1, 4);
+    recordLatency(node2, 2);
+    recordLatency(node3, 5);
+    when(pool1.getInFlight()).thenReturn(1); // cost 8
+    when(pool2.getInFlight()).thenReturn(4); // cost 10
+    when(pool3.getInFlight()).thenReturn(0); // cost 5
+
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node3, node1, node2);
+  }
+
+  @Test
+  public void should_assume_best_latency_for_replicas_without_samples() {
+    recordLatency(node1, 10);
+    recordLatency(node2, 5);
+    when(pool3.getInFlight()).thenReturn(1); // cost 10, same as node1 but node1 comes first
+
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node2, node1, node3);
+  }
+
+  @Test
+  public void should_exclude_replica_with_high_latency() {
+    recordLatency(node1, 20); // more than 3 times node2's
+    recordLatency(node2, 5);
+    recordLatency(node3, 5);
+    when(pool2.getInFlight()).thenReturn(9); // cost 50, still better than excluded node1
+    when(pool3.getInFlight()).thenReturn(1); // cost 10
+
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node3, node2, node1);
+  }
+
+  @Test
+  public void should_exclude_replica_with_too_many_in_flight_requests() {
+    recordLatency(node1, 1);
+    recordLatency(node2, 2);
+    recordLatency(node3, 2);
+    when(pool1.getInFlight()).thenReturn(100);
+    when(pool2.getInFlight()).thenReturn(80);
+
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node3, node2, node1);
+  }
+
+  @Test
+  public void should_decay_old_latencies() {
+    recordLatency(node1, 100);
+    recordLatency(node2, 10);
+    policy.now += TimeUnit.SECONDS.toNanos(1);
+    // One half-life later, a new sample counts for half the average
+    recordLatency(node1, 20);
+
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node2, node3, node1);
+    policy.now += TimeUnit.SECONDS.toNanos(1);
+    recordLatency(node1, 20);
+    policy.now += TimeUnit.SECONDS.toNanos(1);
+    recordLatency(node1, 20);
+    // node1 is now at 30ms, which is no longer above the exclusion threshold
+    when(pool2.getInFlight()).thenReturn(3); // cost 40
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node3, node1, node2);
+  }
+
+  @Test
+  public void should_ignore_stale_latencies() {
+    recordLatency(node1, 100);
+    recordLatency(node2, 10);
+    policy.now += TimeUnit.SECONDS.toNanos(6);
+    when(pool1.getInFlight()).thenReturn(0);
+    when(pool2.getInFlight()).thenReturn(1);
+    when(pool3.getInFlight()).thenReturn(2);
+
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node1, node2, node3);
+  }
+
+  @Test
+  public void should_forget_latencies_of_removed_node() {
+    recordLatency(node1, 100);
+    recordLatency(node2, 10);
+    policy.onRemove(node1);
+    policy.onAdd(node1);
+    policy.onUp(node1);
+    when(pool2.getInFlight()).thenReturn(1); // cost 20
+
+    // If node1's latency had been kept, it would be excluded
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node3, node1, node2);
+  }
+
+  @Test
+  public void should_record_timeouts_but_ignore_fast_errors() {
+    recordLatency(node1, 10);
+    recordLatency(node2, 10);
+    recordLatency(node3, 8);
+    policy.now += TimeUnit.SECONDS.toNanos(1);
+    // node1 quickly rejects requests, node2 times out (its average goes up to 55ms)
+    recordError(node1, mock(UnavailableException.class), 1);
+    recordError(node2, mock(ReadTimeoutException.class), 100);
+
+    // If the unavailable error had been recorded, node1 would be ranked first
+    assertThat(policy.newQueryPlan(request, session)).startsWith(node3, node1, node2);
+  }
+
+  private void recordError(Node node, Throwable error, long millis) {
+    policy.onNodeError(
+        request, error, TimeUnit.MILLISECONDS.toNanos(millis), defaultProfile, node, "test");
+  }
+
+  private void recordLatency(Node node, long millis) {
+    policy.updateLatency(node, TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  static class TestPolicy extends LatencyAwareLoadBalancingPolicy {
+
+    long now = 1;
+
+    TestPolicy(DriverContext context, String profileName) {
+      super(context, profileName);
+    }
+
+    @Override
+    protected void shuffleHead(Object[] currentNodes, int replicaCount) {
+      // nothing (keep in same order)
+    }
+
+    @Override
+    long nanoTime() {
+      return now;
+    }
+  }
+}
@@ -357,6 +357,99 @@ public class DefaultTokenMapTest {
         .containsEntry(KS2, REPLICATE_ON_BOTH_DCS);
   }
 
+  @Test
+  public void should_share_keyspace_data_between_equivalent_replication_settings() {
+    // Given
+    Node node1 = mockNode(DC1, RACK1, ImmutableSet.of(TOKEN1));
+    Node node2 = mockNode(DC2, RACK2, ImmutableSet.of(TOKEN2));
+    List<Node> nodes = ImmutableList.of(node1, node2);
+    List<KeyspaceMetadata> keyspaces =
+        ImmutableList.of(
+            mockKeyspace(KS1, REPLICATE_ON_DC1),
+            mockKeyspace(
+                KS2,
+                ImmutableMap.of(
+                    "class",
+                    "org.apache.cassandra.locator.NetworkTopologyStrategy",
+                    DC1,
+                    "1",
+                    DC2,
+                    "0")));
+
+    // When
+    DefaultTokenMap tokenMap =
+        DefaultTokenMap.build(nodes, keyspaces, TOKEN_FACTORY, replicationStrategyFactory, "test");
+
+    // Then
+    assertThat(tokenMap.keyspaceMaps).containsOnlyKeys(REPLICATE_ON_DC1);
+    assertThat(tokenMap.replicationConfigs.get(KS2)).isSameAs(tokenMap.replicationConfigs.get(KS1));
+    assertThat(tokenMap.getReplicas(KS2, ROUTING_KEY12)).containsOnly(node1);
+  }
+
+  @Test
+  public void should_not_rebuild_when_token_ownership_has_not_changed() {
+    // Given
+    Node node1 = mockNode(DC1, RACK1, ImmutableSet.of(TOKEN1));
+    Node node2 = mockNode(DC2, RACK2, ImmutableSet.of(TOKEN2));
+    List<Node> nodes = ImmutableList.of(node1, node2);
+    List<KeyspaceMetadata> keyspaces = ImmutableList.of(mockKeyspace(KS1, REPLICATE_ON_BOTH_DCS));
+    DefaultTokenMap oldTokenMap =
+        DefaultTokenMap.build(nodes, keyspaces, TOKEN_FACTORY, replicationStrategyFactory, "test");
+
+    // When
+    // For example a node was removed and added back with the same tokens
+    DefaultTokenMap newTokenMap = oldTokenMap.rebuild(nodes, keyspaces, replicationStrategyFactory);
+
+    // Then
+    assertThat(newTokenMap).isSameAs(oldTokenMap);
+  }
+
+  @Test
+  public void should_rebuild_incrementally_when_node_added() {
+    // Given
+    Node node1 = mockNode(DC1, RACK1, ImmutableSet.of(TOKEN1));
+    Node node2 = mockNode(DC2, RACK2, ImmutableSet.of(TOKEN2));
+    Node node3 = mockNode(DC1, RACK1, ImmutableSet.of(TOKEN3));
+    Node node4 = mockNode(DC2, RACK2, ImmutableSet.of(TOKEN4));
+    List<KeyspaceMetadata> keyspaces =
+        ImmutableList.of(
+            mockKeyspace(KS1, REPLICATE_ON_BOTH_DCS), mockKeyspace(KS2, REPLICATE_ON_DC1));
+    DefaultTokenMap oldTokenMap =
+        DefaultTokenMap.build(
+            ImmutableList.of(node1, node2, node3),
+            keyspaces,
+            TOKEN_FACTORY,
+            replicationStrategyFactory,
+            "test");
+
+    // When
+    // node4 is in DC2, so the data for KS2 gets adapted instead of recomputed
+    List<Node> newNodes = ImmutableList.of(node1, node2, node3, node4);
+    DefaultTokenMap newTokenMap =
+        oldTokenMap.rebuild(newNodes, keyspaces, replicationStrategyFactory);
+
+    // Then
+    // Same results as if the map had been built from scratch
+    DefaultTokenMap expectedTokenMap =
+        DefaultTokenMap.build(
+            newNodes, keyspaces, TOKEN_FACTORY, replicationStrategyFactory, "test");
+    assertThat(newTokenMap.tokenRanges).isEqualTo(expectedTokenMap.tokenRanges);
+    assertThat(newTokenMap.tokenRangesByPrimary).isEqualTo(expectedTokenMap.tokenRangesByPrimary);
+    for (CqlIdentifier keyspace : ImmutableList.of(KS1, KS2)) {
+      for (Node node : newNodes) {
+        assertThat(newTokenMap.getTokenRanges(keyspace, node))
+            .isEqualTo(expectedTokenMap.getTokenRanges(keyspace, node));
+      }
+      for (ByteBuffer key :
+          ImmutableList.of(ROUTING_KEY12, ROUTING_KEY23, ROUTING_KEY34, ROUTING_KEY41)) {
+        assertThat(newTokenMap.getReplicas(keyspace, key))
+            .isEqualTo(expectedTokenMap.getReplicas(keyspace, key));
+      }
+    }
+    assertThat(newTokenMap.getReplicas(KS2, ROUTING_KEY34)).containsOnly(node1);
+    assertThat(newTokenMap.getTokenRanges(KS2, node4)).isEmpty();
+  }
+
   private DefaultNode mockNode(String dc, String rack, Set<String> tokens) {
     DefaultNode node = mock(DefaultNode.class);
     when(node.getDatacenter()).thenReturn(dc);
@@ -0,0 +1,118 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.metrics.DefaultSessionMetric;
+import com.datastax.oss.driver.api.core.metrics.SessionMetric;
+import com.datastax.oss.driver.api.core.session.throttling.RequestThrottler;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.session.throttling.ConcurrencyLimitingRequestThrottler;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DropwizardSessionMetricUpdaterTest {
+
+  private static final Set<SessionMetric> ENABLED_METRICS =
+      ImmutableSet.of(DefaultSessionMetric.THROTTLING_QUEUE_SIZE);
+
+  @Mock private InternalDriverContext context;
+  @Mock private DriverConfig config;
+  @Mock private DriverExecutionProfile defaultProfile;
+
+  private MetricRegistry registry;
+
+  @Before
+  public void setup() {
+    when(context.getSessionName()).thenReturn("s0");
+    when(context.getConfig()).thenReturn(config);
+    when(config.getDefaultProfile()).thenReturn(defaultProfile);
+    registry = new MetricRegistry();
+  }
+
+  @Test
+  public void should_only_register_total_queue_size_if_single_throttler() {
+    // Given
+    RequestThrottler throttler = mockThrottler(3);
+    when(context.getRequestThrottlers())
+        .thenReturn(
+            ImmutableMap.of(DriverExecutionProfile.DEFAULT_NAME, throttler, "olap", throttler));
+
+    // When
+    new DropwizardSessionMetricUpdater(ENABLED_METRICS, registry, context);
+
+    // Then
+    assertThat(registry.getGauges().keySet()).containsExactly("s0.throttling.queue-size");
+    assertThat(queueSize("s0.throttling.queue-size")).isEqualTo(3);
+  }
+
+  @Test
+  public void should_register_queue_size_per_distinct_throttler() {
+    // Given
+    RequestThrottler defaultThrottler = mockThrottler(3);
+    RequestThrottler olapThrottler = mockThrottler(5);
+    Map<String, RequestThrottler> throttlers =
+        ImmutableMap.of(
+            "olap",
+            olapThrottler,
+            DriverExecutionProfile.DEFAULT_NAME,
+            defaultThrottler,
+            "olap2",
+            olapThrottler,
+            "oltp",
+            defaultThrottler);
+    when(context.getRequestThrottlers()).thenReturn(throttlers);
+
+    // When
+    new DropwizardSessionMetricUpdater(ENABLED_METRICS, registry, context);
+
+    // Then
+    assertThat(registry.getGauges().keySet())
+        .containsOnly(
+            "s0.throttling.queue-size",
+            "s0.throttling.queue-size.default",
+            "s0.throttling.queue-size.olap");
+    assertThat(queueSize("s0.throttling.queue-size")).isEqualTo(8);
+    assertThat(queueSize("s0.throttling.queue-size.default")).isEqualTo(3);
+    assertThat(queueSize("s0.throttling.queue-size.olap")).isEqualTo(5);
+  }
+
+  private static RequestThrottler mockThrottler(int queueSize) {
+    ConcurrencyLimitingRequestThrottler throttler = mock(ConcurrencyLimitingRequestThrottler.class);
+    when(throttler.getQueueSize()).thenReturn(queueSize);
+    return throttler;
+  }
+
+  private Object queueSize(String name) {
+    Gauge<?> gauge = registry.getGauges().get(name);
+    return gauge.getValue();
+  }
+}
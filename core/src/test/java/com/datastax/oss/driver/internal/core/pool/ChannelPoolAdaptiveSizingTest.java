@@ -0,0 +1,211 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.pool;
+
+import static com.datastax.oss.driver.Assertions.assertThat;
+import static com.datastax.oss.driver.Assertions.assertThatStage;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.loadbalancing.NodeDistance;
+import com.datastax.oss.driver.internal.core.channel.ChannelEvent;
+import com.datastax.oss.driver.internal.core.channel.DriverChannel;
+import com.datastax.oss.driver.internal.core.channel.MockChannelFactoryHelper;
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class ChannelPoolAdaptiveSizingTest extends ChannelPoolTestBase {
+
+  @Before
+  @Override
+  public void setup() {
+    super.setup();
+    when(reconnectionSchedule.nextDelay()).thenReturn(Duration.ofNanos(1));
+
+    when(defaultProfile.getInt(DefaultDriverOption.CONNECTION_POOL_LOCAL_SIZE)).thenReturn(1);
+    when(defaultProfile.isDefined(DefaultDriverOption.CONNECTION_POOL_LOCAL_MAX_SIZE))
+        .thenReturn(true);
+    when(defaultProfile.getInt(DefaultDriverOption.CONNECTION_POOL_LOCAL_MAX_SIZE)).thenReturn(2);
+    when(defaultProfile.getDouble(DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_GROW_THRESHOLD))
+        .thenReturn(0.75);
+    when(defaultProfile.getDouble(DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_SHRINK_THRESHOLD))
+        .thenReturn(0.25);
+    when(defaultProfile.getDuration(DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_SHRINK_DELAY))
+        .thenReturn(Duration.ofDays(2));
+  }
+
+  @Test
+  public void should_grow_when_utilization_is_high_and_shrink_when_it_stays_low() throws Exception {
+    DriverChannel channel1 = newMockDriverChannel(1);
+    DriverChannel channel2 = newMockDriverChannel(2);
+    MockChannelFactoryHelper factoryHelper =
+        MockChannelFactoryHelper.builder(channelFactory)
+            .success(node, channel1)
+            .success(node, channel2)
+            .build();
+    InOrder inOrder = inOrder(eventBus);
+
+    CompletionStage<ChannelPool> poolFuture =
+        ChannelPool.init(node, null, NodeDistance.LOCAL, context, "test");
+
+    factoryHelper.waitForCalls(node, 1);
+    waitForPendingAdminTasks();
+    assertThatStage(poolFuture).isSuccess();
+    ChannelPool pool = poolFuture.toCompletableFuture().get();
+    assertThat(pool.channels).containsOnly(channel1);
+    inOrder.verify(eventBus).fire(ChannelEvent.channelOpened(node));
+
+    // Utilization is below the grow threshold: nothing happens
+    when(channel1.getInFlight()).thenReturn(512);
+    when(channel1.getAvailableIds()).thenReturn(512);
+    pool.checkUtilization();
+    waitForPendingAdminTasks();
+    assertThat(pool.channels).containsOnly(channel1);
+
+    // Utilization is above the grow threshold: a channel gets added
+    when(channel1.getInFlight()).thenReturn(1000);
+    when(channel1.getAvailableIds()).thenReturn(24);
+    pool.checkUtilization();
+    factoryHelper.waitForCalls(node, 1);
+    waitForPendingAdminTasks();
+    inOrder.verify(eventBus).fire(ChannelEvent.reconnectionStarted(node));
+    inOrder.verify(eventBus).fire(ChannelEvent.channelOpened(node));
+    inOrder.verify(eventBus).fire(ChannelEvent.reconnectionStopped(node));
+    assertThat(pool.channels).containsOnly(channel1, channel2);
+
+    // Max size reached: no more growth
+    when(channel2.getInFlight()).thenReturn(1000);
+    when(channel2.getAvailableIds()).thenReturn(24);
+    pool.checkUtilization();
+    waitForPendingAdminTasks();
+    assertThat(pool.channels).containsOnly(channel1, channel2);
+
+    // Utilization drops, the pool shrinks after the delay (two checks)
+    when(channel1.getInFlight()).thenReturn(0);
+    when(channel1.getAvailableIds()).thenReturn(1024);
+    when(channel2.getInFlight()).thenReturn(0);
+    when(channel2.getAvailableIds()).thenReturn(1024);
+    pool.checkUtilization();
+    waitForPendingAdminTasks();
+    assertThat(pool.channels).containsOnly(channel1, channel2);
+    inOrder.verify(eventBus, never()).fire(ChannelEvent.channelClosed(node));
+
+    pool.checkUtilization();
+    waitForPendingAdminTasks();
+    inOrder.verify(eventBus).fire(ChannelEvent.channelClosed(node));
+    assertThat(pool.channels).hasSize(1);
+
+    // Min size reached: no more shrinking
+    pool.checkUtilization();
+    pool.checkUtilization();
+    waitForPendingAdminTasks();
+    assertThat(pool.channels).hasSize(1);
+
+    factoryHelper.verifyNoMoreCalls();
+  }
+
+  @Test
+  public void should_reset_shrink_delay_if_utilization_goes_back_up() throws Exception {
+    DriverChannel channel1 = newMockDriverChannel(1);
+    DriverChannel channel2 = newMockDriverChannel(2);
+    MockChannelFactoryHelper factoryHelper =
+        MockChannelFactoryHelper.builder(channelFactory)
+            .success(node, channel1)
+            .success(node, channel2)
+            .build();
+    InOrder inOrder = inOrder(eventBus);
+
+    CompletionStage<ChannelPool> poolFuture =
+        ChannelPool.init(node, null, NodeDistance.LOCAL, context, "test");
+    factoryHelper.waitForCalls(node, 1);
+    waitForPendingAdminTasks();
+    ChannelPool pool = poolFuture.toCompletableFuture().get();
+
+    when(channel1.getInFlight()).thenReturn(1000);
+    when(channel1.getAvailableIds()).thenReturn(24);
+    pool.checkUtilization();
+    factoryHelper.waitForCalls(node, 1);
+    waitForPendingAdminTasks();
+    assertThat(pool.channels).containsOnly(channel1, channel2);
+
+    // Low, then medium, then low again: the two low checks are not consecutive
+    when(channel1.getInFlight()).thenReturn(0);
+    when(channel1.getAvailableIds()).thenReturn(1024);
+    when(channel2.getInFlight()).thenReturn(0);
+    when(channel2.getAvailableIds()).thenReturn(1024);
+    pool.checkUtilization();
+    waitForPendingAdminTasks();
+    when(channel1.getInFlight()).thenReturn(512);
+    when(channel1.getAvailableIds()).thenReturn(512);
+    pool.checkUtilization();
+    waitForPendingAdminTasks();
+    when(channel1.getInFlight()).thenReturn(0);
+    when(channel1.getAvailableIds()).thenReturn(1024);
+    pool.checkUtilization();
+    waitForPendingAdminTasks();
+
+    inOrder.verify(eventBus, times(2)).fire(ChannelEvent.channelOpened(node));
+    inOrder.verify(eventBus, never()).fire(ChannelEvent.channelClosed(node));
+    assertThat(pool.channels).containsOnly(channel1, channel2);
+
+    factoryHelper.verifyNoMoreCalls();
+  }
+
+  @Test
+  public void should_start_adaptive_sizing_if_max_size_is_set_at_runtime() throws Exception {
+    when(defaultProfile.isDefined(DefaultDriverOption.CONNECTION_POOL_LOCAL_MAX_SIZE))
+        .thenReturn(false);
+    when(defaultProfile.getDuration(DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_INTERVAL))
+        .thenReturn(Duration.ofMillis(10));
+    DriverChannel channel1 = newMockDriverChannel(1);
+    DriverChannel channel2 = newMockDriverChannel(2);
+    MockChannelFactoryHelper factoryHelper =
+        MockChannelFactoryHelper.builder(channelFactory)
+            .success(node, channel1)
+            .success(node, channel2)
+            .build();
+
+    CompletionStage<ChannelPool> poolFuture =
+        ChannelPool.init(node, null, NodeDistance.LOCAL, context, "test");
+
+    factoryHelper.waitForCalls(node, 1);
+    waitForPendingAdminTasks();
+    assertThatStage(poolFuture).isSuccess();
+    ChannelPool pool = poolFuture.toCompletableFuture().get();
+    when(channel1.getInFlight()).thenReturn(1000);
+    when(channel1.getAvailableIds()).thenReturn(24);
+
+    // The periodic check runs, but does nothing while max-size is not set
+    TimeUnit.MILLISECONDS.sleep(50);
+    waitForPendingAdminTasks();
+    assertThat(pool.channels).containsOnly(channel1);
+
+    when(defaultProfile.isDefined(DefaultDriverOption.CONNECTION_POOL_LOCAL_MAX_SIZE))
+        .thenReturn(true);
+    factoryHelper.waitForCalls(node, 1);
+    waitForPendingAdminTasks();
+    assertThat(pool.channels).containsOnly(channel1, channel2);
+
+    factoryHelper.verifyNoMoreCalls();
+  }
+}
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
 import com.datastax.oss.driver.api.core.config.DriverConfig;
 import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.connection.ReconnectionPolicy;
@@ -84,6 +85,9 @@ abstract class ChannelPoolTestBase {
     // By default, set a large reconnection delay. Tests that care about reconnection will override
     // it.
     when(reconnectionSchedule.nextDelay()).thenReturn(Duration.ofDays(1));
+    // Same for adaptive sizing, checks are triggered manually by the tests that care about it
+    when(defaultProfile.getDuration(DefaultDriverOption.CONNECTION_POOL_ADAPTIVE_INTERVAL))
+        .thenReturn(Duration.ofDays(1));
 
     when(context.getMetricsFactory()).thenReturn(metricsFactory);
     when(metricsFactory.newNodeUpdater(any(Node.class))).thenReturn(nodeMetricUpdater);
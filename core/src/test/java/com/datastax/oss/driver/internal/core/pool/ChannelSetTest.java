@@ -16,11 +16,15 @@
 package com.datastax.oss.driver.internal.core.pool;
 
 import static com.datastax.oss.driver.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.internal.core.channel.DriverChannel;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -79,6 +83,133 @@ public class ChannelSetTest {
     assertThat(set.next()).isEqualTo(channel1);
   }
 
+  @Test
+  public void should_return_null_when_all_full() {
+    // Given
+    set.add(channel1);
+    set.add(channel2);
+    set.add(channel3);
+
+    // Then
+    assertThat(set.next()).isNull();
+  }
+
+  @Test
+  public void should_return_better_of_two_random_channels_when_power_of_two_choices() {
+    // Given
+    set = new ChannelSet(true, false);
+    when(channel1.getAvailableIds()).thenReturn(2);
+    when(channel2.getAvailableIds()).thenReturn(12);
+    when(channel3.getAvailableIds()).thenReturn(8);
+    set.add(channel1);
+    set.add(channel2);
+    set.add(channel3);
+
+    // Then
+    for (int i = 0; i < 100; i++) {
+      // Always compared with a better channel
+      assertThat(set.next()).isNotEqualTo(channel1);
+    }
+  }
+
+  @Test
+  public void should_fall_back_to_scan_when_power_of_two_choices_picks_full_channels() {
+    // Given
+    set = new ChannelSet(true, false);
+    when(channel3.getAvailableIds()).thenReturn(1);
+    set.add(channel1);
+    set.add(channel2);
+    set.add(channel3);
+
+    // Then
+    for (int i = 0; i < 100; i++) {
+      assertThat(set.next()).isEqualTo(channel3);
+    }
+
+    // When
+    when(channel3.getAvailableIds()).thenReturn(0);
+
+    // Then
+    assertThat(set.next()).isNull();
+  }
+
+  @Test
+  public void should_prefer_channels_on_current_event_loop_when_affinity() throws Throwable {
+    // Given
+    set = new ChannelSet(false, true);
+    EventLoop currentLoop = mock(EventLoop.class);
+    when(currentLoop.inEventLoop()).thenReturn(true);
+    EventLoop otherLoop = mock(EventLoop.class);
+    when(channel1.eventLoop()).thenReturn(otherLoop);
+    when(channel2.eventLoop()).thenReturn(currentLoop);
+    when(channel3.eventLoop()).thenReturn(otherLoop);
+    when(channel1.getAvailableIds()).thenReturn(12);
+    when(channel2.getAvailableIds()).thenReturn(2);
+    when(channel3.getAvailableIds()).thenReturn(8);
+    set.add(channel1);
+    set.add(channel2);
+    set.add(channel3);
+
+    onDriverThread(
+        () -> {
+          // Then
+          assertThat(set.next()).isEqualTo(channel2);
+
+          // When
+          when(channel2.getAvailableIds()).thenReturn(0);
+
+          // Then
+          assertThat(set.next()).isEqualTo(channel1);
+
+          // When
+          when(currentLoop.inEventLoop()).thenReturn(false);
+          when(channel2.getAvailableIds()).thenReturn(2);
+
+          // Then
+          assertThat(set.next()).isEqualTo(channel1);
+        });
+  }
+
+  @Test
+  public void should_not_scan_event_loops_from_non_driver_thread_when_affinity() {
+    // Given
+    set = new ChannelSet(false, true);
+    when(channel1.getAvailableIds()).thenReturn(12);
+    when(channel2.getAvailableIds()).thenReturn(2);
+    when(channel3.getAvailableIds()).thenReturn(8);
+    set.add(channel1);
+    set.add(channel2);
+    set.add(channel3);
+
+    // When
+    DriverChannel next = set.next();
+
+    // Then
+    assertThat(next).isEqualTo(channel1);
+    verify(channel1, never()).eventLoop();
+    verify(channel2, never()).eventLoop();
+    verify(channel3, never()).eventLoop();
+  }
+
+  /** Runs the given action on a thread that looks like a driver I/O thread, and waits for it. */
+  private static void onDriverThread(Runnable action) throws Throwable {
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Thread thread =
+        new FastThreadLocalThread(
+            () -> {
+              try {
+                action.run();
+              } catch (Throwable t) {
+                error.set(t);
+              }
+            });
+    thread.start();
+    thread.join();
+    if (error.get() != null) {
+      throw error.get();
+    }
+  }
+
   @Test
   public void should_remove_channels() {
     // Given
@@ -0,0 +1,112 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.metrics.DefaultNodeMetric;
+import com.datastax.oss.driver.internal.core.channel.ChannelHandlerTestBase;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.metrics.NodeMetricUpdater;
+import com.datastax.oss.driver.shaded.guava.common.base.Strings;
+import com.datastax.oss.protocol.internal.Compressor;
+import com.datastax.oss.protocol.internal.Frame;
+import com.datastax.oss.protocol.internal.FrameCodec;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.request.Query;
+import io.netty.buffer.ByteBuf;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class FrameEncoderTest extends ChannelHandlerTestBase {
+
+  private static final int MAX_FRAME_LENGTH = 256 * 1024 * 1024;
+  private static final int THRESHOLD = 512;
+
+  @Mock private InternalDriverContext context;
+  @Mock private NodeMetricUpdater metricUpdater;
+
+  private FrameCodec<ByteBuf> uncompressedCodec;
+  private FrameCodec<ByteBuf> serverCodec;
+
+  @Before
+  @Override
+  public void setup() {
+    super.setup();
+    MockitoAnnotations.initMocks(this);
+    when(context.getSessionName()).thenReturn("test");
+
+    ByteBufPrimitiveCodec primitiveCodec = new ByteBufPrimitiveCodec(channel.alloc());
+    Lz4Compressor compressor = new Lz4Compressor(context);
+    uncompressedCodec = FrameCodec.defaultClient(primitiveCodec, Compressor.none());
+    serverCodec = FrameCodec.defaultServer(primitiveCodec, compressor);
+
+    channel
+        .pipeline()
+        .addLast(
+            new FrameEncoder(
+                uncompressedCodec, MAX_FRAME_LENGTH, compressor, THRESHOLD, metricUpdater));
+  }
+
+  @Test
+  public void should_not_compress_frame_below_threshold() {
+    channel.writeOutbound(requestFrame("SELECT * FROM foo"));
+
+    ByteBuf encoded = channel.readOutbound();
+    assertThat(encoded.getByte(encoded.readerIndex() + 1) & ProtocolConstants.FrameFlag.COMPRESSED)
+        .isZero();
+    Frame decoded = serverCodec.decode(encoded);
+    assertThat(((Query) decoded.message).query).isEqualTo("SELECT * FROM foo");
+    encoded.release();
+
+    verify(metricUpdater, never())
+        .updateHistogram(eq(DefaultNodeMetric.COMPRESSION_RATIO), isNull(), anyLong());
+  }
+
+  @Test
+  public void should_compress_frame_above_threshold() {
+    String query = "SELECT * FROM foo WHERE k IN (" + Strings.repeat("1,", 5000) + "1)";
+    channel.writeOutbound(requestFrame(query));
+
+    ByteBuf encoded = channel.readOutbound();
+    assertThat(encoded.getByte(encoded.readerIndex() + 1) & ProtocolConstants.FrameFlag.COMPRESSED)
+        .isEqualTo(ProtocolConstants.FrameFlag.COMPRESSED);
+    assertThat(encoded.readableBytes()).isLessThan(query.length());
+    Frame decoded = serverCodec.decode(encoded);
+    assertThat(((Query) decoded.message).query).isEqualTo(query);
+    encoded.release();
+
+    verify(metricUpdater)
+        .updateHistogram(eq(DefaultNodeMetric.COMPRESSION_RATIO), isNull(), anyLong());
+    verify(metricUpdater)
+        .updateTimer(
+            eq(DefaultNodeMetric.COMPRESSION_TIME), isNull(), anyLong(), eq(TimeUnit.NANOSECONDS));
+  }
+
+  private static Frame requestFrame(String query) {
+    return Frame.forRequest(
+        ProtocolConstants.Version.V4, 1, false, Frame.NO_PAYLOAD, new Query(query));
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.protocol.internal.Compressor;
+import com.datastax.oss.protocol.internal.Frame;
+import com.datastax.oss.protocol.internal.FrameCodec;
+import com.datastax.oss.protocol.internal.Message;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.ProtocolV4ClientCodecs;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.DefaultRows;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+import com.datastax.oss.protocol.internal.response.result.RowsMetadata;
+import com.datastax.oss.protocol.internal.response.result.SetKeyspace;
+import com.datastax.oss.protocol.internal.util.Bytes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LazyRowsTest {
+
+  private static final int VERSION = ProtocolConstants.Version.V4;
+
+  private FrameCodec<ByteBuf> serverCodec;
+  private FrameCodec<ByteBuf> clientCodec;
+
+  @Before
+  public void setup() {
+    ByteBufPrimitiveCodec primitiveCodec = new ByteBufPrimitiveCodec(ByteBufAllocator.DEFAULT);
+    serverCodec = FrameCodec.defaultServer(primitiveCodec, Compressor.none());
+    clientCodec =
+        new FrameCodec<>(
+            primitiveCodec,
+            Compressor.none(),
+            new LazyRowsCodecGroup(new ProtocolV4ClientCodecs()));
+  }
+
+  @Test
+  public void should_decode_rows_lazily() {
+    LazyRows rows =
+        roundTrip(
+            Arrays.asList(
+                Arrays.asList(Bytes.fromHexString("0x00000001"), Bytes.fromHexString("0xcafe")),
+                Arrays.asList(Bytes.fromHexString("0x00000002"), null),
+                Arrays.asList(Bytes.fromHexString("0x00000003"), ByteBuffer.allocate(0))));
+
+    Queue<List<ByteBuffer>> data = rows.getData();
+    assertThat(data).hasSize(3);
+
+    List<ByteBuffer> row1 = data.poll();
+    assertThat(data).hasSize(2);
+    assertThat(row1)
+        .containsExactly(Bytes.fromHexString("0x00000001"), Bytes.fromHexString("0xcafe"));
+    // Buffers start at position 0, like the ones produced by the default decoder
+    assertThat(row1.get(1).position()).isEqualTo(0);
+    assertThat(Bytes.toHexString(row1.get(1))).isEqualTo("0xcafe");
+
+    // Peeking does not consume the row
+    assertThat(data.peek()).containsExactly(Bytes.fromHexString("0x00000002"), null);
+    assertThat(data.poll()).containsExactly(Bytes.fromHexString("0x00000002"), null);
+
+    List<ByteBuffer> row3 = data.poll();
+    assertThat(row3.get(1).remaining()).isEqualTo(0);
+    assertThat(data).isEmpty();
+    assertThat(data.poll()).isNull();
+    assertThat(data.peek()).isNull();
+
+    // Consumed rows remain readable
+    assertThat(row1.get(0)).isEqualTo(Bytes.fromHexString("0x00000001"));
+  }
+
+  @Test
+  public void should_create_cell_buffer_only_once() {
+    LazyRows rows =
+        roundTrip(
+            Collections.singletonList(
+                Arrays.asList(Bytes.fromHexString("0x00000001"), Bytes.fromHexString("0xcafe"))));
+
+    List<ByteBuffer> row = rows.getData().poll();
+
+    assertThat(row.get(1)).isSameAs(row.get(1));
+    assertThat(row.get(0)).isNotSameAs(row.get(1));
+  }
+
+  @Test
+  public void should_iterate_without_consuming() {
+    LazyRows rows =
+        roundTrip(
+            Arrays.asList(
+                Collections.singletonList(Bytes.fromHexString("0x00000001")),
+                Collections.singletonList(Bytes.fromHexString("0x00000002")),
+                Collections.singletonList(Bytes.fromHexString("0x00000003"))));
+    Queue<List<ByteBuffer>> data = rows.getData();
+    data.poll();
+
+    assertThat(data)
+        .containsExactly(
+            Collections.singletonList(Bytes.fromHexString("0x00000002")),
+            Collections.singletonList(Bytes.fromHexString("0x00000003")));
+    assertThat(data).hasSize(2);
+  }
+
+  @Test
+  public void should_decode_empty_page() {
+    LazyRows rows = roundTrip(Collections.emptyList());
+
+    assertThat(rows.getData()).isEmpty();
+    assertThat(rows.getData().poll()).isNull();
+  }
+
+  @Test
+  public void should_decode_other_results_with_default_codecs() {
+    Frame frame = decode(new SetKeyspace("ks"));
+
+    assertThat(frame.message).isInstanceOf(SetKeyspace.class);
+    assertThat(((SetKeyspace) frame.message).keyspace).isEqualTo("ks");
+  }
+
+  private LazyRows roundTrip(List<List<ByteBuffer>> rows) {
+    int columnCount = rows.isEmpty() ? 1 : rows.get(0).size();
+    List<ColumnSpec> columnSpecs = new ArrayList<>(columnCount);
+    for (int i = 0; i < columnCount; i++) {
+      columnSpecs.add(
+          new ColumnSpec(
+              "ks", "t", "c" + i, i, RawType.PRIMITIVES.get(ProtocolConstants.DataType.BLOB)));
+    }
+    RowsMetadata metadata = new RowsMetadata(columnSpecs, null, null, null);
+    Frame frame = decode(new DefaultRows(metadata, new ArrayDeque<>(rows)));
+    assertThat(frame.message).isInstanceOf(LazyRows.class);
+    return (LazyRows) frame.message;
+  }
+
+  private Frame decode(Message message) {
+    ByteBuf encoded =
+        serverCodec.encode(
+            Frame.forResponse(
+                VERSION, 1, null, Collections.emptyMap(), Collections.emptyList(), message));
+    try {
+      return clientCodec.decode(encoded);
+    } finally {
+      encoded.release();
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.DecoderException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class SegmentCodecTest {
+
+  @Test
+  public void should_batch_frames_until_flush() {
+    EmbeddedChannel channel = new EmbeddedChannel(new SegmentEncoder(new SegmentCodec(null)));
+
+    channel.write(frame("frame1"));
+    channel.write(frame("frame2"));
+    channel.write(frame("frame3"));
+    assertThat((Object) channel.readOutbound()).isNull();
+
+    channel.flush();
+    ByteBuf segment = channel.readOutbound();
+    assertThat((Object) channel.readOutbound()).isNull();
+    assertThat(isSelfContained(segment, SegmentCodec.UNCOMPRESSED_HEADER_LENGTH, 17)).isTrue();
+    assertThat(decodeAll(new SegmentCodec(null), segment)).isEqualTo("frame1frame2frame3");
+  }
+
+  @Test
+  public void should_split_large_frame() {
+    EmbeddedChannel channel = new EmbeddedChannel(new SegmentEncoder(new SegmentCodec(null)));
+    byte[] bytes = new byte[SegmentCodec.MAX_PAYLOAD_LENGTH * 2 + 10];
+    Arrays.fill(bytes, (byte) 'a');
+
+    channel.write(frame("small"));
+    channel.writeAndFlush(Unpooled.wrappedBuffer(bytes));
+
+    // The pending small frame is sent first, then the large one in 3 parts
+    ByteBuf first = channel.readOutbound();
+    assertThat(decodeAll(new SegmentCodec(null), first)).isEqualTo("small");
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < 3; i++) {
+      ByteBuf segment = channel.readOutbound();
+      assertThat(isSelfContained(segment, SegmentCodec.UNCOMPRESSED_HEADER_LENGTH, 17)).isFalse();
+      large.append(decodeAll(new SegmentCodec(null), segment));
+    }
+    assertThat((Object) channel.readOutbound()).isNull();
+    assertThat(large.toString()).isEqualTo(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void should_compress_segments() {
+    SegmentCodec codec = new SegmentCodec(newLz4Compressor());
+    char[] chars = new char[1000];
+    Arrays.fill(chars, 'b');
+    String contents = new String(chars);
+
+    ByteBuf segment = codec.encode(frame(contents), true, Unpooled.buffer().alloc());
+    assertThat(segment.readableBytes()).isLessThan(contents.length());
+    assertThat(isSelfContained(segment, SegmentCodec.COMPRESSED_HEADER_LENGTH, 34)).isTrue();
+    assertThat(decodeAll(new SegmentCodec(newLz4Compressor()), segment)).isEqualTo(contents);
+  }
+
+  @Test
+  public void should_not_compress_segment_if_no_gain() {
+    SegmentCodec codec = new SegmentCodec(newLz4Compressor());
+
+    ByteBuf segment = codec.encode(frame("abc"), true, Unpooled.buffer().alloc());
+    // Header + payload as-is + CRC
+    assertThat(segment.readableBytes())
+        .isEqualTo(SegmentCodec.COMPRESSED_HEADER_LENGTH + 3 + SegmentCodec.CRC32_LENGTH);
+    assertThat(decodeAll(new SegmentCodec(newLz4Compressor()), segment)).isEqualTo("abc");
+  }
+
+  @Test
+  public void should_reassemble_segments_received_in_chunks() {
+    SegmentCodec codec = new SegmentCodec(null);
+    ByteBuf segments =
+        Unpooled.wrappedBuffer(
+            codec.encode(frame("frame1"), true, Unpooled.buffer().alloc()),
+            codec.encode(frame("frame2"), true, Unpooled.buffer().alloc()));
+    EmbeddedChannel channel = new EmbeddedChannel(new SegmentDecoder(new SegmentCodec(null)));
+
+    while (segments.isReadable()) {
+      channel.writeInbound(segments.readRetainedSlice(Math.min(5, segments.readableBytes())));
+    }
+    segments.release();
+
+    assertThat(readString(channel.readInbound())).isEqualTo("frame1");
+    assertThat(readString(channel.readInbound())).isEqualTo("frame2");
+    assertThat((Object) channel.readInbound()).isNull();
+  }
+
+  @Test
+  public void should_fail_if_payload_is_corrupted() {
+    ByteBuf segment =
+        Unpooled.copiedBuffer(
+            new SegmentCodec(null).encode(frame("frame1"), true, Unpooled.buffer().alloc()));
+    int payloadIndex = SegmentCodec.UNCOMPRESSED_HEADER_LENGTH;
+    segment.setByte(payloadIndex, segment.getByte(payloadIndex) + 1);
+    EmbeddedChannel channel = new EmbeddedChannel(new SegmentDecoder(new SegmentCodec(null)));
+
+    try {
+      channel.writeInbound(segment);
+      fail("Expected a DecoderException");
+    } catch (DecoderException e) {
+      assertThat(e).isInstanceOf(CorruptedFrameException.class);
+      assertThat(e).hasMessageContaining("Payload CRC mismatch");
+    }
+  }
+
+  @Test
+  public void should_fail_if_header_is_corrupted() {
+    ByteBuf segment =
+        Unpooled.copiedBuffer(
+            new SegmentCodec(null).encode(frame("frame1"), true, Unpooled.buffer().alloc()));
+    segment.setByte(0, segment.getByte(0) + 1);
+    EmbeddedChannel channel = new EmbeddedChannel(new SegmentDecoder(new SegmentCodec(null)));
+
+    try {
+      channel.writeInbound(segment);
+      fail("Expected a DecoderException");
+    } catch (DecoderException e) {
+      assertThat(e).isInstanceOf(CorruptedFrameException.class);
+      assertThat(e).hasMessageContaining("Header CRC mismatch");
+    }
+  }
+
+  private static ByteBuf frame(String contents) {
+    return Unpooled.copiedBuffer(contents, StandardCharsets.UTF_8);
+  }
+
+  private static boolean isSelfContained(ByteBuf segment, int headerLength, int flagBit) {
+    long header = 0;
+    for (int i = 0; i < headerLength - SegmentCodec.CRC24_LENGTH; i++) {
+      header |= (segment.getByte(segment.readerIndex() + i) & 0xFFL) << (8 * i);
+    }
+    return (header & (1L << flagBit)) != 0;
+  }
+
+  private static String decodeAll(SegmentCodec codec, ByteBuf segment) {
+    try {
+      return readString(codec.decode(segment));
+    } finally {
+      assertThat(segment.isReadable()).isFalse();
+      segment.release();
+    }
+  }
+
+  private static String readString(ByteBuf payload) {
+    try {
+      return new String(ByteBufUtil.getBytes(payload), StandardCharsets.UTF_8);
+    } finally {
+      payload.release();
+    }
+  }
+
+  private static Lz4Compressor newLz4Compressor() {
+    DriverContext context = mock(DriverContext.class);
+    when(context.getSessionName()).thenReturn("test");
+    return new Lz4Compressor(context);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.protocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class ZstdCompressorTest {
+
+  private static final byte[] PAYLOAD =
+      "the quick brown fox jumps over the lazy dog, the quick brown fox jumps over the lazy dog"
+          .getBytes(StandardCharsets.UTF_8);
+
+  private final ZstdCompressor compressor =
+      new ZstdCompressor("test", ZstdCompressor.DEFAULT_LEVEL);
+
+  @Test
+  public void should_compress_and_decompress_heap_buffer() {
+    should_compress_and_decompress(Unpooled.wrappedBuffer(PAYLOAD));
+  }
+
+  @Test
+  public void should_compress_and_decompress_direct_buffer() {
+    ByteBuf input = Unpooled.directBuffer(PAYLOAD.length);
+    input.writeBytes(PAYLOAD);
+    should_compress_and_decompress(input);
+  }
+
+  private void should_compress_and_decompress(ByteBuf input) {
+    // When
+    ByteBuf compressed = compressor.compress(input);
+    ByteBuf decompressed = compressor.decompress(compressed);
+
+    // Then
+    assertThat(compressed.isDirect()).isEqualTo(input.isDirect());
+    assertThat(ByteBufUtil.getBytes(decompressed)).isEqualTo(PAYLOAD);
+
+    input.release();
+    compressed.release();
+    decompressed.release();
+  }
+
+  @Test
+  public void should_fail_to_decompress_corrupted_heap_buffer() {
+    // Given
+    ByteBuf corrupted = Unpooled.buffer();
+    corrupted.writeInt(PAYLOAD.length);
+    corrupted.writeBytes(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+    // When/Then
+    assertThatThrownBy(() -> compressor.decompress(corrupted))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Zstd error");
+    corrupted.release();
+  }
+
+  @Test
+  public void should_fail_to_decompress_corrupted_direct_buffer() {
+    // Given
+    ByteBuf corrupted = Unpooled.directBuffer();
+    corrupted.writeInt(PAYLOAD.length);
+    corrupted.writeBytes(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+    // When/Then
+    assertThatThrownBy(() -> compressor.decompress(corrupted))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Zstd error");
+    corrupted.release();
+  }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.session.throttling;
+
+import static com.datastax.oss.driver.Assertions.assertThat;
+import static com.datastax.oss.driver.Assertions.assertThatStage;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.RequestThrottlingException;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.SyntaxError;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveConcurrencyLimitingRequestThrottlerTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+  @Mock private DriverContext context;
+  @Mock private DriverConfig config;
+  @Mock private DriverExecutionProfile defaultProfile;
+
+  private SettableNanoClock clock = new SettableNanoClock();
+
+  private AdaptiveConcurrencyLimitingRequestThrottler throttler;
+
+  @Before
+  public void setup() {
+    when(context.getConfig()).thenReturn(config);
+    when(config.getDefaultProfile()).thenReturn(defaultProfile);
+
+    when(defaultProfile.getInt(
+            DefaultDriverOption.REQUEST_THROTTLER_MIN_CONCURRENT_REQUESTS,
+            AdaptiveConcurrencyLimitingRequestThrottler.DEFAULT_MIN_CONCURRENT_REQUESTS))
+        .thenReturn(4);
+    when(defaultProfile.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_CONCURRENT_REQUESTS))
+        .thenReturn(8);
+    when(defaultProfile.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_QUEUE_SIZE))
+        .thenReturn(10);
+    when(defaultProfile.getDuration(
+            DefaultDriverOption.REQUEST_THROTTLER_LATENCY_THRESHOLD,
+            AdaptiveConcurrencyLimitingRequestThrottler.DEFAULT_LATENCY_THRESHOLD))
+        .thenReturn(Duration.ofMillis(100));
+    when(defaultProfile.getDouble(
+            DefaultDriverOption.REQUEST_THROTTLER_BACKOFF_RATIO,
+            AdaptiveConcurrencyLimitingRequestThrottler.DEFAULT_BACKOFF_RATIO))
+        .thenReturn(0.5);
+
+    throttler = new AdaptiveConcurrencyLimitingRequestThrottler(context, clock);
+  }
+
+  @Test
+  public void should_start_at_min_limit_and_enqueue_when_over_it() {
+    // Given
+    for (int i = 0; i < 4; i++) {
+      MockThrottled request = new MockThrottled();
+      throttler.register(request);
+      assertThatStage(request.started).isSuccess(wasDelayed -> assertThat(wasDelayed).isFalse());
+    }
+
+    // When
+    MockThrottled incoming = new MockThrottled();
+    throttler.register(incoming);
+
+    // Then
+    assertThat(throttler.getConcurrencyLimit()).isEqualTo(4);
+    assertThatStage(incoming.started).isNotDone();
+    assertThat(throttler.getConcurrentRequests()).isEqualTo(4);
+    assertThat(throttler.getQueue()).containsExactly(incoming);
+  }
+
+  @Test
+  public void should_increase_limit_on_fast_responses_up_to_max() {
+    // When
+    growLimitToMax();
+
+    // Then
+    assertThat(throttler.getConcurrencyLimit()).isEqualTo(8);
+    assertThat(throttler.getConcurrentRequests()).isEqualTo(3);
+  }
+
+  @Test
+  public void should_not_increase_limit_if_not_busy() {
+    // Given
+    MockThrottled request = new MockThrottled();
+    throttler.register(request);
+
+    // When
+    clock.add(FAST);
+    throttler.signalSuccess(request);
+
+    // Then
+    assertThat(throttler.getConcurrencyLimit()).isEqualTo(4);
+  }
+
+  @Test
+  public void should_decrease_limit_on_slow_response() {
+    // Given
+    growLimitToMax();
+    MockThrottled request = new MockThrottled();
+    throttler.register(request);
+
+    // When
+    clock.add(SLOW);
+    throttler.signalSuccess(request);
+
+    // Then
+    assertThat(throttler.getConcurrencyLimit()).isEqualTo(4);
+  }
+
+  @Test
+  public void should_decrease_limit_at_most_once_per_threshold_period() {
+    // Given
+    growLimitToMax();
+    MockThrottled request1 = new MockThrottled();
+    throttler.register(request1);
+    MockThrottled request2 = new MockThrottled();
+    throttler.register(request2);
+
+    // When
+    clock.add(SLOW);
+    throttler.signalSuccess(request1);
+    throttler.signalSuccess(request2);
+
+    // Then
+    assertThat(throttler.getConcurrencyLimit()).isEqualTo(4);
+  }
+
+  @Test
+  public void should_decrease_limit_on_overloaded_error() {
+    // Given
+    growLimitToMax();
+    MockThrottled request = new MockThrottled();
+    throttler.register(request);
+
+    // When
+    clock.add(FAST);
+    throttler.signalError(request, new OverloadedException(mock(Node.class)));
+
+    // Then
+    assertThat(throttler.getConcurrencyLimit()).isEqualTo(4);
+  }
+
+  @Test
+  public void should_not_change_limit_on_other_errors() {
+    // Given
+    growLimitToMax();
+    MockThrottled request = new MockThrottled();
+    throttler.register(request);
+
+    // When
+    clock.add(SLOW);
+    throttler.signalError(request, new SyntaxError(mock(Node.class), "mock error"));
+
+    // Then
+    assertThat(throttler.getConcurrencyLimit()).isEqualTo(8);
+  }
+
+  @Test
+  public void should_not_dequeue_until_under_decreased_limit() {
+    // Given
+    growLimitToMax();
+    MockThrottled[] active = new MockThrottled[5];
+    for (int i = 0; i < active.length; i++) {
+      active[i] = new MockThrottled();
+      throttler.register(active[i]);
+    }
+    MockThrottled queued = new MockThrottled();
+    throttler.register(queued);
+    assertThat(throttler.getConcurrentRequests()).isEqualTo(8);
+    assertThatStage(queued.started).isNotDone();
+
+    // When
+    throttler.signalTimeout(active[0]);
+
+    // Then
+    assertThat(throttler.getConcurrencyLimit()).isEqualTo(4);
+    assertThat(throttler.getConcurrentRequests()).isEqualTo(7);
+    assertThatStage(queued.started).isNotDone();
+
+    // When
+    for (int i = 1; i < active.length; i++) {
+      throttler.signalSuccess(active[i]);
+    }
+
+    // Then
+    // 3 requests left from growLimitToMax(), the queued one can start
+    assertThatStage(queued.started).isSuccess(wasDelayed -> assertThat(wasDelayed).isTrue());
+    assertThat(throttler.getConcurrentRequests()).isEqualTo(4);
+    assertThat(throttler.getQueue()).isEmpty();
+  }
+
+  @Test
+  public void should_reject_when_queue_is_full() {
+    // Given
+    for (int i = 0; i < 14; i++) {
+      throttler.register(new MockThrottled());
+    }
+    assertThat(throttler.getQueueSize()).isEqualTo(10);
+
+    // When
+    MockThrottled incoming = new MockThrottled();
+    throttler.register(incoming);
+
+    // Then
+    assertThatStage(incoming.started)
+        .isFailed(error -> assertThat(error).isInstanceOf(RequestThrottlingException.class));
+  }
+
+  @Test
+  public void should_reject_enqueued_when_closing() {
+    // Given
+    for (int i = 0; i < 4; i++) {
+      throttler.register(new MockThrottled());
+    }
+    MockThrottled queued = new MockThrottled();
+    throttler.register(queued);
+
+    // When
+    throttler.close();
+
+    // Then
+    assertThatStage(queued.started)
+        .isFailed(error -> assertThat(error).isInstanceOf(RequestThrottlingException.class));
+    assertThat(throttler.getQueueSize()).isEqualTo(0);
+  }
+
+  // Keeps 3 requests active, and completes others quickly until the limit reaches the max
+  private void growLimitToMax() {
+    for (int i = 0; i < 3; i++) {
+      throttler.register(new MockThrottled());
+    }
+    for (int i = 0; i < 4; i++) {
+      MockThrottled request = new MockThrottled();
+      throttler.register(request);
+      clock.add(FAST);
+      throttler.signalSuccess(request);
+    }
+    clock.add(SLOW); // so that the next decrease is not ignored
+  }
+}
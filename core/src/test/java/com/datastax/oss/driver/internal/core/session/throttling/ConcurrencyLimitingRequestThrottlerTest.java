@@ -27,6 +27,12 @@ import com.datastax.oss.driver.api.core.context.DriverContext;
 import com.datastax.oss.driver.api.core.session.throttling.Throttled;
 import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import org.junit.Before;
 import org.junit.Test;
@@ -237,4 +243,49 @@ public class ConcurrencyLimitingRequestThrottlerTest {
     assertThatStage(request.started)
         .isFailed(error -> assertThat(error).isInstanceOf(RequestThrottlingException.class));
   }
+
+  @Test
+  public void should_not_exceed_capacity_or_lose_requests_under_contention() throws Exception {
+    int threadCount = 32;
+    int iterations = 500;
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      List<Future<?>> futures = Lists.newArrayList();
+      for (int i = 0; i < threadCount; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int j = 0; j < iterations; j++) {
+                    MockThrottled request = new MockThrottled();
+                    throttler.register(request);
+                    try {
+                      request.started.toCompletableFuture().get(10, TimeUnit.SECONDS);
+                    } catch (ExecutionException e) {
+                      // rejected because the queue was full
+                      assertThat(e.getCause()).isInstanceOf(RequestThrottlingException.class);
+                      continue;
+                    }
+                    int current = inFlight.incrementAndGet();
+                    maxInFlight.accumulateAndGet(current, Math::max);
+                    inFlight.decrementAndGet();
+                    throttler.signalSuccess(request);
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        // A TimeoutException here means that a queued request was never started
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(5);
+    assertThat(throttler.getConcurrentRequests()).isEqualTo(0);
+    assertThat(throttler.getQueue()).isEmpty();
+    assertThat(throttler.getQueueSize()).isEqualTo(0);
+  }
 }
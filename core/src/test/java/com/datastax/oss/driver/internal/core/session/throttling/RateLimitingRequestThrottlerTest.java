@@ -17,6 +17,7 @@ package com.datastax.oss.driver.internal.core.session.throttling;
 
 import static com.datastax.oss.driver.Assertions.assertThat;
 import static com.datastax.oss.driver.Assertions.assertThatStage;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.RequestThrottlingException;
@@ -40,16 +41,14 @@ import org.mockito.junit.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class RateLimitingRequestThrottlerTest {
 
+  private static final long FIFTY_MILLISECONDS =
+      TimeUnit.NANOSECONDS.convert(50, TimeUnit.MILLISECONDS);
   private static final long ONE_HUNDRED_MILLISECONDS =
       TimeUnit.NANOSECONDS.convert(100, TimeUnit.MILLISECONDS);
   private static final long TWO_HUNDRED_MILLISECONDS =
       TimeUnit.NANOSECONDS.convert(200, TimeUnit.MILLISECONDS);
   private static final long TWO_SECONDS = TimeUnit.NANOSECONDS.convert(2, TimeUnit.SECONDS);
 
-  // Note: we trigger scheduled task manually, so this is for verification purposes only, it doesn't
-  // need to be consistent with the actual throttling rate.
-  private static final Duration DRAIN_INTERVAL = Duration.ofMillis(10);
-
   @Mock private InternalDriverContext context;
   @Mock private DriverConfig config;
   @Mock private DriverExecutionProfile defaultProfile;
@@ -71,11 +70,6 @@ public class RateLimitingRequestThrottlerTest {
     when(defaultProfile.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_QUEUE_SIZE))
         .thenReturn(10);
 
-    // Set to match the time to reissue one permit. Although it does not matter in practice, since
-    // the executor is mocked and we trigger tasks manually.
-    when(defaultProfile.getDuration(DefaultDriverOption.REQUEST_THROTTLER_DRAIN_INTERVAL))
-        .thenReturn(DRAIN_INTERVAL);
-
     when(context.getNettyOptions()).thenReturn(nettyOptions);
     when(nettyOptions.adminEventExecutorGroup()).thenReturn(adminGroup);
     adminExecutor = new ScheduledTaskCapturingEventLoop(adminGroup);
@@ -84,7 +78,10 @@ public class RateLimitingRequestThrottlerTest {
     throttler = new RateLimitingRequestThrottler(context, clock);
   }
 
-  /** Note: the throttler starts with 1 second worth of permits, so at t=0 we have 5 available. */
+  /**
+   * Note: the throttler starts with a full bucket (by default 1 second worth of permits), so at t=0
+   * we have 5 available.
+   */
   @Test
   public void should_start_immediately_when_under_capacity() {
     // Given
@@ -138,7 +135,7 @@ public class RateLimitingRequestThrottlerTest {
 
     ScheduledTaskCapturingEventLoop.CapturedTask<?> task = adminExecutor.nextTask();
     assertThat(task).isNotNull();
-    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS)).isEqualTo(DRAIN_INTERVAL.toNanos());
+    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS)).isEqualTo(TWO_HUNDRED_MILLISECONDS);
   }
 
   @Test
@@ -198,7 +195,7 @@ public class RateLimitingRequestThrottlerTest {
 
     ScheduledTaskCapturingEventLoop.CapturedTask<?> task = adminExecutor.nextTask();
     assertThat(task).isNotNull();
-    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS)).isEqualTo(DRAIN_INTERVAL.toNanos());
+    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS)).isEqualTo(TWO_HUNDRED_MILLISECONDS);
 
     // When
     // (do not advance clock => no new permits)
@@ -210,7 +207,7 @@ public class RateLimitingRequestThrottlerTest {
     // task reschedules itself since it did not empty the queue
     task = adminExecutor.nextTask();
     assertThat(task).isNotNull();
-    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS)).isEqualTo(DRAIN_INTERVAL.toNanos());
+    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS)).isEqualTo(TWO_HUNDRED_MILLISECONDS);
 
     // When
     clock.add(TWO_HUNDRED_MILLISECONDS); // 1 extra permit issued
@@ -224,7 +221,7 @@ public class RateLimitingRequestThrottlerTest {
     // task reschedules itself since it did not empty the queue
     task = adminExecutor.nextTask();
     assertThat(task).isNotNull();
-    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS)).isEqualTo(DRAIN_INTERVAL.toNanos());
+    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS)).isEqualTo(TWO_HUNDRED_MILLISECONDS);
 
     // When
     clock.add(TWO_HUNDRED_MILLISECONDS);
@@ -314,4 +311,108 @@ public class RateLimitingRequestThrottlerTest {
     assertThatStage(request.started)
         .isFailed(error -> assertThat(error).isInstanceOf(RequestThrottlingException.class));
   }
+
+  @Test
+  public void should_schedule_drain_when_next_permit_is_available() {
+    // Given
+    for (int i = 0; i < 5; i++) {
+      throttler.register(new MockThrottled());
+    }
+
+    // When
+    clock.add(FIFTY_MILLISECONDS);
+    throttler.register(new MockThrottled());
+
+    // Then
+    ScheduledTaskCapturingEventLoop.CapturedTask<?> task = adminExecutor.nextTask();
+    assertThat(task).isNotNull();
+    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS))
+        .isEqualTo(TWO_HUNDRED_MILLISECONDS - FIFTY_MILLISECONDS);
+  }
+
+  @Test
+  public void should_use_drain_interval_as_minimum_delay() {
+    // Given
+    when(defaultProfile.isDefined(DefaultDriverOption.REQUEST_THROTTLER_DRAIN_INTERVAL))
+        .thenReturn(true);
+    when(defaultProfile.getDuration(DefaultDriverOption.REQUEST_THROTTLER_DRAIN_INTERVAL))
+        .thenReturn(Duration.ofMillis(500));
+    throttler = new RateLimitingRequestThrottler(context, clock);
+    for (int i = 0; i < 5; i++) {
+      throttler.register(new MockThrottled());
+    }
+
+    // When
+    throttler.register(new MockThrottled());
+
+    // Then
+    ScheduledTaskCapturingEventLoop.CapturedTask<?> task = adminExecutor.nextTask();
+    assertThat(task).isNotNull();
+    assertThat(task.getInitialDelay(TimeUnit.NANOSECONDS))
+        .isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+  }
+
+  @Test
+  public void should_keep_remainder_when_creating_permits() {
+    // Given
+    for (int i = 0; i < 5; i++) {
+      throttler.register(new MockThrottled());
+    }
+    clock.add(TWO_HUNDRED_MILLISECONDS + ONE_HUNDRED_MILLISECONDS);
+    MockThrottled request1 = new MockThrottled();
+    throttler.register(request1);
+    assertThatStage(request1.started).isSuccess(wasDelayed -> assertThat(wasDelayed).isFalse());
+
+    // When
+    // the 100 milliseconds left over from the previous acquisition count towards this permit
+    clock.add(ONE_HUNDRED_MILLISECONDS);
+    MockThrottled request2 = new MockThrottled();
+    throttler.register(request2);
+
+    // Then
+    assertThatStage(request2.started).isSuccess(wasDelayed -> assertThat(wasDelayed).isFalse());
+    assertThat(throttler.getStoredPermits()).isEqualTo(0);
+  }
+
+  @Test
+  public void should_limit_stored_permits_to_max_burst() {
+    // Given
+    when(defaultProfile.isDefined(DefaultDriverOption.REQUEST_THROTTLER_MAX_BURST))
+        .thenReturn(true);
+    when(defaultProfile.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_BURST)).thenReturn(2);
+    throttler = new RateLimitingRequestThrottler(context, clock);
+
+    // When
+    for (int i = 0; i < 2; i++) {
+      MockThrottled request = new MockThrottled();
+      throttler.register(request);
+      assertThatStage(request.started).isSuccess(wasDelayed -> assertThat(wasDelayed).isFalse());
+    }
+    MockThrottled queued = new MockThrottled();
+    throttler.register(queued);
+
+    // Then
+    assertThatStage(queued.started).isNotDone();
+
+    // When
+    clock.add(TWO_SECONDS);
+    adminExecutor.nextTask().run();
+
+    // Then
+    assertThatStage(queued.started).isSuccess(wasDelayed -> assertThat(wasDelayed).isTrue());
+    assertThat(throttler.getStoredPermits()).isEqualTo(1);
+  }
+
+  @Test
+  public void should_fail_if_max_burst_not_positive() {
+    // Given
+    when(defaultProfile.isDefined(DefaultDriverOption.REQUEST_THROTTLER_MAX_BURST))
+        .thenReturn(true);
+    when(defaultProfile.getInt(DefaultDriverOption.REQUEST_THROTTLER_MAX_BURST)).thenReturn(0);
+
+    // When/Then
+    assertThatThrownBy(() -> new RateLimitingRequestThrottler(context, clock))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(DefaultDriverOption.REQUEST_THROTTLER_MAX_BURST.getPath());
+  }
 }
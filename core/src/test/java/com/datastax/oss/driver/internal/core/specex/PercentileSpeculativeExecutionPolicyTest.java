@@ -0,0 +1,335 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.specex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.UnavailableException;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.specex.SpeculativeExecutionPolicy;
+import com.datastax.oss.driver.internal.core.context.EventBus;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.datastax.oss.driver.internal.core.metadata.DefaultNode;
+import com.datastax.oss.driver.internal.core.metadata.NodeStateEvent;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PercentileSpeculativeExecutionPolicyTest {
+
+  private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  @Mock private InternalDriverContext context;
+  @Mock private DriverConfig config;
+  @Mock private DriverExecutionProfile defaultProfile;
+  @Mock private DriverExecutionProfile otherProfile;
+  @Mock private Node node1;
+  @Mock private Node node2;
+  @Mock private DefaultNode node3;
+  @Mock private Request request;
+
+  private EventBus eventBus;
+
+  @Before
+  public void setup() {
+    when(context.getSessionName()).thenReturn("test");
+    eventBus = new EventBus("test");
+    when(context.getConfig()).thenReturn(config);
+    when(config.getProfile(DriverExecutionProfile.DEFAULT_NAME)).thenReturn(defaultProfile);
+    when(defaultProfile.getName()).thenReturn(DriverExecutionProfile.DEFAULT_NAME);
+
+    when(defaultProfile.getInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX)).thenReturn(3);
+    when(defaultProfile.getDouble(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE))
+        .thenReturn(90.0);
+    when(defaultProfile.getBoolean(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_PER_NODE))
+        .thenReturn(true);
+    when(defaultProfile.getInt(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_MIN_SAMPLES))
+        .thenReturn(100);
+    when(defaultProfile.getDuration(
+            DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_HIGHEST_LATENCY))
+        .thenReturn(Duration.ofSeconds(3));
+    when(defaultProfile.getDuration(
+            DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_REFRESH_INTERVAL))
+        .thenReturn(Duration.ofNanos(REFRESH_INTERVAL_NANOS));
+  }
+
+  @Test
+  public void should_not_schedule_execution_until_enough_samples() {
+    // Given
+    TestPolicy policy = newPolicy();
+
+    // When
+    record(policy, node1, 99, 10);
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(-1);
+  }
+
+  @Test
+  public void should_use_fallback_delay_until_enough_samples() {
+    // Given
+    when(defaultProfile.isDefined(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY))
+        .thenReturn(true);
+    when(defaultProfile.getDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY))
+        .thenReturn(Duration.ofMillis(100));
+    TestPolicy policy = newPolicy();
+
+    // When
+    record(policy, node1, 99, 10);
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(100);
+    assertThat(policy.nextExecution(node2, null, request, 1)).isEqualTo(100);
+  }
+
+  @Test
+  public void should_schedule_execution_at_percentile_of_each_node() {
+    // Given
+    TestPolicy policy = newPolicy();
+
+    // When
+    recordDistribution(policy, node1, 10, 50);
+    recordDistribution(policy, node2, 100, 500);
+    // Not refreshed yet
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(-1);
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(10);
+    assertThat(policy.nextExecution(node1, null, request, 2)).isEqualTo(10);
+    assertThat(policy.nextExecution(node2, null, request, 1)).isEqualTo(100);
+  }
+
+  @Test
+  public void should_not_schedule_more_than_max_executions() {
+    // Given
+    TestPolicy policy = newPolicy();
+
+    // When
+    recordDistribution(policy, node1, 10, 50);
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    assertThat(policy.nextExecution(node1, null, request, 2)).isEqualTo(10);
+    assertThat(policy.nextExecution(node1, null, request, 3)).isEqualTo(-1);
+  }
+
+  @Test
+  public void should_follow_latency_changes() {
+    // Given
+    TestPolicy policy = newPolicy();
+    recordDistribution(policy, node1, 10, 50);
+    policy.now += REFRESH_INTERVAL_NANOS;
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(10);
+
+    // When
+    recordDistribution(policy, node1, 40, 200);
+
+    // Then
+    // The new samples are only taken into account after the next refresh
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(10);
+    policy.now += REFRESH_INTERVAL_NANOS;
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(40);
+  }
+
+  @Test
+  public void should_keep_previous_delay_and_samples_if_not_enough_samples_in_interval() {
+    // Given
+    TestPolicy policy = newPolicy();
+    recordDistribution(policy, node1, 10, 50);
+    policy.now += REFRESH_INTERVAL_NANOS;
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(10);
+
+    // When
+    record(policy, node1, 30, 50);
+    policy.now += REFRESH_INTERVAL_NANOS;
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(10);
+    record(policy, node1, 30, 50);
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    // The two intervals were combined
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(30);
+  }
+
+  @Test
+  public void should_track_all_nodes_together_if_not_per_node() {
+    // Given
+    when(defaultProfile.getBoolean(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_PER_NODE))
+        .thenReturn(false);
+    TestPolicy policy = newPolicy();
+
+    // When
+    record(policy, node1, 10, 80);
+    record(policy, node2, 100, 20);
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(100);
+    assertThat(policy.nextExecution(node2, null, request, 1)).isEqualTo(100);
+  }
+
+  @Test
+  public void should_ignore_requests_from_profiles_that_use_another_policy() {
+    // Given
+    TestPolicy policy = newPolicy();
+    when(otherProfile.getName()).thenReturn("other");
+    when(context.getSpeculativeExecutionPolicy("other"))
+        .thenReturn(mock(SpeculativeExecutionPolicy.class));
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      policy.updateLatency(otherProfile, node1, TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    record(policy, node2, 20, 100);
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(-1);
+    assertThat(policy.nextExecution(node2, null, request, 1)).isEqualTo(20);
+  }
+
+  @Test
+  public void should_never_return_zero_delay() {
+    // Given
+    TestPolicy policy = newPolicy();
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      policy.updateLatency(defaultProfile, node1, TimeUnit.MICROSECONDS.toNanos(300));
+    }
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(1);
+  }
+
+  @Test
+  public void should_record_latencies_above_highest_as_highest() {
+    // Given
+    TestPolicy policy = newPolicy();
+
+    // When
+    record(policy, node1, 60_000, 100);
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    assertThat(policy.nextExecution(node1, null, request, 1)).isBetween(2970L, 3030L);
+  }
+
+  @Test
+  public void should_record_timeouts_but_ignore_fast_errors() {
+    // Given
+    TestPolicy policy = newPolicy();
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      recordError(policy, node1, mock(UnavailableException.class), 1);
+      recordError(policy, node2, mock(ReadTimeoutException.class), 20);
+    }
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // Then
+    assertThat(policy.nextExecution(node1, null, request, 1)).isEqualTo(-1);
+    assertThat(policy.nextExecution(node2, null, request, 1)).isEqualTo(20);
+  }
+
+  @Test
+  public void should_discard_latencies_of_removed_node() {
+    // Given
+    TestPolicy policy = newPolicy();
+    recordDistribution(policy, node3, 10, 50);
+    policy.now += REFRESH_INTERVAL_NANOS;
+    assertThat(policy.nextExecution(node3, null, request, 1)).isEqualTo(10);
+
+    // When
+    eventBus.fire(NodeStateEvent.removed(node3));
+
+    // Then
+    assertThat(policy.nextExecution(node3, null, request, 1)).isEqualTo(-1);
+  }
+
+  @Test
+  public void should_stop_listening_to_node_events_when_closed() {
+    // Given
+    TestPolicy policy = newPolicy();
+    recordDistribution(policy, node3, 10, 50);
+    policy.now += REFRESH_INTERVAL_NANOS;
+
+    // When
+    policy.close();
+    eventBus.fire(NodeStateEvent.removed(node3));
+
+    // Then
+    assertThat(policy.nextExecution(node3, null, request, 1)).isEqualTo(10);
+  }
+
+  private TestPolicy newPolicy() {
+    // The policy only listens to node events if it tracks latencies per node
+    if (defaultProfile.getBoolean(DefaultDriverOption.SPECULATIVE_EXECUTION_PERCENTILE_PER_NODE)) {
+      when(context.getEventBus()).thenReturn(eventBus);
+    }
+    TestPolicy policy = new TestPolicy(context);
+    when(context.getSpeculativeExecutionPolicy(anyString())).thenReturn(policy);
+    return policy;
+  }
+
+  private void record(TestPolicy policy, Node node, long latencyMillis, int count) {
+    for (int i = 0; i < count; i++) {
+      policy.updateLatency(defaultProfile, node, TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    }
+  }
+
+  private void recordError(TestPolicy policy, Node node, Throwable error, long latencyMillis) {
+    policy.onNodeError(
+        request, error, TimeUnit.MILLISECONDS.toNanos(latencyMillis), defaultProfile, node, "test");
+  }
+
+  /** Records 100 samples: 90 at {@code p90Millis}, and 10 at {@code slowMillis}. */
+  private void recordDistribution(TestPolicy policy, Node node, long p90Millis, long slowMillis) {
+    record(policy, node, p90Millis, 90);
+    record(policy, node, slowMillis, 10);
+  }
+
+  private static class TestPolicy extends PercentileSpeculativeExecutionPolicy {
+
+    private long now;
+
+    private TestPolicy(InternalDriverContext context) {
+      super(context, DriverExecutionProfile.DEFAULT_NAME);
+    }
+
+    @Override
+    long nanoTime() {
+      return now;
+    }
+  }
+}
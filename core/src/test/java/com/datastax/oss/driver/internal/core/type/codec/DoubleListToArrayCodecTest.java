@@ -0,0 +1,115 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.type.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.protocol.internal.util.Bytes;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class DoubleListToArrayCodecTest extends CodecTestBase<double[]> {
+
+  public DoubleListToArrayCodecTest() {
+    this.codec = TypeCodecs.DOUBLE_LIST_TO_ARRAY;
+  }
+
+  @Test
+  public void should_encode() {
+    assertThat(encode(new double[] {0.0, 1.5}))
+        .isEqualTo(
+            "0x00000002" // number of elements
+                + "00000008" // size of element 1
+                + "0000000000000000" // contents of element 1
+                + "00000008" // size of element 2
+                + "3ff8000000000000" // contents of element 2
+            );
+    assertThat(encode(new double[0])).isEqualTo("0x00000000");
+    assertThat(encode(null)).isNull();
+  }
+
+  @Test
+  public void should_encode_like_list_codec() {
+    assertThat(encode(new double[] {1.0, -2.5, Double.NaN}))
+        .isEqualTo(
+            Bytes.toHexString(
+                TypeCodecs.listOf(TypeCodecs.DOUBLE)
+                    .encode(Arrays.asList(1.0, -2.5, Double.NaN), ProtocolVersion.DEFAULT)));
+  }
+
+  @Test
+  public void should_decode() {
+    assertThat(
+            decode(
+                "0x"
+                    + "00000002"
+                    + "00000008"
+                    + "0000000000000000"
+                    + "00000008"
+                    + "3ff8000000000000"))
+        .containsExactly(0.0, 1.5);
+    assertThat(decode("0x00000000")).isEmpty();
+    assertThat(decode("0x")).isEmpty();
+    assertThat(decode(null)).isEmpty();
+  }
+
+  @Test
+  public void should_decode_large_vector() {
+    double[] vector = new double[768];
+    for (int i = 0; i < vector.length; i++) {
+      vector[i] = i / 3.0;
+    }
+    assertThat(decode(encode(vector))).isEqualTo(vector);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_to_decode_if_element_has_wrong_size() {
+    decode("0x" + "00000001" + "00000004" + "00000000");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_to_decode_if_too_few_bytes() {
+    decode("0x" + "00000002" + "00000008" + "0000000000000000");
+  }
+
+  @Test
+  public void should_format() {
+    assertThat(format(new double[] {1.0, 1.5})).isEqualTo("[1.0,1.5]");
+    assertThat(format(new double[0])).isEqualTo("[]");
+    assertThat(format(null)).isEqualTo("NULL");
+  }
+
+  @Test
+  public void should_parse() {
+    assertThat(parse("[1.0,1.5]")).containsExactly(1.0, 1.5);
+    assertThat(parse("[]")).isEmpty();
+    assertThat(parse("NULL")).isNull();
+  }
+
+  @Test
+  public void should_accept_types() {
+    assertThat(codec.accepts(DataTypes.listOf(DataTypes.DOUBLE))).isTrue();
+    assertThat(codec.accepts(DataTypes.listOf(DataTypes.FLOAT))).isFalse();
+    assertThat(codec.accepts(GenericType.of(double[].class))).isTrue();
+    assertThat(codec.accepts(double[].class)).isTrue();
+    assertThat(codec.accepts(new double[0])).isTrue();
+    assertThat(codec.accepts(new float[0])).isFalse();
+  }
+}
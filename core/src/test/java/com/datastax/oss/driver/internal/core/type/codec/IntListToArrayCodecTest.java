@@ -0,0 +1,110 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.type.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.protocol.internal.util.Bytes;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class IntListToArrayCodecTest extends CodecTestBase<int[]> {
+
+  public IntListToArrayCodecTest() {
+    this.codec = TypeCodecs.INT_LIST_TO_ARRAY;
+  }
+
+  @Test
+  public void should_encode() {
+    assertThat(encode(new int[] {1, -1}))
+        .isEqualTo(
+            "0x00000002" // number of elements
+                + "00000004" // size of element 1
+                + "00000001" // contents of element 1
+                + "00000004" // size of element 2
+                + "ffffffff" // contents of element 2
+            );
+    assertThat(encode(new int[0])).isEqualTo("0x00000000");
+    assertThat(encode(null)).isNull();
+  }
+
+  @Test
+  public void should_encode_like_list_codec() {
+    assertThat(encode(new int[] {1, 2, 3}))
+        .isEqualTo(
+            Bytes.toHexString(
+                TypeCodecs.listOf(TypeCodecs.INT)
+                    .encode(Arrays.asList(1, 2, 3), ProtocolVersion.DEFAULT)));
+  }
+
+  @Test
+  public void should_decode() {
+    assertThat(decode("0x" + "00000002" + "00000004" + "00000001" + "00000004" + "ffffffff"))
+        .containsExactly(1, -1);
+    assertThat(decode("0x00000000")).isEmpty();
+    assertThat(decode("0x")).isEmpty();
+    assertThat(decode(null)).isEmpty();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_to_decode_if_element_has_wrong_size() {
+    decode("0x" + "00000001" + "00000002" + "00000001");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_to_decode_if_too_few_bytes() {
+    decode("0x" + "00000002" + "00000004" + "00000001");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_to_decode_if_too_few_bytes_for_element_count() {
+    decode("0x" + "000001");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_to_decode_if_expected_size_overflows() {
+    // 0x20000000 elements of 8 bytes would wrap around to 0 bytes in int arithmetic
+    decode("0x" + "20000000");
+  }
+
+  @Test
+  public void should_format() {
+    assertThat(format(new int[] {1, 2, 3})).isEqualTo("[1,2,3]");
+    assertThat(format(new int[0])).isEqualTo("[]");
+    assertThat(format(null)).isEqualTo("NULL");
+  }
+
+  @Test
+  public void should_parse() {
+    assertThat(parse("[1,2,3]")).containsExactly(1, 2, 3);
+    assertThat(parse("[]")).isEmpty();
+    assertThat(parse("NULL")).isNull();
+  }
+
+  @Test
+  public void should_accept_types() {
+    assertThat(codec.accepts(DataTypes.listOf(DataTypes.INT))).isTrue();
+    assertThat(codec.accepts(DataTypes.listOf(DataTypes.BIGINT))).isFalse();
+    assertThat(codec.accepts(GenericType.of(int[].class))).isTrue();
+    assertThat(codec.accepts(int[].class)).isTrue();
+    assertThat(codec.accepts(new int[0])).isTrue();
+    assertThat(codec.accepts(new long[0])).isFalse();
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.driver.internal.core.type.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.protocol.internal.util.Bytes;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class LongListToArrayCodecTest extends CodecTestBase<long[]> {
+
+  public LongListToArrayCodecTest() {
+    this.codec = TypeCodecs.BIGINT_LIST_TO_ARRAY;
+  }
+
+  @Test
+  public void should_encode() {
+    assertThat(encode(new long[] {1, -1}))
+        .isEqualTo(
+            "0x00000002" // number of elements
+                + "00000008" // size of element 1
+                + "0000000000000001" // contents of element 1
+                + "00000008" // size of element 2
+                + "ffffffffffffffff" // contents of element 2
+            );
+    assertThat(encode(new long[0])).isEqualTo("0x00000000");
+    assertThat(encode(null)).isNull();
+  }
+
+  @Test
+  public void should_encode_like_list_codec() {
+    assertThat(encode(new long[] {1, 2, 3}))
+        .isEqualTo(
+            Bytes.toHexString(
+                TypeCodecs.listOf(TypeCodecs.BIGINT)
+                    .encode(Arrays.asList(1L, 2L, 3L), ProtocolVersion.DEFAULT)));
+  }
+
+  @Test
+  public void should_decode() {
+    assertThat(
+            decode(
+                "0x"
+                    + "00000002"
+                    + "00000008"
+                    + "0000000000000001"
+                    + "00000008"
+                    + "ffffffffffffffff"))
+        .containsExactly(1L, -1L);
+    assertThat(decode("0x00000000")).isEmpty();
+    assertThat(decode("0x")).isEmpty();
+    assertThat(decode(null)).isEmpty();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_to_decode_if_element_has_wrong_size() {
+    decode("0x" + "00000001" + "00000004" + "00000001");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void should_fail_to_decode_if_too_few_bytes() {
+    decode("0x" + "00000002" + "00000008" + "0000000000000001");
+  }
+
+  @Test
+  public void should_format() {
+    assertThat(format(new long[] {1, 2, 3})).isEqualTo("[1,2,3]");
+    assertThat(format(new long[0])).isEqualTo("[]");
+    assertThat(format(null)).isEqualTo("NULL");
+  }
+
+  @Test
+  public void should_parse() {
+    assertThat(parse("[1,2,3]")).containsExactly(1L, 2L, 3L);
+    assertThat(parse("[]")).isEmpty();
+    assertThat(parse("NULL")).isNull();
+  }
+
+  @Test
+  public void should_accept_types() {
+    assertThat(codec.accepts(DataTypes.listOf(DataTypes.BIGINT))).isTrue();
+    assertThat(codec.accepts(DataTypes.listOf(DataTypes.INT))).isFalse();
+    assertThat(codec.accepts(GenericType.of(long[].class))).isTrue();
+    assertThat(codec.accepts(long[].class)).isTrue();
+    assertThat(codec.accepts(new long[0])).isTrue();
+    assertThat(codec.accepts(new int[0])).isFalse();
+  }
+}
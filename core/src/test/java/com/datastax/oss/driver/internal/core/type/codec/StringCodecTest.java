@@ -17,8 +17,12 @@ package com.datastax.oss.driver.internal.core.type.codec;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.protocol.internal.util.Bytes;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import org.junit.Test;
 
 public class StringCodecTest extends CodecTestBase<String> {
@@ -34,6 +38,23 @@ public class StringCodecTest extends CodecTestBase<String> {
     assertThat(encode(null)).isNull();
   }
 
+  @Test
+  public void should_encode_non_ascii_characters_like_jdk() {
+    for (String value :
+        new String[] {
+          "caf\u00e9", // 2 bytes
+          "\u20ac100", // 3 bytes
+          "a\ud83d\ude00b", // surrogate pair, 4 bytes
+          "\ud83d", // lone high surrogate
+          "a\ude00b", // lone low surrogate
+          "\ude00\ud83d", // reversed pair
+          "\u007f\u0080\u07ff\u0800\uffff" // boundaries
+        }) {
+      ByteBuffer bytes = codec.encode(value, ProtocolVersion.DEFAULT);
+      assertThat(Bytes.getArray(bytes)).isEqualTo(value.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
   @Test
   public void should_decode() {
     assertThat(decode("0x68656c6c6f")).isEqualTo("hello");
@@ -41,6 +62,25 @@ public class StringCodecTest extends CodecTestBase<String> {
     assertThat(decode(null)).isNull();
   }
 
+  @Test
+  public void should_decode_slice_of_larger_array() {
+    byte[] array = "__caf\u00e9__".getBytes(StandardCharsets.UTF_8);
+    ByteBuffer bytes = ByteBuffer.wrap(array, 2, 5).slice();
+
+    assertThat(codec.decode(bytes, ProtocolVersion.DEFAULT)).isEqualTo("caf\u00e9");
+    assertThat(bytes.position()).isEqualTo(0);
+  }
+
+  @Test
+  public void should_decode_direct_buffer() {
+    byte[] array = "caf\u00e9".getBytes(StandardCharsets.UTF_8);
+    ByteBuffer bytes = ByteBuffer.allocateDirect(array.length);
+    bytes.put(array).flip();
+
+    assertThat(codec.decode(bytes, ProtocolVersion.DEFAULT)).isEqualTo("caf\u00e9");
+    assertThat(bytes.remaining()).isEqualTo(array.length);
+  }
+
   @Test
   public void should_format() {
     assertThat(format("hello")).isEqualTo("'hello'");